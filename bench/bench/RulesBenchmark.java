@@ -0,0 +1,242 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import bot.RandomBot;
+import engine.DecisionProvider;
+import engine.GameSeed;
+import engine.GameSetup;
+import engine.GameState;
+import engine.RulesEngine;
+import model.Board;
+import model.Card;
+import model.Deck;
+import model.Finding;
+import model.Pawn;
+import model.Player;
+import sim.GameRunner;
+
+
+
+/**
+ * The RulesBenchmark class measures the hot paths of the rules: the deck, the score accounting,
+ * the path lookups, full simulated games and state copies. The object model is measured on a game
+ * played 30 turns into a fixed seed, so runs are comparable from build to build.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+    private static final GameSeed SEED = new GameSeed(20240601L);
+    private static final int TURNS = 30;
+    private static final String[] PALACES = {"Knossos", "Phaistos", "Malia", "Zakros"};
+
+    private RulesEngine engine;
+    private Player player;
+    private Deck deck;
+    private SplittableRandom random;
+    private GameRunner runner;
+    private RandomBot bot;
+    private long game;
+    private GameState state;
+    private GameState copy;
+    private int palace;
+
+
+
+
+
+    /**
+     * Plays the fixed game used by the object model benchmarks, and prepares the other fixtures.
+     *
+     * @pre none
+     * @post the fixtures are ready
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("Player 1"));
+        players.add(new Player("Player 2"));
+        Board board = new Board();
+        Deck gameDeck = new Deck();
+        engine = new RulesEngine(board, players, gameDeck);
+        SplittableRandom choices = SEED.newGenerator();
+        GameSetup.setUp(board, gameDeck, choices);
+        engine.setDecisionProvider(new DecisionProvider() {
+            @Override
+            public Pawn choosePawn(Player owner, String palace) {
+                return owner.getArchaeologist() != null ? owner.getArchaeologist() : owner.getTheseus();
+            }
+
+            @Override
+            public boolean confirmOpenFinding(Player owner, Finding finding) {
+                return true;
+            }
+
+            @Override
+            public boolean confirmDestroyFinding(Player owner, Finding finding) {
+                return true;
+            }
+
+            @Override
+            public boolean confirmDiscard(Player owner, Card card) {
+                return true;
+            }
+        });
+        engine.dealInitialCards();
+        for (int turn = 0; turn < TURNS && !engine.isGameOver(); turn++) {
+            Player current = engine.getCurrentPlayer();
+            boolean played = false;
+            for (Card card : new ArrayList<>(current.getHand())) {
+                if (engine.playCard(current, card, false)) {
+                    played = true;
+                    break;
+                }
+            }
+            if (!played) {
+                engine.discardCard(current, current.getHand().get(choices.nextInt(current.getHand().size())), false);
+            }
+            engine.drawCard(current);
+            engine.endTurn();
+        }
+        player = engine.getCurrentPlayer();
+        state = GameState.capture(engine);
+        copy = new GameState();
+
+        deck = new Deck();
+        random = new SplittableRandom(SEED.getValue());
+        runner = new GameRunner();
+        bot = new RandomBot();
+    }
+
+
+
+
+    /**
+     * Shuffles a full deck and draws every card. The deck of the setup is reset in place, so no
+     * allocation is measured.
+     *
+     * @param blackhole the sink of the drawn cards
+     */
+    @Benchmark
+    public void deckShuffleAndDraw(Blackhole blackhole) {
+        deck.reset();
+        deck.shuffle(random);
+        while (!deck.isEmpty()) {
+            blackhole.consume(deck.drawCardId());
+        }
+    }
+
+
+
+
+    /**
+     * Recomputes the total score of the current player.
+     *
+     * @return the score
+     */
+    @Benchmark
+    public int calculateTotalScore() {
+        return engine.calculateTotalScore(player);
+    }
+
+
+
+
+    /**
+     * Updates the stored score of the current player.
+     */
+    @Benchmark
+    public void updatePlayerScore() {
+        engine.updatePlayerScore(player);
+    }
+
+
+
+
+    /**
+     * Looks up the index of a path by palace name.
+     *
+     * @return the path index
+     */
+    @Benchmark
+    public int getPathIndex() {
+        palace = (palace + 1) & 3;
+        return engine.getPathIndex(PALACES[palace]);
+    }
+
+
+
+
+    /**
+     * Looks up a path by palace name.
+     *
+     * @return the Path instance
+     */
+    @Benchmark
+    public Object getPathByName() {
+        palace = (palace + 1) & 3;
+        return engine.getPathByName(PALACES[palace]);
+    }
+
+
+
+
+    /**
+     * Looks up the pawn of the current player on a path.
+     *
+     * @return the Pawn instance, or null
+     */
+    @Benchmark
+    public Object getPawnInPath() {
+        palace = (palace + 1) & 3;
+        return player.getPawnInPath(PALACES[palace]);
+    }
+
+
+
+
+    /**
+     * Deals and plays a complete game between two random bots on the StateEngine.
+     *
+     * @return the winner
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int fullRandomGame() {
+        return runner.play(bot, bot, GameSeed.forGame(SEED.getValue(), game++));
+    }
+
+
+
+
+    /**
+     * Copies a mid-game state.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public GameState stateCopy() {
+        copy.copyFrom(state);
+        return copy;
+    }
+}
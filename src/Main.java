@@ -1,11 +1,18 @@
 import model.Board;
 import model.GameModel;
 import model.Player;
+import view.AssetPreloader;
 import view.GameView;
+import view.SplashScreen;
 import controller.GameController;
+import engine.GameSeed;
+import bot.Bot;
+import bot.Bots;
 
+import javax.swing.SwingUtilities;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 
 
@@ -17,36 +24,87 @@ public class Main {
    
    
    /**
-     * The main method to start the game.
+     * The main method to start the game. The images of the main window are decoded in parallel
+     * behind a splash screen, then the window is built on the event dispatch thread, and the time
+     * to its first frame is logged.
      * 
-     * @param args command-line arguments
+     * @param args command-line arguments: optionally the seed of the game to replay,
+     *             and "-p1 BOT" or "-p2 BOT" to let a bot (see Bots) play one of the players;
+     *             giving both is a usage error
      * @pre none
      * @post the game is initialized and started
      */
     public static void main(String[] args) {
+        long start = System.nanoTime();
+        GameSeed seed = null;
+        int computerIndex = -1;
+        Bot bot = null;
+        for (int i = 0; i < args.length; i++) {
+            if ((args[i].equals("-p1") || args[i].equals("-p2")) && i + 1 < args.length) {
+                if (bot != null) {
+                    System.err.println("Usage: java Main [SEED] [-p1 BOT | -p2 BOT] (only one player can be a bot)");
+                    System.exit(1);
+                }
+                computerIndex = args[i].equals("-p1") ? 0 : 1;
+                bot = Bots.create(args[++i]);
+            } else {
+                seed = GameSeed.parse(args[i]);
+            }
+        }
+        if (seed == null) {
+            seed = GameSeed.random();
+        }
+        System.out.println("Game seed: " + seed);
+
         Board board = new Board();
         List<Player> players = new ArrayList<>();
         players.add(new Player("Player 1"));
         players.add(new Player("Player 2"));
 
-        GameModel model = new GameModel(board, players);
+        GameModel model = new GameModel(board, players, seed);
 
         GameController controller = new GameController(model, null);
 
         model.setController(controller);
 
         controller.setCurrentPlayer(players.get(0));
+        if (bot != null) {
+            controller.setComputerPlayer(players.get(computerIndex), bot);
+        }
+
+        AssetPreloader preloader = new AssetPreloader(board);
+        int threads = Runtime.getRuntime().availableProcessors();
+        SplashScreen[] splash = new SplashScreen[1];
+        SwingUtilities.invokeLater(() -> {
+            splash[0] = new SplashScreen(preloader.getTotal());
+            splash[0].setVisible(true);
+        });
+        try {
+            preloader.load(threads, loaded -> SwingUtilities.invokeLater(() -> splash[0].setProgress(loaded)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage() + " " + e.getCause());
+        }
+        long loaded = System.nanoTime();
 
-        GameView view = new GameView(board, players, model); 
-        view.setController(controller); 
+        SwingUtilities.invokeLater(() -> {
+            GameView view = new GameView(board, players, model); 
+            view.setController(controller); 
 
-        controller.setView(view);
+            controller.setView(view);
 
-        model.setView(view);
+            model.setView(view);
 
-        view.setVisible(true);
+            view.setFirstFrameAction(() -> System.out.printf(Locale.ROOT,
+                    "Startup: %d images in %d ms on %d threads, first frame after %d ms%n", preloader.getTotal(),
+                    (loaded - start) / 1_000_000, threads, (System.nanoTime() - start) / 1_000_000));
+            splash[0].dispose();
+            view.setVisible(true);
 
-        controller.startGame();
+            controller.startGame();
+        });
 /* DEBUG 
         for (Player player : players) {
             System.out.println(player.getName() + "'s hand: " + player.getHand());
@@ -0,0 +1,151 @@
+import bot.Bot;
+import bot.Bots;
+import engine.GameSeed;
+import sim.GameRunner;
+import sim.SimulationStats;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+
+
+/**
+ * The Simulate class plays many headless games between two bot policies on all cores
+ * and prints the win rates, the score distribution, the game lengths and how the games ended.
+ *
+ * Usage: java Simulate [-games N] [-a BOT] [-b BOT] [-seed SEED] [-threads N]
+ * Policies swap seats every game. Game i is dealt from GameSeed.forGame(seed, i), so a run can be
+ * reproduced, whatever the number of threads.
+ */
+public class Simulate {
+    private static final int BATCH = 256;
+
+
+
+
+
+    /**
+     * The main method of the simulation.
+     *
+     * @param args command-line arguments
+     * @pre none
+     * @post the games are played and the report is printed
+     */
+    public static void main(String[] args) {
+        long games = 100_000;
+        String first = "random";
+        String second = "random";
+        GameSeed seed = GameSeed.random();
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "-games":
+                    games = Long.parseLong(value);
+                    break;
+                case "-a":
+                    first = value;
+                    break;
+                case "-b":
+                    second = value;
+                    break;
+                case "-seed":
+                    seed = GameSeed.parse(value);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                default:
+                    System.err.println("Usage: java Simulate [-games N] [-a BOT] [-b BOT] [-seed SEED] [-threads N]");
+                    System.err.println("Bots: " + String.join(", ", Bots.getNames()));
+                    System.exit(1);
+            }
+            i++;
+        }
+        Bots.create(first).close();
+        Bots.create(second).close();
+
+        System.out.println("Simulating " + games + " games of " + first + " (A) against " + second
+                + " (B) on " + threads + " threads, seed " + seed);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SimulationStats stats = pool.invoke(new Batch(first, second, seed.getValue(), 0, games));
+        pool.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        stats.print(System.out);
+        System.out.printf("Time: %.2f s (%.0f games/s)%n", seconds, games / seconds);
+    }
+
+
+
+
+    /**
+     * A range of games, split in halves until it is small enough to play on one worker.
+     */
+    private static class Batch extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+        private final String first;
+        private final String second;
+        private final long masterSeed;
+        private final long from;
+        private final long to;
+
+
+
+
+        /**
+         * Constructs a Batch of games.
+         *
+         * @param first the name of policy A
+         * @param second the name of policy B
+         * @param masterSeed the seed of the run
+         * @param from the index of the first game
+         * @param to the index after the last game
+         * @pre from &lt;= to
+         * @post a Batch is created
+         */
+        Batch(String first, String second, long masterSeed, long from, long to) {
+            this.first = first;
+            this.second = second;
+            this.masterSeed = masterSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+
+
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from > BATCH) {
+                long middle = (from + to) >>> 1;
+                Batch left = new Batch(first, second, masterSeed, from, middle);
+                left.fork();
+                SimulationStats stats = new Batch(first, second, masterSeed, middle, to).compute();
+                stats.merge(left.join());
+                return stats;
+            }
+
+            SimulationStats stats = new SimulationStats(first, second);
+            GameRunner runner = new GameRunner();
+            Bot a = Bots.create(first);
+            Bot b = Bots.create(second);
+            for (long game = from; game < to; game++) {
+                GameSeed seed = GameSeed.forGame(masterSeed, game);
+                int firstSeat = (int) (game & 1);
+                if (firstSeat == 0) {
+                    runner.play(a, b, seed);
+                } else {
+                    runner.play(b, a, seed);
+                }
+                stats.record(runner.getState(), firstSeat, runner.getTurns());
+            }
+            a.close();
+            b.close();
+            return stats;
+        }
+    }
+}
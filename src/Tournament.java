@@ -0,0 +1,620 @@
+import bot.Bot;
+import bot.Bots;
+import engine.GameSeed;
+import sim.GameRunner;
+import sim.PairingStats;
+import sim.Sprt;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+
+
+/**
+ * The Tournament class compares bots in a round robin, or in a gauntlet of the first bot against
+ * the others, and rates them with Elo.
+ *
+ * Usage: java Tournament -bots A,B[,C...] [-gauntlet] [-pairs N] [-chunk N] [-elo0 E] [-elo1 E]
+ *        [-alpha A] [-beta B] [-seed SEED] [-threads N] [-out FILE]
+ * Games are played in pairs: the same deal twice with the seats swapped, and pair i of every pairing
+ * is dealt from GameSeed.forGame(seed, i). Each pairing stops when a sequential probability ratio
+ * test decides whether the first bot is elo1 or only elo0 stronger, or after -pairs pairs.
+ *
+ * The pairs are played in chunks on all cores. Every finished chunk is appended to the results file,
+ * so an interrupted run is resumed by starting it again with the same file: the seed and the chunk
+ * size are read from it and only the missing chunks are played.
+ */
+public class Tournament {
+    private static final String USAGE = "Usage: java Tournament -bots A,B[,C...] [-gauntlet] [-pairs N] [-chunk N]"
+            + " [-elo0 E] [-elo1 E] [-alpha A] [-beta B] [-seed SEED] [-threads N] [-out FILE]";
+    private static final ThreadLocal<Map<String, Bot>> BOTS = ThreadLocal.withInitial(HashMap::new);
+    private static final ConcurrentLinkedQueue<Bot> CREATED = new ConcurrentLinkedQueue<>();
+
+
+
+
+
+    /**
+     * The main method of the tournament.
+     *
+     * @param args command-line arguments
+     * @pre none
+     * @post the pairings are played, recorded in the results file and reported
+     */
+    public static void main(String[] args) {
+        String[] bots = null;
+        boolean gauntlet = false;
+        long maxPairs = 20_000;
+        int chunk = 8;
+        double elo0 = -10;
+        double elo1 = 10;
+        double alpha = 0.05;
+        double beta = 0.05;
+        GameSeed seed = GameSeed.random();
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = "tournament.txt";
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "-bots":
+                    bots = value.split(",");
+                    break;
+                case "-gauntlet":
+                    gauntlet = true;
+                    continue;
+                case "-pairs":
+                    maxPairs = Long.parseLong(value);
+                    break;
+                case "-chunk":
+                    chunk = Integer.parseInt(value);
+                    break;
+                case "-elo0":
+                    elo0 = Double.parseDouble(value);
+                    break;
+                case "-elo1":
+                    elo1 = Double.parseDouble(value);
+                    break;
+                case "-alpha":
+                    alpha = Double.parseDouble(value);
+                    break;
+                case "-beta":
+                    beta = Double.parseDouble(value);
+                    break;
+                case "-seed":
+                    seed = GameSeed.parse(value);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "-out":
+                    out = value;
+                    break;
+                default:
+                    usage();
+            }
+            i++;
+        }
+        if (bots == null || bots.length < 2) {
+            usage();
+        }
+        for (String bot : bots) {
+            Bots.create(bot).close();
+        }
+        Sprt sprt = new Sprt(elo0, elo1, alpha, beta);
+
+        List<Pairing> pairings = new ArrayList<>();
+        for (int a = 0; a < bots.length; a++) {
+            for (int b = a + 1; b < bots.length; b++) {
+                if (!gauntlet || a == 0) {
+                    pairings.add(new Pairing(bots[a], bots[b]));
+                }
+            }
+        }
+
+        Path path = Paths.get(out);
+        if (Files.exists(path)) {
+            long[] settings = resume(path, pairings);
+            seed = new GameSeed(settings[0]);
+            chunk = (int) settings[1];
+            System.out.println("Resuming " + out + ", seed " + seed + ", chunks of " + chunk + " pairs");
+        } else {
+            append(path, "# seed=" + seed + " chunk=" + chunk);
+        }
+        long chunks = (maxPairs + chunk - 1) / chunk;
+        for (Pairing pairing : pairings) {
+            pairing.update(sprt, chunks);
+        }
+
+        System.out.println((gauntlet ? "Gauntlet" : "Round robin") + " of " + bots.length + " bots, " + pairings.size()
+                + " pairings of at most " + chunks * chunk + " pairs on " + threads + " threads, " + sprt);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Chunk> completion = new ExecutorCompletionService<>(pool);
+        long start = System.nanoTime();
+        int running = 0;
+        int next = 0;
+        while (true) {
+            while (running < threads) {
+                Chunk task = null;
+                for (int k = 0; k < pairings.size() && task == null; k++) {
+                    Pairing pairing = pairings.get((next + k) % pairings.size());
+                    long index = pairing.claim(chunks);
+                    if (index >= 0) {
+                        task = new Chunk(pairing, index, chunk, seed.getValue());
+                        next = (next + k + 1) % pairings.size();
+                    }
+                }
+                if (task == null) {
+                    break;
+                }
+                completion.submit(task);
+                running++;
+            }
+            if (running == 0) {
+                break;
+            }
+
+            Chunk done = take(completion);
+            running--;
+            Pairing pairing = done.pairing;
+            pairing.running--;
+            if (pairing.status != Sprt.CONTINUE) {
+                continue;
+            }
+            pairing.stats.merge(done.stats);
+            pairing.done.set((int) done.index);
+            append(path, pairing.first + "\t" + pairing.second + "\t" + done.index + "\t" + done.stats.countsText());
+            pairing.update(sprt, chunks);
+            if (pairing.status != Sprt.CONTINUE) {
+                System.out.printf(Locale.ROOT, "%s vs %s: %s, LLR %.2f%s (%.0f s)%n", pairing.first, pairing.second,
+                        pairing.stats, sprt.llr(pairing.stats), verdict(pairing.status),
+                        (System.nanoTime() - start) / 1e9);
+            }
+        }
+        pool.shutdown();
+        for (Bot bot : CREATED) {
+            bot.close();
+        }
+        report(bots, pairings, sprt);
+    }
+
+
+
+
+    /**
+     * Prints the usage and exits.
+     *
+     * @pre none
+     * @post the process has exited
+     */
+    private static void usage() {
+        System.err.println(USAGE);
+        System.err.println("Bots: " + String.join(", ", Bots.getNames()));
+        System.exit(1);
+    }
+
+
+
+
+    /**
+     * Waits for the next finished chunk.
+     *
+     * @param completion the completion service of the chunks
+     * @return the finished chunk
+     * @pre a chunk is running
+     * @post the chunk is returned
+     * @throws IllegalStateException if a chunk failed or the wait was interrupted
+     */
+    private static Chunk take(CompletionService<Chunk> completion) {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The tournament was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed.", e.getCause());
+        }
+    }
+
+
+
+
+    /**
+     * Reads the results file of an interrupted run into the pairings.
+     *
+     * @param path the results file
+     * @param pairings the pairings of the run
+     * @return the seed and the chunk size of the file
+     * @pre the file was written by a Tournament
+     * @post the pairings hold the recorded chunks; lines of other pairings and a torn last line are ignored
+     * @throws IllegalArgumentException if the file has no header
+     */
+    private static long[] resume(Path path, List<Pairing> pairings) {
+        long[] settings = null;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("# seed=")) {
+                    String[] fields = line.substring(2).split(" ");
+                    settings = new long[] {
+                        GameSeed.parse(fields[0].substring("seed=".length())).getValue(),
+                        Long.parseLong(fields[1].substring("chunk=".length()))
+                    };
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 4) {
+                    continue;
+                }
+                for (Pairing pairing : pairings) {
+                    if (pairing.first.equals(fields[0]) && pairing.second.equals(fields[1])) {
+                        pairing.restore(Integer.parseInt(fields[2]), fields[3]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + path, e);
+        } catch (RuntimeException e) {
+            // a line torn by an interruption ends the file
+        }
+        if (settings == null) {
+            throw new IllegalArgumentException(path + " is not a tournament results file.");
+        }
+        return settings;
+    }
+
+
+
+
+    /**
+     * Appends a line to the results file and flushes it.
+     *
+     * @param path the results file
+     * @param line the line
+     * @pre none
+     * @post the line is written
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    private static void append(Path path, String line) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + path, e);
+        }
+    }
+
+
+
+
+    /**
+     * Prints the results of every pairing and the ratings of the bots.
+     *
+     * @param bots the names of the bots
+     * @param pairings the pairings
+     * @param sprt the test of the pairings
+     * @pre none
+     * @post the report is printed
+     */
+    private static void report(String[] bots, List<Pairing> pairings, Sprt sprt) {
+        System.out.println("Pairings:");
+        for (Pairing pairing : pairings) {
+            System.out.printf(Locale.ROOT, "  %s vs %s: %s, LLR %.2f%s%n", pairing.first, pairing.second,
+                    pairing.stats, sprt.llr(pairing.stats), verdict(pairing.status));
+        }
+
+        double[] ratings = ratings(bots, pairings);
+        System.out.println("Ratings (Bradley-Terry, mean 0):");
+        for (int i = 0; i < bots.length; i++) {
+            System.out.printf(Locale.ROOT, "  %+7.1f  %s%n", ratings[i], bots[i]);
+        }
+    }
+
+
+
+
+    /**
+     * Returns the text of an SPRT decision.
+     *
+     * @param status the decision
+     * @return the text
+     * @pre none
+     * @post the text is returned
+     */
+    private static String verdict(int status) {
+        return status == Sprt.H1 ? " (H1)" : status == Sprt.H0 ? " (H0)" : status == Pairing.LIMIT ? " (pair limit)" : "";
+    }
+
+
+
+
+    /**
+     * Fits Elo ratings to the results of all pairings with the minorization-maximization algorithm
+     * of the Bradley-Terry model. A draw counts as half a win for each side, and every pairing starts
+     * with two virtual draws, so a perfect score still gives finite ratings.
+     *
+     * @param bots the names of the bots
+     * @param pairings the pairings
+     * @return the Elo rating of each bot, with a mean of 0
+     * @pre none
+     * @post the ratings are returned
+     */
+    private static double[] ratings(String[] bots, List<Pairing> pairings) {
+        int n = bots.length;
+        double[][] games = new double[n][n];
+        double[] points = new double[n];
+        for (Pairing pairing : pairings) {
+            int a = indexOf(bots, pairing.first);
+            int b = indexOf(bots, pairing.second);
+            double played = 2.0 * pairing.stats.pairs() + 2;
+            games[a][b] += played;
+            games[b][a] += played;
+            points[a] += pairing.stats.points() + 1;
+            points[b] += played - pairing.stats.points() - 1;
+        }
+
+        double[] strength = new double[n];
+        Arrays.fill(strength, 1);
+        for (int iteration = 0; iteration < 1000; iteration++) {
+            for (int i = 0; i < n; i++) {
+                double denominator = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j != i && games[i][j] > 0) {
+                        denominator += games[i][j] / (strength[i] + strength[j]);
+                    }
+                }
+                if (denominator > 0) {
+                    strength[i] = points[i] / denominator;
+                }
+            }
+        }
+
+        double[] ratings = new double[n];
+        double mean = 0;
+        for (int i = 0; i < n; i++) {
+            ratings[i] = 400 * Math.log10(strength[i]);
+            mean += ratings[i] / n;
+        }
+        for (int i = 0; i < n; i++) {
+            ratings[i] -= mean;
+        }
+        return ratings;
+    }
+
+
+
+
+    /**
+     * Returns the index of a name.
+     *
+     * @param names the names
+     * @param name the name looked for
+     * @return the index of name, or -1 if it is missing
+     * @pre none
+     * @post the index is returned
+     */
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+
+
+    /**
+     * The Pairing class is the state of one pairing: its results, the chunks recorded and the
+     * chunks running. It is only touched by the thread of main.
+     */
+    private static class Pairing {
+        static final int LIMIT = 2;
+
+        final String first;
+        final String second;
+        final PairingStats stats = new PairingStats();
+        final BitSet done = new BitSet();
+        final BitSet claimed = new BitSet();
+        int running;
+        int status = Sprt.CONTINUE;
+
+
+
+
+        /**
+         * Constructs a Pairing without results.
+         *
+         * @param first the name of bot A
+         * @param second the name of bot B
+         * @pre first and second are valid bot names
+         * @post a Pairing is created
+         */
+        Pairing(String first, String second) {
+            this.first = first;
+            this.second = second;
+        }
+
+
+
+
+        /**
+         * Adds a chunk recorded by an earlier run.
+         *
+         * @param index the index of the chunk
+         * @param counts the pair counts of the chunk, as written by PairingStats.countsText
+         * @pre the chunk was played with the same seed and chunk size
+         * @post the chunk is counted, once
+         */
+        void restore(int index, String counts) {
+            String[] fields = counts.split(" ");
+            if (fields.length != PairingStats.OUTCOMES || done.get(index)) {
+                return;
+            }
+            for (int i = 0; i < PairingStats.OUTCOMES; i++) {
+                stats.add(i, Long.parseLong(fields[i]));
+            }
+            done.set(index);
+            claimed.set(index);
+        }
+
+
+
+
+        /**
+         * Claims the next chunk to play.
+         *
+         * @param chunks the number of chunks of a full pairing
+         * @return the index of the chunk, or -1 if the pairing needs no more chunks
+         * @pre none
+         * @post the chunk is claimed
+         */
+        long claim(long chunks) {
+            int index = claimed.nextClearBit(0);
+            if (status != Sprt.CONTINUE || index >= chunks) {
+                return -1;
+            }
+            claimed.set(index);
+            running++;
+            return index;
+        }
+
+
+
+
+        /**
+         * Decides whether the pairing is over, after a new chunk.
+         *
+         * @param sprt the test
+         * @param chunks the number of chunks of a full pairing
+         * @pre none
+         * @post status is H0 or H1 if the test has decided, LIMIT if all chunks are done
+         */
+        void update(Sprt sprt, long chunks) {
+            status = sprt.status(stats);
+            if (status == Sprt.CONTINUE && done.cardinality() >= chunks) {
+                status = LIMIT;
+            }
+        }
+    }
+
+
+
+
+    /**
+     * The Chunk class plays a run of consecutive pairs of one pairing, with the bots of the worker thread.
+     * A worker keeps one bot per name and side, so a bot playing itself still gets two instances.
+     */
+    private static class Chunk implements Callable<Chunk> {
+        final Pairing pairing;
+        final long index;
+        final PairingStats stats = new PairingStats();
+        private final int size;
+        private final long masterSeed;
+
+
+
+
+        /**
+         * Constructs a Chunk.
+         *
+         * @param pairing the pairing
+         * @param index the index of the chunk
+         * @param size the number of pairs of a chunk
+         * @param masterSeed the seed of the run
+         * @pre none
+         * @post a Chunk is created
+         */
+        Chunk(Pairing pairing, long index, int size, long masterSeed) {
+            this.pairing = pairing;
+            this.index = index;
+            this.size = size;
+            this.masterSeed = masterSeed;
+        }
+
+
+
+
+        /**
+         * Plays the pairs of the chunk.
+         *
+         * @return this chunk, with its results
+         * @pre none
+         * @post the results of the pairs are recorded in stats
+         */
+        @Override
+        public Chunk call() {
+            Map<String, Bot> bots = BOTS.get();
+            Bot a = bots.computeIfAbsent("A " + pairing.first, key -> create(pairing.first));
+            Bot b = bots.computeIfAbsent("B " + pairing.second, key -> create(pairing.second));
+            GameRunner runner = new GameRunner();
+            for (long pair = index * size; pair < (index + 1) * size; pair++) {
+                GameSeed seed = GameSeed.forGame(masterSeed, pair);
+                int halfPoints = halfPoints(runner.play(a, b, seed), 0) + halfPoints(runner.play(b, a, seed), 1);
+                stats.record(halfPoints);
+            }
+            return this;
+        }
+
+
+
+
+        /**
+         * Creates a bot of a worker thread, to be closed at the end of the run.
+         *
+         * @param description the description of the bot
+         * @return the bot
+         * @pre description is valid
+         * @post the bot is created and recorded
+         */
+        private static Bot create(String description) {
+            Bot bot = Bots.create(description);
+            CREATED.add(bot);
+            return bot;
+        }
+
+
+
+
+        /**
+         * Returns the half points of bot A in a game.
+         *
+         * @param winner the winner of the game, -1 for a draw
+         * @param seat the seat of bot A
+         * @return 2 for a win, 1 for a draw, 0 for a loss
+         * @pre none
+         * @post the half points are returned
+         */
+        private static int halfPoints(int winner, int seat) {
+            return winner < 0 ? 1 : winner == seat ? 2 : 0;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import bot.GreedyBot;
+import bot.WeightsFile;
+import engine.GameSeed;
+import sim.GameRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+
+
+/**
+ * The Tune class tunes the weights of the greedy bot by self-play, with simultaneous perturbation
+ * stochastic approximation (SPSA). Every iteration perturbs all the weights at once by a random
+ * +c or -c, plays the two perturbed bots against each other on all cores, and moves the weights
+ * towards the side that won, by a step that shrinks as the run goes on.
+ *
+ * Usage: java Tune [-games N] [-batch N] [-in FILE] [-out FILE] [-a A] [-c C] [-seed SEED] [-threads N]
+ * The games of an iteration are played in pairs, the same deal with the seats swapped, so the luck of
+ * the deal cancels out. Weights are scaled by their starting magnitude, so -a and -c are relative.
+ * The weights are written to the output file after every iteration; a bot reads them at startup
+ * with -Dgreedy.weights=FILE, or with the bot name "greedy:FILE". An interrupted run is continued
+ * by starting from its output file: the file also records the seed, the iterations done, the pairs
+ * played, the stability constant and the starting scale of the weights, so the gain schedule, the
+ * perturbations and the deals go on where they stopped. A weights file without this record starts a fresh run from its weights.
+ */
+public class Tune {
+    private static final int BATCH = 64;
+    private static final double ALPHA = 0.602;
+    private static final double GAMMA = 0.101;
+
+
+
+
+
+    /**
+     * The main method of the tuner.
+     *
+     * @param args command-line arguments
+     * @pre none
+     * @post the weights are tuned and written to the output file
+     */
+    public static void main(String[] args) {
+        long games = 1_000_000;
+        int batch = 512;
+        String in = null;
+        String out = "weights/greedy.properties";
+        double a = 0.5;
+        double c = 0.2;
+        GameSeed seed = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "-games":
+                    games = Long.parseLong(value);
+                    break;
+                case "-batch":
+                    batch = Integer.parseInt(value);
+                    break;
+                case "-in":
+                    in = value;
+                    break;
+                case "-out":
+                    out = value;
+                    break;
+                case "-a":
+                    a = Double.parseDouble(value);
+                    break;
+                case "-c":
+                    c = Double.parseDouble(value);
+                    break;
+                case "-seed":
+                    seed = GameSeed.parse(value);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                default:
+                    System.err.println("Usage: java Tune [-games N] [-batch N] [-in FILE] [-out FILE] [-a A] [-c C] [-seed SEED] [-threads N]");
+                    System.exit(1);
+            }
+            i++;
+        }
+        if (batch < 2 || batch % 2 != 0) {
+            throw new IllegalArgumentException("The batch must be a positive even number of games.");
+        }
+        if (in == null && Files.exists(Paths.get(out))) {
+            in = out;
+        }
+
+        double[] weights = in != null
+                ? WeightsFile.load(in, GreedyBot.FEATURE_NAMES, GreedyBot.getBuiltinWeights())
+                : GreedyBot.getBuiltinWeights();
+        Properties run = in != null ? WeightsFile.loadRun(in) : new Properties();
+        long done = Long.parseLong(run.getProperty("iterations", "0"));
+        long pairs = Long.parseLong(run.getProperty("pairs", "0"));
+        if (seed == null) {
+            seed = run.containsKey("seed") ? GameSeed.parse(run.getProperty("seed")) : GameSeed.random();
+        }
+        double[] scale = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            String saved = run.getProperty("scale." + GreedyBot.FEATURE_NAMES[i]);
+            scale[i] = saved != null ? Double.parseDouble(saved) : Math.max(1.0, Math.abs(weights[i]));
+            run.setProperty("scale." + GreedyBot.FEATURE_NAMES[i], Double.toString(scale[i]));
+        }
+        run.setProperty("seed", seed.toString());
+        long iterations = Math.max(1, games / batch);
+        double stability = Double.parseDouble(run.getProperty("stability", Double.toString(0.1 * iterations)));
+        run.setProperty("stability", Double.toString(stability));
+
+        System.out.println("Tuning " + GreedyBot.FEATURES + " greedy weights with " + iterations + " iterations of "
+                + batch + " games on " + threads + " threads, seed " + seed + (in != null ? ", from " + in : "")
+                + (done > 0 ? ", resuming after iteration " + done : ""));
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SplittableRandom random = new SplittableRandom(seed.getValue());
+        for (long skipped = 0; skipped < done * weights.length; skipped++) {
+            random.nextBoolean();
+        }
+        double[] plus = new double[weights.length];
+        double[] minus = new double[weights.length];
+        int[] delta = new int[weights.length];
+        double recent = 0;
+
+        for (long k = done; k < iterations; k++) {
+            double ck = c / Math.pow(k + 1, GAMMA);
+            double ak = a / Math.pow(k + 1 + stability, ALPHA);
+            for (int i = 0; i < weights.length; i++) {
+                delta[i] = random.nextBoolean() ? 1 : -1;
+                plus[i] = weights[i] + ck * scale[i] * delta[i];
+                minus[i] = weights[i] - ck * scale[i] * delta[i];
+            }
+
+            double points = pool.invoke(new Batch(plus, minus, seed.getValue(), pairs, pairs + batch / 2));
+            pairs += batch / 2;
+            double result = (2 * points - batch) / batch;
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] += ak * scale[i] * result / (2 * ck) * delta[i];
+            }
+            recent = 0.95 * recent + 0.05 * Math.abs(result);
+
+            run.setProperty("iterations", Long.toString(k + 1));
+            run.setProperty("pairs", Long.toString(pairs));
+            WeightsFile.save(out, GreedyBot.FEATURE_NAMES, weights,
+                    "greedy weights after " + 2 * pairs + " self-play games, seed " + seed, run);
+            if ((k + 1) % 50 == 0 || k + 1 == iterations) {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf(Locale.ROOT, "%d games, %.0f games/s, mean |result| %.3f, step %.4f%n",
+                        2 * pairs, (k + 1 - done) * batch / seconds, recent, ak / (2 * ck));
+            }
+        }
+        pool.shutdown();
+
+        StringBuilder line = new StringBuilder("Weights:");
+        for (int i = 0; i < weights.length; i++) {
+            line.append(String.format(Locale.ROOT, " %s=%.3f", GreedyBot.FEATURE_NAMES[i], weights[i]));
+        }
+        System.out.println(line);
+        System.out.println("Written to " + out);
+    }
+
+
+
+
+    /**
+     * A range of game pairs between two weight vectors, split in halves until it is small enough
+     * to play on one worker. Each pair is one deal played twice with the seats swapped.
+     */
+    private static class Batch extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        private final double[] plus;
+        private final double[] minus;
+        private final long masterSeed;
+        private final long from;
+        private final long to;
+
+
+
+
+        /**
+         * Constructs a Batch of game pairs.
+         *
+         * @param plus the weights of the first bot
+         * @param minus the weights of the second bot
+         * @param masterSeed the seed of the run
+         * @param from the index of the first pair
+         * @param to the index after the last pair
+         * @pre from &lt;= to
+         * @post a Batch is created
+         */
+        Batch(double[] plus, double[] minus, long masterSeed, long from, long to) {
+            this.plus = plus;
+            this.minus = minus;
+            this.masterSeed = masterSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+
+
+
+        /**
+         * Plays the pairs.
+         *
+         * @return the points of the first bot: 1 for a win, 0.5 for a draw
+         * @pre none
+         * @post the games are played
+         */
+        @Override
+        protected Double compute() {
+            if (to - from > BATCH) {
+                long middle = (from + to) >>> 1;
+                Batch left = new Batch(plus, minus, masterSeed, from, middle);
+                left.fork();
+                double points = new Batch(plus, minus, masterSeed, middle, to).compute();
+                return points + left.join();
+            }
+
+            GameRunner runner = new GameRunner();
+            GreedyBot first = new GreedyBot(plus);
+            GreedyBot second = new GreedyBot(minus);
+            double points = 0;
+            for (long pair = from; pair < to; pair++) {
+                GameSeed seed = GameSeed.forGame(masterSeed, pair);
+                points += points(runner.play(first, second, seed), 0);
+                points += points(runner.play(second, first, seed), 1);
+            }
+            return points;
+        }
+
+
+
+
+        /**
+         * Returns the points of a seat.
+         *
+         * @param winner the winner of the game, -1 for a draw
+         * @param seat the seat of the first bot
+         * @return 1 for a win, 0.5 for a draw, 0 for a loss
+         * @pre none
+         * @post the points are returned
+         */
+        private static double points(int winner, int seat) {
+            return winner < 0 ? 0.5 : winner == seat ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package bot;
+
+import java.util.SplittableRandom;
+
+import engine.GameState;
+
+
+
+/**
+ * The Bot interface is a computer player policy. It chooses one of the legal moves of a state,
+ * for the player who acts in it (GameState.actor).
+ *
+ * Bots receive the full state, for speed, but must only use what the acting player could see:
+ * their own hand, the board, the played and discarded cards and the number of cards left.
+ * Bots that search hidden information must sample it instead of reading it.
+ */
+public interface Bot {
+
+    /**
+     * Returns the name of the bot, as accepted by Bots.create.
+     *
+     * @return the name of the bot
+     * @pre none
+     * @post the name is returned
+     */
+    String getName();
+
+
+
+
+    /**
+     * Chooses a move.
+     *
+     * @param state the state of the game, not to be modified
+     * @param moves the legal moves of the state
+     * @param count the number of legal moves
+     * @param random the generator of the game
+     * @return one of moves[0..count)
+     * @pre count &gt; 0
+     * @post the chosen move is returned and state is unchanged
+     */
+    int chooseMove(GameState state, int[] moves, int count, SplittableRandom random);
+
+
+
+
+    /**
+     * Sets the monitor that can cancel the searches of the bot and follows their progress.
+     * Bots that answer at once ignore it.
+     *
+     * @param monitor the monitor, or null to search without one
+     * @pre none
+     * @post the next searches poll the monitor
+     */
+    default void setMonitor(SearchMonitor monitor) {
+    }
+
+
+
+
+    /**
+     * Thinks while the opponent is to move, so the next chooseMove starts from what was found.
+     * The search runs until the monitor cancels it; bots that keep nothing between moves return at once.
+     *
+     * @param state the state of the game, not to be modified
+     * @param observer the player the bot plays for
+     * @param random the generator of the game
+     * @pre the game is not over
+     * @post state is unchanged
+     */
+    default void ponder(GameState state, int observer, SplittableRandom random) {
+    }
+
+
+
+
+    /**
+     * Releases the threads of the bot. Bots without threads of their own do nothing.
+     *
+     * @pre no search of the bot is running
+     * @post the bot owns no threads and must not be used again
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,180 @@
+package bot;
+
+
+
+/**
+ * The Bots class creates bots by name, so command-line tools can take the policies as arguments.
+ */
+public final class Bots {
+    private static final String[] NAMES = {RandomBot.NAME, GreedyBot.NAME, IsmctsBot.NAME, ExpectimaxBot.NAME};
+
+
+
+
+
+    /**
+     * Bots only holds static helpers.
+     */
+    private Bots() {
+    }
+
+
+
+
+    /**
+     * Returns the names of the available bots.
+     *
+     * @return the names accepted by create
+     * @pre none
+     * @post a copy of the names is returned
+     */
+    public static String[] getNames() {
+        return NAMES.clone();
+    }
+
+
+
+
+    /**
+     * Creates a new bot. Bots keep buffers and search trees, so each thread creates its own.
+     * Search bots take options after colons: "ismcts:20000" for iterations per move,
+     * "ismcts:500ms" for thinking time per move, "ismcts:500ms:t8" to search with 8 threads,
+     * "ismcts:500ms:p12" to score the playouts after 12 plies instead of playing them to the end and
+     * "ismcts:500ms:random" to play them with another rollout policy than the greedy bot.
+     * The expectimax bot takes "expectimax:500ms" for its time per move, "d6" for its deepest
+     * iteration and "s8" for the number of determinizations. Both search bots solve the game exactly
+     * once the deck is down to EndgameSolver.DEFAULT_DECK_CARDS cards; "e3" moves that point to three
+     * cards and "e0" turns the solver off. The greedy bot takes a weights file, as in
+     * "greedy:weights/greedy.properties".
+     *
+     * @param name the name of the bot, with optional options
+     * @return a new Bot instance
+     * @pre name is one of getNames(), with optional options
+     * @post a new bot is returned
+     * @throws IllegalArgumentException if the name or an option is not valid
+     */
+    public static Bot create(String name) {
+        String[] parts = name.split(":");
+        switch (parts[0]) {
+            case RandomBot.NAME:
+                return new RandomBot();
+            case GreedyBot.NAME:
+                if (parts.length == 1) {
+                    return new GreedyBot();
+                }
+                if (parts.length > 2 || !parts[1].endsWith(".properties")) {
+                    throw new IllegalArgumentException("Invalid bot option: " + name.substring(parts[0].length() + 1));
+                }
+                return new GreedyBot(WeightsFile.load(parts[1], GreedyBot.FEATURE_NAMES, GreedyBot.getDefaultWeights()));
+            case IsmctsBot.NAME:
+                int iterations = 0;
+                long timeMillis = 0;
+                int threads = 1;
+                int plies = 0;
+                int endgame = EndgameSolver.DEFAULT_DECK_CARDS;
+                String rollout = GreedyBot.NAME;
+                for (int i = 1; i < parts.length; i++) {
+                    String option = parts[i];
+                    if (option.endsWith("ms")) {
+                        timeMillis = parseBudget(option.substring(0, option.length() - 2));
+                    } else if (option.equals(RandomBot.NAME) || option.equals(GreedyBot.NAME)) {
+                        rollout = option;
+                    } else if (option.startsWith("p")) {
+                        plies = (int) parseBudget(option.substring(1));
+                    } else if (option.startsWith("t")) {
+                        threads = (int) parseBudget(option.substring(1));
+                    } else if (option.startsWith("e")) {
+                        endgame = parseEndgame(option.substring(1));
+                    } else {
+                        iterations = (int) parseBudget(option);
+                    }
+                }
+                if (iterations == 0 && timeMillis == 0) {
+                    iterations = IsmctsBot.DEFAULT_ITERATIONS;
+                }
+                String policy = rollout;
+                IsmctsBot ismcts = new IsmctsBot(iterations, timeMillis, threads, plies, () -> create(policy));
+                ismcts.setEndgame(createEndgame(endgame));
+                return ismcts;
+            case ExpectimaxBot.NAME:
+                long budget = ExpectimaxBot.DEFAULT_TIME_MILLIS;
+                int depth = ExpectimaxBot.MAX_DEPTH;
+                int samples = ExpectimaxBot.DEFAULT_SAMPLES;
+                int cards = EndgameSolver.DEFAULT_DECK_CARDS;
+                for (int i = 1; i < parts.length; i++) {
+                    String option = parts[i];
+                    if (option.endsWith("ms")) {
+                        budget = parseBudget(option.substring(0, option.length() - 2));
+                    } else if (option.startsWith("d")) {
+                        depth = (int) parseBudget(option.substring(1));
+                    } else if (option.startsWith("s")) {
+                        samples = (int) parseBudget(option.substring(1));
+                    } else if (option.startsWith("e")) {
+                        cards = parseEndgame(option.substring(1));
+                    } else {
+                        throw new IllegalArgumentException("Invalid bot option: " + option);
+                    }
+                }
+                ExpectimaxBot expectimax = new ExpectimaxBot(budget, depth, samples);
+                expectimax.setEndgame(createEndgame(cards));
+                return expectimax;
+            default:
+                throw new IllegalArgumentException("Unknown bot: " + name + " (expected one of " + String.join(", ", NAMES) + ")");
+        }
+    }
+
+
+
+
+    /**
+     * Creates the endgame solver of a search bot.
+     *
+     * @param cards the largest deck the solver takes over at, 0 for no solver
+     * @return the solver, or null for none
+     * @pre cards &gt;= 0
+     * @post the solver is returned
+     */
+    private static EndgameSolver createEndgame(int cards) {
+        return cards == 0 ? null : new EndgameSolver(cards, EndgameSolver.DEFAULT_SAMPLES);
+    }
+
+
+
+
+    /**
+     * Parses the deck size at which the endgame solver takes over.
+     *
+     * @param cards the text of the number of cards
+     * @return the number of cards, 0 to turn the solver off
+     * @pre cards is not null
+     * @post the number is returned
+     * @throws IllegalArgumentException if the number is not a number of cards
+     */
+    private static int parseEndgame(String cards) {
+        return cards.equals("0") ? 0 : (int) parseBudget(cards);
+    }
+
+
+
+
+    /**
+     * Parses a positive budget or thread count.
+     *
+     * @param budget the text of the budget
+     * @return the budget
+     * @pre budget is not null
+     * @post the budget is returned
+     * @throws IllegalArgumentException if the budget is not a positive number
+     */
+    private static long parseBudget(String budget) {
+        try {
+            long value = Long.parseLong(budget);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid bot option: " + budget);
+    }
+}
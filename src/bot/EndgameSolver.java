@@ -0,0 +1,318 @@
+package bot;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import engine.Determinizer;
+import engine.GameState;
+import engine.Move;
+import engine.MoveGenerator;
+import engine.StateEngine;
+import model.CardId;
+
+
+
+/**
+ * The EndgameSolver class plays the last cards of the game exactly. Once the deck is down to a few cards
+ * the game tree is small enough to search to the end: the value of a finished game is the difference of
+ * the two players' scores, plus half a point for the winner of the tie-breaks (rare findings, frescoes,
+ * statues), and every draw is a chance node over the distinct cards of the deck.
+ *
+ * The opponent's hand, and with it the content of the deck, is hidden, so the solver samples a number of
+ * determinizations and averages the exact values of each root move over them. The values are memoized
+ * in a transposition table keyed by GameState.key and the content of the deck, which together fix the
+ * rest of the game; the table keeps its entries from move to move. A solve that grows past its node
+ * budget or its deadline is abandoned, and the calling bot falls back to its own search.
+ */
+public class EndgameSolver {
+    public static final int DEFAULT_DECK_CARDS = 2;
+    public static final int DEFAULT_SAMPLES = 16;
+    public static final double TIE_BREAK = 0.5;
+
+    private static final int TABLE_BITS = 18;
+    private static final int MAX_PLY = 64;
+    private static final long MAX_NODES = 2_000_000;
+    private static final int CHECK_INTERVAL = 1024;
+    private static final long[] CARD_KEYS = new long[CardId.COUNT];
+    private static final Abort ABORT = new Abort();
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5eed_0f_e2d9a3L);
+        for (int i = 0; i < CARD_KEYS.length; i++) {
+            CARD_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private final int deckCards;
+    private final int samples;
+    private long[] keys;
+    private double[] values;
+    private final GameState work = new GameState();
+    private final StateEngine engine = new StateEngine(work);
+    private final Determinizer determinizer = new Determinizer();
+    private final int[][] moves = new int[MAX_PLY][Move.MAX_MOVES];
+    private final int[][] counts = new int[MAX_PLY][CardId.COUNT];
+    private final double[] totals = new double[Move.MAX_MOVES];
+    private volatile SearchMonitor monitor;
+    private long nodes;
+    private long lastNodes;
+    private long deadline;
+
+
+
+
+
+    /**
+     * Constructs an EndgameSolver.
+     *
+     * @param deckCards the largest deck the solver takes over at
+     * @param samples the number of determinizations solved per move
+     * @pre deckCards &gt;= 0, samples &gt; 0
+     * @post an EndgameSolver is created
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public EndgameSolver(int deckCards, int samples) {
+        if (deckCards < 0 || samples <= 0) {
+            throw new IllegalArgumentException("Invalid endgame solver: " + deckCards + " deck cards, " + samples + " samples.");
+        }
+        this.deckCards = deckCards;
+        this.samples = samples;
+    }
+
+
+
+
+    /**
+     * Returns whether the solver takes over in a state.
+     *
+     * @param state the state of the game
+     * @return true if the deck holds at most the solver's number of cards
+     * @pre none
+     * @post returns whether the game is near its end
+     */
+    public boolean applies(GameState state) {
+        return !state.isOver() && state.deckSize() <= deckCards;
+    }
+
+
+
+
+    /**
+     * Sets the monitor of the solver, which may abandon a solve like an exhausted node budget.
+     *
+     * @param monitor the monitor, or null for none
+     * @pre none
+     * @post the next solves check the monitor
+     */
+    public void setMonitor(SearchMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+
+
+
+    /**
+     * Returns the number of nodes searched by the last call of chooseMove.
+     *
+     * @return the number of nodes
+     * @pre none
+     * @post the number is returned
+     */
+    public long getLastNodes() {
+        return lastNodes;
+    }
+
+
+
+
+    /**
+     * Chooses the move with the best expected value over the sampled determinizations.
+     *
+     * @param state the state of the game, not to be modified
+     * @param legal the legal moves of the state
+     * @param count the number of legal moves
+     * @param random the generator of the game
+     * @param end the System.nanoTime at which the solve is abandoned, Long.MAX_VALUE for none
+     * @return the best move, or -1 if the solve outgrew its node budget or its deadline, or was cancelled
+     * @pre applies(state), count &gt; 0
+     * @post state is unchanged; the table is allocated by the first solve and emptied by an abandoned one
+     */
+    public int chooseMove(GameState state, int[] legal, int count, SplittableRandom random, long end) {
+        if (count == 1) {
+            return legal[0];
+        }
+        if (keys == null) {
+            keys = new long[1 << TABLE_BITS];
+            values = new double[1 << TABLE_BITS];
+        }
+        int observer = state.actor();
+        nodes = 0;
+        deadline = end;
+        for (int[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+        for (int i = 0; i < count; i++) {
+            totals[i] = 0;
+        }
+        try {
+            for (int sample = 0; sample < samples; sample++) {
+                determinizer.sample(state, observer, work, random);
+                engine.clear();
+                long deck = deckKey(work);
+                for (int i = 0; i < count; i++) {
+                    int record = engine.apply(legal[i]);
+                    totals[i] += value(1, deck);
+                    engine.undo(record);
+                }
+            }
+        } catch (Abort e) {
+            Arrays.fill(keys, 0);
+            lastNodes = nodes;
+            return -1;
+        }
+        lastNodes = nodes;
+
+        double sign = observer == 0 ? 1 : -1;
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (sign * totals[i] > sign * totals[best]) {
+                best = i;
+            }
+        }
+        return legal[best];
+    }
+
+
+
+
+    /**
+     * Returns the exact value of the working state, for player 0.
+     *
+     * @param ply the distance from the root, indexing the buffers
+     * @param deck the key of the content of the deck
+     * @return the expected final score difference of player 0, with the tie-break bonus
+     * @pre none
+     * @post the working state is unchanged, except for the order of the deck
+     * @throws Abort if the node budget is spent, the deadline is past or the monitor cancels the solve
+     */
+    private double value(int ply, long deck) {
+        if (++nodes > MAX_NODES || ply >= MAX_PLY) {
+            throw ABORT;
+        }
+        if (nodes % CHECK_INTERVAL == 0) {
+            SearchMonitor current = monitor;
+            if (System.nanoTime() >= deadline || current != null && current.isCancelled()) {
+                throw ABORT;
+            }
+        }
+        if (work.isOver()) {
+            int winner = work.winner();
+            return work.score(0) - work.score(1) + (winner < 0 ? 0 : winner == 0 ? TIE_BREAK : -TIE_BREAK);
+        }
+        long key = work.key() ^ deck;
+        int slot = (int) (key >>> (64 - TABLE_BITS));
+        if (keys[slot] == key && key != 0) {
+            return values[slot];
+        }
+
+        double value;
+        if (work.phase() == GameState.PHASE_DRAW && work.deckSize() > 0) {
+            value = chance(ply, deck);
+        } else {
+            int[] list = moves[ply];
+            int count = MoveGenerator.generate(work, list);
+            boolean max = work.actor() == 0;
+            value = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                int record = engine.apply(list[i]);
+                double child = value(ply + 1, deck);
+                engine.undo(record);
+                value = max ? Math.max(value, child) : Math.min(value, child);
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        return value;
+    }
+
+
+
+
+    /**
+     * Returns the expected value of a draw, over the distinct cards of the deck weighted by their copies.
+     *
+     * @param ply the distance from the root
+     * @param deck the key of the content of the deck
+     * @return the expected value for player 0
+     * @pre the working state is in the DRAW phase and the deck is not empty
+     * @post the working state is unchanged, except for the order of the deck; the counts of the ply are
+     *       zero again, even if the solve is abandoned
+     */
+    private double chance(int ply, long deck) {
+        int size = work.deckSize();
+        int[] count = counts[ply];
+        for (int i = 0; i < size; i++) {
+            count[work.deckCard(i)]++;
+        }
+        double value = 0;
+        try {
+            for (int face = 0; face < CardId.COUNT; face++) {
+                if (count[face] == 0) {
+                    continue;
+                }
+                double probability = count[face] / (double) size;
+                count[face] = 0;
+                int record = engine.draw(face);
+                value += probability * value(ply + 1, deck - CARD_KEYS[face]);
+                engine.undo(record);
+            }
+        } finally {
+            Arrays.fill(count, 0);
+        }
+        return value;
+    }
+
+
+
+
+    /**
+     * Returns the key of the content of the deck: the sum of a random key per card, so the order of
+     * the cards does not matter and copies of a card count twice.
+     *
+     * @param state the state
+     * @return the key of the deck
+     * @pre none
+     * @post the key is returned
+     */
+    private static long deckKey(GameState state) {
+        long key = 0;
+        for (int i = 0; i < state.deckSize(); i++) {
+            key += CARD_KEYS[state.deckCard(i)];
+        }
+        return key;
+    }
+
+
+
+
+    /**
+     * Thrown to abandon a solve that has outgrown its node budget or its deadline, or was cancelled. A single instance without
+     * a stack trace is reused.
+     */
+    private static final class Abort extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+
+
+
+        /**
+         * Constructs the Abort.
+         *
+         * @pre none
+         * @post an Abort without stack trace is created
+         */
+        Abort() {
+            super(null, null, false, false);
+        }
+    }
+}
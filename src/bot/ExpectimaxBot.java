@@ -0,0 +1,544 @@
+package bot;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import engine.Determinizer;
+import engine.GameState;
+import engine.Move;
+import engine.MoveGenerator;
+import engine.StateEngine;
+import model.CardId;
+
+
+
+/**
+ * The ExpectimaxBot class chooses moves with depth-limited expectiminimax search.
+ * The hidden cards are sampled into a few determinizations; in each of them the moves of the root
+ * player are MAX nodes, the moves of the opponent MIN nodes, and every draw a chance node over the
+ * distinct cards left in the deck, weighted by their number of copies. The values of the root moves
+ * are averaged over the determinizations.
+ *
+ * Chance nodes are pruned with Star1 and Star2: the evaluation is bounded by WIN, so the value of a
+ * chance node is bounded before all its outcomes are searched, and Star2 first probes every outcome
+ * with its best-ordered move to tighten those bounds. Moves are ordered by the greedy bot's score,
+ * and at the root by the values of the previous iteration.
+ *
+ * The search deepens one ply at a time until the time budget runs out. It checks the clock every
+ * thousand nodes and abandons the unfinished iteration at once, returning the best move of the
+ * last completed depth, so the time per move is predictable. A monitor cancels the search the same way.
+ */
+public class ExpectimaxBot implements Bot {
+    public static final String NAME = "expectimax";
+    public static final long DEFAULT_TIME_MILLIS = 1000;
+    public static final int DEFAULT_SAMPLES = 4;
+    public static final int MAX_DEPTH = 24;
+    public static final double WIN = 1000;
+    public static final double PROJECTION = 0.5;
+
+    private static final int MAX_PLY = 4 * MAX_DEPTH + 8;
+    private static final int CHECK_INTERVAL = 1024;
+    private static final Timeout TIMEOUT = new Timeout();
+
+    private final long timeMillis;
+    private final int maxDepth;
+    private final GameState[] samples;
+    private final GameState work = new GameState();
+    private final StateEngine engine = new StateEngine(work);
+    private final Determinizer determinizer = new Determinizer();
+    private final GreedyBot orderer = new GreedyBot();
+    private final int[][] moves = new int[MAX_PLY][Move.MAX_MOVES];
+    private final double[][] keys = new double[MAX_PLY][Move.MAX_MOVES];
+    private final int[][] counts = new int[MAX_PLY][CardId.COUNT];
+    private final int[][] faces = new int[MAX_PLY][CardId.COUNT];
+    private final double[][] lower = new double[MAX_PLY][CardId.COUNT];
+    private final double[][] upper = new double[MAX_PLY][CardId.COUNT];
+    private final int[][] probeMoves = new int[MAX_PLY][CardId.COUNT];
+    private final double[][] probeValues = new double[MAX_PLY][CardId.COUNT];
+    private final int[] rootMoves = new int[Move.MAX_MOVES];
+    private final double[] rootValues = new double[Move.MAX_MOVES];
+    private EndgameSolver endgame = new EndgameSolver(EndgameSolver.DEFAULT_DECK_CARDS, EndgameSolver.DEFAULT_SAMPLES);
+    private int rootPlayer;
+    private long deadline;
+    private long nodes;
+    private volatile SearchMonitor monitor;
+    private boolean horizon;
+    private int lastDepth;
+
+
+
+
+
+    /**
+     * Constructs an ExpectimaxBot.
+     *
+     * @param timeMillis the thinking time per move in milliseconds
+     * @param maxDepth the deepest iteration, in moves of the players
+     * @param samples the number of determinizations searched per move
+     * @pre timeMillis &gt; 0, 0 &lt; maxDepth &lt;= MAX_DEPTH, samples &gt; 0
+     * @post an ExpectimaxBot is created
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public ExpectimaxBot(long timeMillis, int maxDepth, int samples) {
+        if (timeMillis <= 0 || maxDepth <= 0 || maxDepth > MAX_DEPTH || samples <= 0) {
+            throw new IllegalArgumentException("Invalid expectimax budget: " + timeMillis + " ms, depth " + maxDepth + ", " + samples + " samples.");
+        }
+        this.timeMillis = timeMillis;
+        this.maxDepth = maxDepth;
+        this.samples = new GameState[samples];
+        for (int i = 0; i < samples; i++) {
+            this.samples[i] = new GameState();
+        }
+    }
+
+
+
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+
+
+
+    /**
+     * Returns the deepest iteration completed by the last search.
+     *
+     * @return the depth in moves of the players, 0 if not even the first iteration completed
+     * @pre none
+     * @post the depth is returned
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+
+
+
+    /**
+     * Sets the solver that takes over the last cards of the game.
+     *
+     * @param endgame the endgame solver, or null to search until the end
+     * @pre none
+     * @post the next moves near the end of the game are chosen by the solver
+     */
+    public void setEndgame(EndgameSolver endgame) {
+        this.endgame = endgame;
+        if (endgame != null) {
+            endgame.setMonitor(monitor);
+        }
+    }
+
+
+
+
+    @Override
+    public void setMonitor(SearchMonitor monitor) {
+        this.monitor = monitor;
+        if (endgame != null) {
+            endgame.setMonitor(monitor);
+        }
+    }
+
+
+
+
+    @Override
+    public int chooseMove(GameState state, int[] legal, int count, SplittableRandom random) {
+        if (count == 1) {
+            return legal[0];
+        }
+        deadline = System.nanoTime() + timeMillis * 1_000_000L;
+        if (endgame != null && endgame.applies(state)) {
+            int move = endgame.chooseMove(state, legal, count, random, deadline);
+            if (move >= 0) {
+                return move;
+            }
+        }
+        nodes = 0;
+        lastDepth = 0;
+        rootPlayer = state.actor();
+        for (int[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+        for (GameState sample : samples) {
+            determinizer.sample(state, rootPlayer, sample, random);
+        }
+
+        System.arraycopy(legal, 0, rootMoves, 0, count);
+        for (int i = 0; i < count; i++) {
+            rootValues[i] = orderer.score(state, rootMoves[i]);
+        }
+        sort(rootMoves, rootValues, count);
+        int best = rootMoves[0];
+
+        try {
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                horizon = false;
+                for (int i = 0; i < count; i++) {
+                    rootValues[i] = 0;
+                }
+                for (GameState sample : samples) {
+                    work.copyFrom(sample);
+                    engine.clear();
+                    for (int i = 0; i < count; i++) {
+                        int record = engine.apply(rootMoves[i]);
+                        rootValues[i] += search(depth - 1, 1, -WIN, WIN);
+                        engine.undo(record);
+                    }
+                }
+                sort(rootMoves, rootValues, count);
+                best = rootMoves[0];
+                lastDepth = depth;
+                SearchMonitor watcher = monitor;
+                if (watcher != null) {
+                    watcher.progress(best, nodes);
+                }
+                if (!horizon) {
+                    break;
+                }
+            }
+        } catch (Timeout e) {
+            // the unfinished iteration is dropped
+        }
+        return best;
+    }
+
+
+
+
+    /**
+     * Searches the current position.
+     *
+     * @param depth the number of player moves left before the evaluation
+     * @param ply the distance from the root, indexing the buffers
+     * @param alpha the lower bound of the window
+     * @param beta the upper bound of the window
+     * @return the value for the root player, clamped to [alpha, beta]
+     * @pre alpha &lt; beta
+     * @post the position is unchanged
+     * @throws Timeout if the time budget has run out or the search is cancelled
+     */
+    private double search(int depth, int ply, double alpha, double beta) {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && (System.nanoTime() >= deadline || cancelled())) {
+            throw TIMEOUT;
+        }
+        if (work.isOver()) {
+            int winner = work.winner();
+            return clamp(winner < 0 ? 0 : winner == rootPlayer ? WIN : -WIN, alpha, beta);
+        }
+        if (depth == 0) {
+            horizon = true;
+            return clamp(evaluate(), alpha, beta);
+        }
+        if (work.phase() == GameState.PHASE_DRAW) {
+            return chance(depth, ply, alpha, beta);
+        }
+        return decision(depth, ply, alpha, beta, 0, 0, false);
+    }
+
+
+
+
+    /**
+     * Searches a MAX or MIN node with alpha-beta.
+     *
+     * @param depth the number of player moves left, including this one
+     * @param ply the distance from the root
+     * @param alpha the lower bound of the window
+     * @param beta the upper bound of the window
+     * @param probeMove a move whose value is already known from a Star2 probe
+     * @param probeValue the exact value of probeMove
+     * @param probed true if probeMove and probeValue are set
+     * @return the value for the root player, clamped to [alpha, beta]
+     * @pre the state waits for a move of a player, depth &gt; 0
+     * @post the position is unchanged
+     */
+    private double decision(int depth, int ply, double alpha, double beta, int probeMove, double probeValue, boolean probed) {
+        int count = order(ply);
+        int[] list = moves[ply];
+        boolean max = work.actor() == rootPlayer;
+        for (int i = 0; i < count; i++) {
+            double value;
+            if (probed && list[i] == probeMove) {
+                value = probeValue;
+            } else {
+                int record = engine.apply(list[i]);
+                value = search(depth - 1, ply + 1, alpha, beta);
+                engine.undo(record);
+            }
+            if (max) {
+                if (value >= beta) {
+                    return beta;
+                }
+                alpha = Math.max(alpha, value);
+            } else {
+                if (value <= alpha) {
+                    return alpha;
+                }
+                beta = Math.min(beta, value);
+            }
+        }
+        return max ? alpha : beta;
+    }
+
+
+
+
+    /**
+     * Searches a chance node: the draw of the side that has just played, over the distinct cards of the deck.
+     * Star2 probes every outcome with its first move, then Star1 searches the outcomes with windows
+     * narrowed by the bounds of the outcomes not yet searched.
+     *
+     * @param depth the number of player moves left
+     * @param ply the distance from the root
+     * @param alpha the lower bound of the window
+     * @param beta the upper bound of the window
+     * @return the expected value for the root player, clamped to [alpha, beta]
+     * @pre the state is in the DRAW phase, depth &gt; 0
+     * @post the position is unchanged, except for the order of the deck
+     */
+    private double chance(int depth, int ply, double alpha, double beta) {
+        int size = work.deckSize();
+        if (size == 0) {
+            int record = engine.apply(Move.DRAW);
+            double value = search(depth, ply + 1, alpha, beta);
+            engine.undo(record);
+            return value;
+        }
+
+        int[] count = counts[ply];
+        int[] outcome = faces[ply];
+        for (int i = 0; i < size; i++) {
+            count[work.deckCard(i)]++;
+        }
+        int outcomes = 0;
+        for (int face = 0; face < CardId.COUNT; face++) {
+            if (count[face] > 0) {
+                outcome[outcomes++] = face;
+            }
+        }
+
+        double[] low = lower[ply];
+        double[] high = upper[ply];
+        boolean max = (work.side() ^ 1) == rootPlayer;
+        double sumLow = 0;
+        double sumHigh = 0;
+        for (int k = 0; k < outcomes; k++) {
+            int record = engine.draw(outcome[k]);
+            order(ply + 1);
+            int first = moves[ply + 1][0];
+            engine.apply(first);
+            double value = search(depth - 1, ply + 2, -WIN, WIN);
+            engine.undo(record);
+            probeMoves[ply][k] = first;
+            probeValues[ply][k] = value;
+            low[k] = max ? value : -WIN;
+            high[k] = max ? WIN : value;
+            double probability = count[outcome[k]] / (double) size;
+            sumLow += probability * low[k];
+            sumHigh += probability * high[k];
+        }
+        if (sumLow >= beta || sumHigh <= alpha) {
+            clearCounts(count, outcome, outcomes);
+            return sumLow >= beta ? beta : alpha;
+        }
+
+        double done = 0;
+        for (int k = 0; k < outcomes; k++) {
+            double probability = count[outcome[k]] / (double) size;
+            sumLow -= probability * low[k];
+            sumHigh -= probability * high[k];
+            double a = (alpha - done - sumHigh) / probability;
+            double b = (beta - done - sumLow) / probability;
+            if (low[k] >= b || high[k] <= a) {
+                clearCounts(count, outcome, outcomes);
+                return low[k] >= b ? beta : alpha;
+            }
+            int record = engine.draw(outcome[k]);
+            double value = decision(depth, ply + 1, Math.max(a, low[k]), Math.min(b, high[k]),
+                    probeMoves[ply][k], probeValues[ply][k], true);
+            engine.undo(record);
+            if (value >= b || value <= a) {
+                clearCounts(count, outcome, outcomes);
+                return value >= b ? beta : alpha;
+            }
+            done += probability * value;
+        }
+        clearCounts(count, outcome, outcomes);
+        return clamp(done, alpha, beta);
+    }
+
+
+
+
+    /**
+     * Checks whether the monitor has cancelled the search.
+     *
+     * @return true if the search is cancelled
+     * @pre none
+     * @post returns whether the search is cancelled
+     */
+    private boolean cancelled() {
+        SearchMonitor watcher = monitor;
+        return watcher != null && watcher.isCancelled();
+    }
+
+
+
+
+    /**
+     * Evaluates the position for the root player: the difference of the two players' scores,
+     * with each pawn projected forward by part of the cards its owner holds for its path.
+     *
+     * @return the evaluation, strictly between -WIN and WIN
+     * @pre none
+     * @post the evaluation is returned
+     */
+    private double evaluate() {
+        int turns = work.deckSize() / 2 + 1;
+        double value = work.score(rootPlayer) - work.score(rootPlayer ^ 1)
+                + PROJECTION * (projection(rootPlayer, turns) - projection(rootPlayer ^ 1, turns));
+        return Math.max(-WIN + 1, Math.min(WIN - 1, value));
+    }
+
+
+
+
+    /**
+     * Returns the position points a player's pawns would gain by playing the cards held for their paths.
+     *
+     * @param player the player index
+     * @param turns the most cards the player can still play
+     * @return the projected gain in position points
+     * @pre none
+     * @post the gain is returned
+     */
+    private int projection(int player, int turns) {
+        int gain = 0;
+        for (int path = 0; path < GameState.PATHS; path++) {
+            int slot = work.pawnSlot(player, path);
+            if (!GameState.isPlaced(slot) || GameState.position(slot) >= GameState.PALACE) {
+                continue;
+            }
+            int base = CardId.of(path, 0);
+            int steps = 2 * work.handCount(player, base + CardId.ARIADNE);
+            for (int rank = Math.max(0, work.highestValue(player, path) - 1); rank < CardId.ARIADNE; rank++) {
+                steps += work.handCount(player, base + rank);
+            }
+            int from = GameState.position(slot);
+            int to = Math.min(GameState.PALACE, from + Math.min(steps, turns));
+            gain += (GameState.positionScore(to) - GameState.positionScore(from)) * (GameState.isTheseus(slot) ? 2 : 1);
+        }
+        return gain;
+    }
+
+
+
+
+    /**
+     * Generates the moves of the current position into the buffer of a ply, best greedy score first.
+     *
+     * @param ply the distance from the root
+     * @return the number of moves
+     * @pre the state waits for a move of a player
+     * @post moves[ply] holds the ordered moves
+     */
+    private int order(int ply) {
+        int[] list = moves[ply];
+        double[] key = keys[ply];
+        int count = MoveGenerator.generate(work, list);
+        for (int i = 0; i < count; i++) {
+            key[i] = orderer.score(work, list[i]);
+        }
+        sort(list, key, count);
+        return count;
+    }
+
+
+
+
+    /**
+     * Sorts moves by decreasing key, with an insertion sort that is stable and allocates nothing.
+     *
+     * @param list the moves
+     * @param key the key of each move
+     * @param count the number of moves
+     * @pre both arrays hold at least count entries
+     * @post list[0..count) is sorted by decreasing key, and key along with it
+     */
+    private static void sort(int[] list, double[] key, int count) {
+        for (int i = 1; i < count; i++) {
+            int move = list[i];
+            double value = key[i];
+            int j = i - 1;
+            while (j >= 0 && key[j] < value) {
+                list[j + 1] = list[j];
+                key[j + 1] = key[j];
+                j--;
+            }
+            list[j + 1] = move;
+            key[j + 1] = value;
+        }
+    }
+
+
+
+
+    /**
+     * Resets the card counts of a chance node.
+     *
+     * @param count the counts by CardId
+     * @param outcome the faces with a count
+     * @param outcomes the number of faces
+     * @pre none
+     * @post every count is 0
+     */
+    private static void clearCounts(int[] count, int[] outcome, int outcomes) {
+        for (int k = 0; k < outcomes; k++) {
+            count[outcome[k]] = 0;
+        }
+    }
+
+
+
+
+    /**
+     * Clamps a value to a window.
+     *
+     * @param value the value
+     * @param alpha the lower bound
+     * @param beta the upper bound
+     * @return the clamped value
+     * @pre alpha &lt;= beta
+     * @post the clamped value is returned
+     */
+    private static double clamp(double value, double alpha, double beta) {
+        return Math.max(alpha, Math.min(beta, value));
+    }
+
+
+
+
+    /**
+     * Thrown to abandon a search when its time budget runs out or it is cancelled. A single instance without
+     * a stack trace is reused, so giving up costs nothing.
+     */
+    private static final class Timeout extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+
+
+
+        /**
+         * Constructs the Timeout.
+         *
+         * @pre none
+         * @post a Timeout without stack trace is created
+         */
+        Timeout() {
+            super(null, null, false, false);
+        }
+    }
+}
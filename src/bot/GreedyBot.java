@@ -0,0 +1,518 @@
+package bot;
+
+import java.util.SplittableRandom;
+
+import engine.GameState;
+import engine.Move;
+import model.CardId;
+
+
+
+/**
+ * The GreedyBot class plays the legal move with the best immediate score, without search.
+ * A move is scored as a weighted sum of features read from the scoring tables of the game:
+ * the position points of Path, the rare finding and fresco points, the statue table of
+ * Player.getStatueScore, plus a few features of the structure of the hand.
+ * Ties are broken at random, so playouts of two greedy bots still differ.
+ *
+ * Scoring a move reads the state and the static tables only: the bot allocates nothing,
+ * which makes it the rollout policy of the search bots.
+ *
+ * The default weights can be replaced at startup by a weights file (see WeightsFile), named by the
+ * system property greedy.weights; the Tune tool writes such files.
+ */
+public class GreedyBot implements Bot {
+    public static final String NAME = "greedy";
+
+    /** Change of the mover's position points. */
+    public static final int POSITION = 0;
+    /** Points of the findings an archaeologist reaches. */
+    public static final int FINDING = 1;
+    /** Points of the findings a Theseus reaches and may destroy. */
+    public static final int DESTROY = 2;
+    /** Position points a Minotaur takes from the opponent. */
+    public static final int PUSH = 3;
+    /** 1 if a Minotaur immobilizes a Theseus. */
+    public static final int IMMOBILIZE = 4;
+    /** 1 if the move places a pawn on a new path. */
+    public static final int PLACE = 5;
+    /** For a placement, the share of the deck already drawn. */
+    public static final int LATE_PLACE = 6;
+    /** 1 if the move places a Theseus. */
+    public static final int THESEUS = 7;
+    /** Cards left in hand that can follow on the path of the move. */
+    public static final int FOLLOW = 8;
+    /** Lower cards of the path left in hand that the move makes unplayable. */
+    public static final int GAP = 9;
+    /** Difference between the value played and the highest value played before on the path. */
+    public static final int JUMP = 10;
+    /** 1 if the move is a discard. */
+    public static final int DISCARD = 11;
+    /** 1 if the discarded card could never be played. */
+    public static final int DEAD = 12;
+    /** Cards left in hand that can follow on the path of the discarded card. */
+    public static final int DISCARD_FOLLOW = 13;
+    /** The number of features. */
+    public static final int FEATURES = 14;
+    /** The names of the features in weights files, indexed by the feature constants. */
+    public static final String[] FEATURE_NAMES = {
+        "position", "finding", "destroy", "push", "immobilize", "place", "latePlace",
+        "theseus", "follow", "gap", "jump", "discard", "dead", "discardFollow"
+    };
+    /** The system property naming the weights file read at startup. */
+    public static final String WEIGHTS_PROPERTY = "greedy.weights";
+
+    private static final double[] BUILTIN_WEIGHTS = {
+        1.0, 0.8, 0.4, 0.8, 12.0, -4.0, -30.0, -6.0, 5.0, -4.0, -1.5, -8.0, 10.0, -4.0
+    };
+    private static final double[] DEFAULT_WEIGHTS = loadDefaultWeights();
+    private static final int[] STATUE_VALUES = new int[GameState.STATUE_LIMIT + 1];
+
+    static {
+        for (int count = 0; count < GameState.STATUE_LIMIT; count++) {
+            STATUE_VALUES[count] = count < 3
+                    ? (GameState.statueScore(3) - GameState.statueScore(count)) / (3 - count)
+                    : GameState.statueScore(count + 1) - GameState.statueScore(count);
+        }
+    }
+
+    private final double[] weights;
+    private final int[] below = new int[GameState.PATHS * (CardId.ARIADNE + 1)];
+    private final int[] ariadnes = new int[GameState.PATHS];
+    private double[] sink;
+    private double total;
+    private int positionDelta;
+    private int findingValue;
+
+
+
+
+
+    /**
+     * Constructs a GreedyBot with the default weights.
+     *
+     * @pre none
+     * @post a GreedyBot is created
+     */
+    public GreedyBot() {
+        this(DEFAULT_WEIGHTS);
+    }
+
+
+
+
+    /**
+     * Constructs a GreedyBot with the specified weights, indexed by the feature constants.
+     *
+     * @param weights the weight of each feature
+     * @pre weights has FEATURES entries
+     * @post a GreedyBot using a copy of the weights is created
+     * @throws IllegalArgumentException if the number of weights is wrong
+     */
+    public GreedyBot(double[] weights) {
+        if (weights.length != FEATURES) {
+            throw new IllegalArgumentException("Expected " + FEATURES + " weights, got " + weights.length + ".");
+        }
+        this.weights = weights.clone();
+    }
+
+
+
+
+    /**
+     * Reads the default weights from the file named by the system property greedy.weights.
+     * A file that cannot be read is reported, and the built-in weights are used instead.
+     *
+     * @return the weights of the file, or the built-in weights if the property is not set
+     * @pre none
+     * @post the default weights are returned
+     */
+    private static double[] loadDefaultWeights() {
+        String file = System.getProperty(WEIGHTS_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return BUILTIN_WEIGHTS.clone();
+        }
+        try {
+            return WeightsFile.load(file, FEATURE_NAMES, BUILTIN_WEIGHTS);
+        } catch (RuntimeException e) {
+            System.err.println("Using the built-in greedy weights: " + e.getMessage());
+            return BUILTIN_WEIGHTS.clone();
+        }
+    }
+
+
+
+
+    /**
+     * Returns the built-in weights, the hand-picked ones.
+     *
+     * @return a copy of the built-in weights
+     * @pre none
+     * @post a new array is returned
+     */
+    public static double[] getBuiltinWeights() {
+        return BUILTIN_WEIGHTS.clone();
+    }
+
+
+
+
+    /**
+     * Returns the default weights: those of the weights file read at startup, or the built-in ones.
+     *
+     * @return a copy of the default weights
+     * @pre none
+     * @post a new array is returned
+     */
+    public static double[] getDefaultWeights() {
+        return DEFAULT_WEIGHTS.clone();
+    }
+
+
+
+
+    /**
+     * Returns the weights of the bot.
+     *
+     * @return a copy of the weights
+     * @pre none
+     * @post a new array is returned
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+
+
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+
+
+
+    @Override
+    public int chooseMove(GameState state, int[] moves, int count, SplittableRandom random) {
+        if (count == 1) {
+            return moves[0];
+        }
+        prepare(state);
+        int best = moves[0];
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int ties = 0;
+        for (int i = 0; i < count; i++) {
+            double score = evaluate(state, moves[i], null);
+            if (score > bestScore) {
+                bestScore = score;
+                best = moves[i];
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+
+
+
+
+    /**
+     * Scores a legal move for the acting player.
+     *
+     * @param state the state of the game
+     * @param move the encoded move
+     * @return the weighted sum of the features of the move
+     * @pre move is legal in state
+     * @post the score is returned, nothing is allocated
+     */
+    public double score(GameState state, int move) {
+        prepare(state);
+        return evaluate(state, move, null);
+    }
+
+
+
+
+    /**
+     * Computes the features of a legal move for the acting player.
+     *
+     * @param state the state of the game
+     * @param move the encoded move
+     * @param out the array receiving the features, indexed by the feature constants
+     * @pre move is legal in state, out has FEATURES entries
+     * @post out holds the features of the move
+     */
+    public void extract(GameState state, int move, double[] out) {
+        for (int i = 0; i < FEATURES; i++) {
+            out[i] = 0;
+        }
+        prepare(state);
+        evaluate(state, move, out);
+    }
+
+
+
+
+    /**
+     * Builds the hand table of the acting player: for every palace, the number of its number cards
+     * in hand below each value, so that the hand features of a move are two lookups.
+     *
+     * @param state the state of the game
+     * @pre none
+     * @post below and ariadnes describe the hand of the acting player
+     */
+    private void prepare(GameState state) {
+        int player = state.actor();
+        for (int palace = 0; palace < GameState.PATHS; palace++) {
+            int base = CardId.of(palace, 0);
+            int row = palace * (CardId.ARIADNE + 1);
+            int count = 0;
+            for (int rank = 0; rank < CardId.ARIADNE; rank++) {
+                below[row + rank] = count;
+                count += state.handCount(player, base + rank);
+            }
+            below[row + CardId.ARIADNE] = count;
+            ariadnes[palace] = state.handCount(player, base + CardId.ARIADNE);
+        }
+    }
+
+
+
+
+    /**
+     * Scores a legal move, or writes its non-zero features.
+     *
+     * @param state the state of the game
+     * @param move the encoded move
+     * @param out the array receiving the features, or null to only score the move
+     * @return the weighted sum of the features of the move
+     * @pre prepare was called for state, move is legal in state
+     * @post the score is returned, and out holds the non-zero features if it is not null
+     */
+    private double evaluate(GameState state, int move, double[] out) {
+        sink = out;
+        total = 0;
+        int player = state.actor();
+        switch (Move.kind(move)) {
+            case Move.TAKE:
+                int slot = state.pawnSlot(player, state.pendingPath());
+                int value = findingPoints(state, player, GameState.findingSlot(state.pendingPath(), state.pendingPosition()));
+                put(GameState.isTheseus(slot) ? DESTROY : FINDING, value);
+                break;
+            case Move.PLAY:
+                evaluatePlay(state, player, Move.face(move), Move.isTheseus(move));
+                break;
+            case Move.DISCARD:
+                evaluateDiscard(state, player, Move.face(move));
+                break;
+            default:
+                break;
+        }
+        return total;
+    }
+
+
+
+
+    /**
+     * Adds a feature to the move being evaluated.
+     *
+     * @param feature the feature constant
+     * @param value the value of the feature
+     * @pre evaluate is running
+     * @post the weighted value is added to the score, and the value is written to the sink if there is one
+     */
+    private void put(int feature, double value) {
+        total += weights[feature] * value;
+        if (sink != null) {
+            sink[feature] = value;
+        }
+    }
+
+
+
+
+    /**
+     * Evaluates playing a card.
+     *
+     * @param state the state of the game
+     * @param player the acting player
+     * @param face the CardId of the card
+     * @param theseus true if a number card places a Theseus
+     * @pre the play is legal
+     * @post the features of the play are put
+     */
+    private void evaluatePlay(GameState state, int player, int face, boolean theseus) {
+        int palace = CardId.palace(face);
+        int rank = CardId.rank(face);
+        int slot = state.pawnSlot(player, palace);
+
+        if (rank == CardId.MINOTAUR) {
+            int target = state.pawnSlot(player ^ 1, palace);
+            if (!GameState.isHidden(target) && GameState.isTheseus(target)) {
+                put(IMMOBILIZE, 1);
+            } else {
+                int position = GameState.position(target);
+                put(PUSH, GameState.positionScore(position) - GameState.positionScore(Math.max(0, position - 2)));
+            }
+            return;
+        }
+
+        int value;
+        if (rank == CardId.ARIADNE) {
+            value = state.highestValue(player, palace);
+            walk(state, player, palace, slot, 2);
+        } else {
+            value = CardId.value(face);
+            if (GameState.isPlaced(slot)) {
+                walk(state, player, palace, slot, 1);
+                put(JUMP, value - Math.max(state.highestValue(player, palace), 1));
+            } else {
+                positionDelta = GameState.positionScore(0) * (theseus ? 2 : 1);
+                findingValue = 0;
+                put(PLACE, 1);
+                put(LATE_PLACE, 1 - state.deckSize() / (double) GameState.DECK_SIZE);
+                if (theseus) {
+                    put(THESEUS, 1);
+                }
+                put(JUMP, value - 1);
+            }
+            put(GAP, lowerCards(palace, value));
+        }
+        put(POSITION, positionDelta);
+        put(GameState.isTheseus(slot) || theseus ? DESTROY : FINDING, findingValue);
+        put(FOLLOW, followers(palace, value) - 1);
+    }
+
+
+
+
+    /**
+     * Evaluates discarding a card.
+     *
+     * @param state the state of the game
+     * @param player the acting player
+     * @param face the CardId of the card
+     * @pre the discard is legal
+     * @post the features of the discard are put
+     */
+    private void evaluateDiscard(GameState state, int player, int face) {
+        int palace = CardId.palace(face);
+        int rank = CardId.rank(face);
+        int slot = state.pawnSlot(player, palace);
+        put(DISCARD, 1);
+
+        boolean dead;
+        if (rank == CardId.MINOTAUR) {
+            int target = state.pawnSlot(player ^ 1, palace);
+            dead = GameState.isPlaced(target) && GameState.position(target) >= GameState.CHECKPOINT;
+        } else if (rank == CardId.ARIADNE) {
+            dead = GameState.isPlaced(slot) && GameState.position(slot) >= GameState.PALACE;
+        } else {
+            dead = CardId.value(face) < state.highestValue(player, palace)
+                    || GameState.isPlaced(slot) && GameState.position(slot) >= GameState.PALACE;
+        }
+        if (dead) {
+            put(DEAD, 1);
+        } else {
+            put(DISCARD_FOLLOW, followers(palace, state.highestValue(player, palace)) - 1);
+        }
+    }
+
+
+
+
+    /**
+     * Walks a pawn forward and records the change of position points and the findings it reaches
+     * in positionDelta and findingValue.
+     *
+     * @param state the state of the game
+     * @param player the owner of the pawn
+     * @param path the path of the pawn
+     * @param slot the slot of the pawn
+     * @param steps the number of steps
+     * @pre the pawn is placed
+     * @post positionDelta and findingValue describe the walk
+     */
+    private void walk(GameState state, int player, int path, int slot, int steps) {
+        int from = GameState.position(slot);
+        int to = Math.min(GameState.PALACE, from + steps);
+        int multiplier = GameState.isTheseus(slot) ? 2 : 1;
+        positionDelta = (GameState.positionScore(to) - GameState.positionScore(from)) * multiplier;
+        findingValue = 0;
+        if (GameState.isTheseus(slot) && GameState.findingsDestroyed(slot) >= 3) {
+            return;
+        }
+        for (int position = from + 1; position <= to; position++) {
+            int findingSlot = GameState.findingSlot(path, position);
+            if (findingSlot >= 0) {
+                findingValue += findingPoints(state, player, findingSlot);
+            }
+        }
+    }
+
+
+
+
+    /**
+     * Returns the points a finding is worth to a player: the rare finding or fresco points,
+     * or the statue points spread over the statues still needed to reach a positive score.
+     *
+     * @param state the state of the game
+     * @param player the player reaching the finding
+     * @param findingSlot the finding slot
+     * @return the points of the finding, 0 if it is gone or already photographed
+     * @pre 0 &lt;= findingSlot &lt; 20
+     * @post the points are returned
+     */
+    private static int findingPoints(GameState state, int player, int findingSlot) {
+        if (!state.isFindingAvailable(findingSlot)) {
+            return 0;
+        }
+        int kind = state.findingKind(findingSlot);
+        if (kind == GameState.FINDING_STATUE) {
+            return STATUE_VALUES[Math.min(state.statueCount(player), STATUE_VALUES.length - 1)];
+        } else if (kind >= GameState.FINDING_FRESCO) {
+            int fresco = kind - GameState.FINDING_FRESCO;
+            return (state.frescoMask(player) >>> fresco & 1) != 0 ? 0 : GameState.frescoPoints(fresco);
+        } else if (kind >= GameState.FINDING_RARE) {
+            return GameState.rarePoints(kind - GameState.FINDING_RARE);
+        }
+        return 0;
+    }
+
+
+
+
+    /**
+     * Counts the cards in hand that can still move the pawn of a path after a card of a given value.
+     *
+     * @param palace the palace of the path
+     * @param value the highest value played on the path
+     * @return the number of number cards of at least that value and Ariadne cards of the palace in hand
+     * @pre prepare was called
+     * @post the count is returned
+     */
+    private int followers(int palace, int value) {
+        int row = palace * (CardId.ARIADNE + 1);
+        return ariadnes[palace] + below[row + CardId.ARIADNE] - below[row + Math.max(0, value - 1)];
+    }
+
+
+
+
+    /**
+     * Counts the number cards in hand that a card of a given value would make unplayable.
+     *
+     * @param palace the palace of the path
+     * @param value the value of the card
+     * @return the number of number cards of the palace in hand with a lower value
+     * @pre prepare was called
+     * @post the count is returned
+     */
+    private int lowerCards(int palace, int value) {
+        return below[palace * (CardId.ARIADNE + 1) + value - 1];
+    }
+}
@@ -0,0 +1,775 @@
+package bot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+import engine.Determinizer;
+import engine.GameState;
+import engine.Move;
+import engine.MoveGenerator;
+import engine.StateEngine;
+
+
+
+/**
+ * The IsmctsBot class chooses moves with single-observer information-set Monte Carlo tree search.
+ * Every iteration samples the hidden information (the opponent's hand, the deck order and the types
+ * of the opponent's face-down pawns), descends the shared tree through the moves that are legal in
+ * that sample, expands one move, plays the game out with the rollout policy and backs the result up.
+ * A node is scored from the point of view of the player who made its move; selection uses UCB1
+ * with the number of times a node was available instead of the parent visits.
+ *
+ * Playouts may be cut after a number of plies. The state reached is then scored by the difference
+ * of the two players' scores, mapped to a probability of winning with a logistic curve, which keeps
+ * thousands of playouts per second possible with a costlier rollout policy than random moves.
+ *
+ * The search is tree-parallel: every thread runs its own iterations on its own GameState, and all
+ * of them share one tree. Children are linked in with compare-and-set and the node statistics are
+ * atomic counters, so the tree takes no locks. A thread descending through a node adds a virtual
+ * loss to it until its playout is backed up, which steers the other threads to other branches.
+ *
+ * The tree outlives the search. The next search looks for the node of its state below the last root,
+ * through the expanded moves that are legal in the real game, and continues from that subtree.
+ * With ponder the bot also searches while the opponent is to move, so the statistics of the
+ * replies it expected are already there when the opponent's move arrives.
+ */
+public class IsmctsBot implements Bot {
+    public static final String NAME = "ismcts";
+    public static final int DEFAULT_ITERATIONS = 5000;
+    public static final double EXPLORATION = 0.7;
+    public static final int VIRTUAL_LOSS = 1;
+    public static final double EVALUATION_SCALE = 40.0;
+
+    private static final int REWARD_SCALE = 1024;
+    private static final int CHECK_INTERVAL = 4;
+    private static final long PROGRESS_NANOS = 100_000_000L;
+    private static final int PONDER_ITERATIONS = 1 << 20;
+    private static final int MAX_FOLLOW = 16;
+
+    private final int iterations;
+    private final long timeMillis;
+    private final int rolloutPlies;
+    private final Worker[] workers;
+    private final ExecutorService pool;
+    private final AtomicInteger started = new AtomicInteger();
+    private final GameState keptState = new GameState();
+    private final GameState follow = new GameState();
+    private final StateEngine followEngine = new StateEngine(follow);
+    private final int[][] followMoves = new int[MAX_FOLLOW][Move.MAX_MOVES];
+    private final int[] rootMoves = new int[Move.MAX_MOVES];
+    private EndgameSolver endgame = new EndgameSolver(EndgameSolver.DEFAULT_DECK_CARDS, EndgameSolver.DEFAULT_SAMPLES);
+    private Node kept;
+    private volatile int limit;
+    private volatile long deadline;
+    private volatile SearchMonitor monitor;
+    private long nextReport;
+    private int lastIterations;
+    private int lastReused;
+    private int rootCount;
+
+
+
+
+
+    /**
+     * Constructs a single-threaded IsmctsBot with a budget of iterations and of time,
+     * playing every playout to the end of the game.
+     *
+     * @param iterations the maximum number of iterations per move, 0 for no limit
+     * @param timeMillis the maximum thinking time per move in milliseconds, 0 for no limit
+     * @param rollout the policy of the playouts
+     * @pre iterations &gt; 0 or timeMillis &gt; 0, rollout is not null
+     * @post an IsmctsBot is created
+     */
+    public IsmctsBot(int iterations, long timeMillis, Bot rollout) {
+        this(iterations, timeMillis, 1, 0, () -> rollout);
+    }
+
+
+
+
+    /**
+     * Constructs an IsmctsBot with a budget of iterations and of time, searching with several threads.
+     * The search stops at whichever budget is reached first; a budget of 0 is unlimited, but not both.
+     * The iteration budget is shared by all threads.
+     *
+     * @param iterations the maximum number of iterations per move, 0 for no limit
+     * @param timeMillis the maximum thinking time per move in milliseconds, 0 for no limit
+     * @param threads the number of search threads, including the calling thread
+     * @param rolloutPlies the number of plies after which a playout is scored, 0 to play to the end
+     * @param rollouts creates the rollout policy of each thread
+     * @pre iterations &gt; 0 or timeMillis &gt; 0, threads &gt; 0, rolloutPlies &gt;= 0, rollouts is not null
+     * @post an IsmctsBot is created; with more than one thread it owns threads - 1 daemon threads
+     */
+    public IsmctsBot(int iterations, long timeMillis, int threads, int rolloutPlies, Supplier<Bot> rollouts) {
+        if (iterations <= 0 && timeMillis <= 0) {
+            throw new IllegalArgumentException("The search needs an iteration or a time budget.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The search needs at least one thread.");
+        }
+        this.iterations = iterations;
+        this.timeMillis = timeMillis;
+        this.rolloutPlies = rolloutPlies;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(rollouts.get());
+        }
+        this.pool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, task -> {
+            Thread thread = new Thread(task, "ismcts-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+
+
+
+    /**
+     * Returns the number of search threads.
+     *
+     * @return the number of threads, including the calling thread
+     * @pre none
+     * @post the number of threads is returned
+     */
+    public int getThreads() {
+        return workers.length;
+    }
+
+
+
+
+    /**
+     * Returns the number of iterations of the last search, over all threads.
+     *
+     * @return the number of iterations
+     * @pre none
+     * @post the number of iterations is returned
+     */
+    public int getLastIterations() {
+        return lastIterations;
+    }
+
+
+
+
+    /**
+     * Returns the number of playouts the last search inherited from the tree of the previous one.
+     *
+     * @return the visits of the reused subtree, 0 if the search started from scratch
+     * @pre none
+     * @post the number of playouts is returned
+     */
+    public int getLastReused() {
+        return lastReused;
+    }
+
+
+
+
+    /**
+     * Sets the solver that takes over the last cards of the game.
+     *
+     * @param endgame the endgame solver, or null to search until the end
+     * @pre none
+     * @post the next moves near the end of the game are chosen by the solver
+     */
+    public void setEndgame(EndgameSolver endgame) {
+        this.endgame = endgame;
+        if (endgame != null) {
+            endgame.setMonitor(monitor);
+        }
+    }
+
+
+
+
+    @Override
+    public void setMonitor(SearchMonitor monitor) {
+        this.monitor = monitor;
+        if (endgame != null) {
+            endgame.setMonitor(monitor);
+        }
+    }
+
+
+
+
+    @Override
+    public int chooseMove(GameState state, int[] legal, int count, SplittableRandom random) {
+        if (count == 1) {
+            return legal[0];
+        }
+        long end = timeMillis > 0 ? System.nanoTime() + timeMillis * 1_000_000L : Long.MAX_VALUE;
+        if (endgame != null && endgame.applies(state)) {
+            int move = endgame.chooseMove(state, legal, count, random, end);
+            if (move >= 0) {
+                kept = null;
+                lastReused = 0;
+                return move;
+            }
+        }
+        Node root = reuse(state);
+        lastReused = root != null ? root.visits : 0;
+        if (root == null) {
+            root = new Node(0, state.actor() ^ 1, null, null, 0);
+        }
+        lastIterations = search(state, state.actor(), root, iterations, end, random);
+        keep(state, root);
+
+        Node best = best(root, legal, count);
+        return best != null ? best.move : legal[0];
+    }
+
+
+
+
+    /**
+     * Searches while the opponent is to move, from the point of view of the waiting player, and keeps
+     * the tree for the next search. It runs until the monitor cancels it, or after PONDER_ITERATIONS
+     * iterations.
+     *
+     * @param state the state of the game, not to be modified
+     * @param observer the player the bot plays for
+     * @param random the generator of the game
+     * @pre the game is not over
+     * @post the tree of the state is kept and state is unchanged
+     */
+    @Override
+    public void ponder(GameState state, int observer, SplittableRandom random) {
+        Node root = reuse(state);
+        if (root == null) {
+            root = new Node(0, state.actor() ^ 1, null, null, 0);
+        }
+        search(state, observer, root, PONDER_ITERATIONS, Long.MAX_VALUE, random);
+        keep(state, root);
+    }
+
+
+
+
+    /**
+     * Stops the search threads of the bot.
+     *
+     * @pre no search is running
+     * @post the pool of the bot, if any, is shut down
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+
+
+
+    /**
+     * Runs the iterations of one search on all threads.
+     *
+     * @param state the state to search
+     * @param observer the player whose information the determinizations respect
+     * @param root the root of the tree
+     * @param budget the iteration budget, 0 for none
+     * @param end the System.nanoTime at which the search stops
+     * @param random the generator of the game
+     * @return the number of iterations run
+     * @pre the game is not over
+     * @post the statistics of the tree include the iterations
+     */
+    private int search(GameState state, int observer, Node root, int budget, long end, SplittableRandom random) {
+        started.set(0);
+        limit = budget;
+        nextReport = System.nanoTime() + PROGRESS_NANOS;
+        deadline = end;
+        rootCount = MoveGenerator.generate(state, rootMoves);
+        for (Worker worker : workers) {
+            worker.prepare(state, observer, root, random.split());
+        }
+
+        int total = 0;
+        if (pool == null) {
+            total = workers[0].call();
+        } else {
+            List<Future<Integer>> futures = new ArrayList<>(workers.length - 1);
+            for (int i = 1; i < workers.length; i++) {
+                futures.add(pool.submit(workers[i]));
+            }
+            total = workers[0].call();
+            for (Future<Integer> future : futures) {
+                try {
+                    total += future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("The search failed.", e.getCause());
+                }
+            }
+        }
+        return total;
+    }
+
+
+
+
+    /**
+     * Keeps the tree of a search, for the next one.
+     *
+     * @param state the state of the root
+     * @param root the root of the tree
+     * @pre no search is running
+     * @post the tree and a copy of the state are kept
+     */
+    private void keep(GameState state, Node root) {
+        keptState.copyFrom(state);
+        kept = root;
+    }
+
+
+
+
+    /**
+     * Finds the node of a state in the kept tree and detaches it, so the rest of the tree can be collected.
+     *
+     * @param state the state of the next search
+     * @return the node of the state, or null if the tree does not reach it
+     * @pre no search is running
+     * @post the kept tree is forgotten
+     */
+    private Node reuse(GameState state) {
+        Node root = kept;
+        kept = null;
+        if (root == null) {
+            return null;
+        }
+        follow.copyFrom(keptState);
+        followEngine.clear();
+        Node found = follow(root, state, 0);
+        if (found != null) {
+            found.parent = null;
+            found.sibling = null;
+        }
+        return found;
+    }
+
+
+
+
+    /**
+     * Searches the subtree of a node for the node of a state, through the expanded moves that are legal
+     * in the followed state. The followed state holds the real hands and deck, so the moves and draws
+     * of the game lead to exactly the state of the next search.
+     *
+     * @param node the node of the followed state
+     * @param state the state looked for
+     * @param depth the number of moves followed
+     * @return the node whose state has the key of state, or null if none is found
+     * @pre follow holds the state of node
+     * @post follow is unchanged
+     */
+    private Node follow(Node node, GameState state, int depth) {
+        if (follow.key() == state.key()) {
+            return node;
+        }
+        if (depth == MAX_FOLLOW || follow.isOver() || follow.deckSize() < state.deckSize()) {
+            return null;
+        }
+        int[] legal = followMoves[depth];
+        int count = MoveGenerator.generate(follow, legal);
+        for (Node child = node.child; child != null; child = child.sibling) {
+            for (int i = 0; i < count; i++) {
+                if (legal[i] == child.move) {
+                    int record = followEngine.apply(child.move);
+                    Node found = follow(child, state, depth + 1);
+                    followEngine.undo(record);
+                    if (found != null) {
+                        return found;
+                    }
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+
+
+
+    /**
+     * Returns the most visited child of the root among the legal moves. A reused root may hold children
+     * whose moves were legal in another determinization but are not in the real state.
+     *
+     * @param root the root of the tree
+     * @param legal the legal moves of the state of the root
+     * @param count the number of legal moves
+     * @return the most visited legal child, or null if none was expanded yet
+     * @pre none
+     * @post the child is returned
+     */
+    private static Node best(Node root, int[] legal, int count) {
+        Node best = null;
+        for (Node child = root.child; child != null; child = child.sibling) {
+            if ((best == null || child.visits > best.visits) && contains(legal, count, child.move)) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+
+
+
+    /**
+     * Returns whether a move is among the legal moves.
+     *
+     * @param legal the legal moves
+     * @param count the number of legal moves
+     * @param move the move
+     * @return true if move is in legal[0..count)
+     * @pre none
+     * @post returns whether the move is legal
+     */
+    private static boolean contains(int[] legal, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (legal[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+
+    /**
+     * Claims the next iteration of the shared budget. The search also stops when the monitor cancels it.
+     *
+     * @param iteration the number of iterations the calling thread has run
+     * @return true if the thread may run another iteration
+     * @pre none
+     * @post an iteration is claimed if the budget allows it
+     */
+    private boolean claim(int iteration) {
+        if ((iteration & (CHECK_INTERVAL - 1)) == 0) {
+            SearchMonitor watcher = monitor;
+            if (System.nanoTime() >= deadline || watcher != null && watcher.isCancelled()) {
+                return false;
+            }
+        }
+        int budget = limit;
+        return started.getAndIncrement() < budget || budget <= 0;
+    }
+
+
+
+
+    /**
+     * The Worker class runs search iterations on its own copy of the state.
+     * It holds everything an iteration writes, so the workers share only the tree.
+     */
+    private final class Worker implements Callable<Integer> {
+        private final Bot rollout;
+        private final GameState work = new GameState();
+        private final StateEngine engine = new StateEngine(work);
+        private final Determinizer determinizer = new Determinizer();
+        private final int[] moves = new int[Move.MAX_MOVES];
+        private GameState state;
+        private int observer;
+        private Node root;
+        private SplittableRandom random;
+
+
+
+
+        /**
+         * Constructs a Worker.
+         *
+         * @param rollout the policy of the playouts, used by this worker only
+         * @pre rollout is not null
+         * @post a Worker is created
+         */
+        Worker(Bot rollout) {
+            this.rollout = rollout;
+        }
+
+
+
+
+        /**
+         * Sets up the next search.
+         *
+         * @param state the state to search, not modified
+         * @param observer the player whose information the determinizations respect
+         * @param root the root of the shared tree
+         * @param random the generator of this worker
+         * @pre none
+         * @post the worker searches from the root on its next call
+         */
+        void prepare(GameState state, int observer, Node root, SplittableRandom random) {
+            this.state = state;
+            this.observer = observer;
+            this.root = root;
+            this.random = random;
+        }
+
+
+
+
+        /**
+         * Runs iterations until the budget is spent or the search is cancelled.
+         * The worker of the calling thread reports the progress to the monitor.
+         *
+         * @return the number of iterations run
+         * @pre prepare was called
+         * @post the statistics of the shared tree include the iterations of this worker
+         */
+        @Override
+        public Integer call() {
+            int iteration = 0;
+            while (claim(iteration)) {
+                determinizer.sample(state, observer, work, random);
+                engine.clear();
+                Node node = select();
+                for (int ply = 0; !work.isOver() && (rolloutPlies == 0 || ply < rolloutPlies); ply++) {
+                    int moveCount = MoveGenerator.generate(work, moves);
+                    engine.apply(rollout.chooseMove(work, moves, moveCount, random));
+                    engine.clear();
+                }
+                int first = firstPlayerReward();
+                for (; node != root; node = node.parent) {
+                    node.backUp(node.player == 0 ? first : REWARD_SCALE - first);
+                }
+                iteration++;
+                if ((iteration & (CHECK_INTERVAL - 1)) == 0 && this == workers[0]) {
+                    report();
+                }
+            }
+            return iteration;
+        }
+
+
+
+
+        /**
+         * Reports the most visited move and the iterations of all threads to the monitor,
+         * at most once every PROGRESS_NANOS.
+         *
+         * @pre none
+         * @post the monitor, if any, has received the progress if it was due
+         */
+        private void report() {
+            SearchMonitor watcher = monitor;
+            long now = System.nanoTime();
+            Node best = best(root, rootMoves, rootCount);
+            if (watcher != null && best != null && now >= nextReport) {
+                nextReport = now + PROGRESS_NANOS;
+                watcher.progress(best.move, started.get());
+            }
+        }
+
+
+
+
+        /**
+         * Returns the reward of the playout for the first player: the result of a finished game,
+         * or the logistic evaluation of the score difference of a cut playout.
+         *
+         * @return the reward, from 0 for a loss to REWARD_SCALE for a win
+         * @pre work holds the end of a playout
+         * @post the reward is returned
+         */
+        private int firstPlayerReward() {
+            if (work.isOver()) {
+                int winner = work.winner();
+                return winner < 0 ? REWARD_SCALE / 2 : winner == 0 ? REWARD_SCALE : 0;
+            }
+            double difference = work.score(0) - work.score(1);
+            return (int) Math.round(REWARD_SCALE / (1 + Math.exp(-difference / EVALUATION_SCALE)));
+        }
+
+
+
+
+        /**
+         * Descends the tree in the current determinization and expands one node,
+         * adding a virtual loss to every node on the way.
+         *
+         * @return the expanded node, or the last node reached if the game ended
+         * @pre work holds a determinization of the root state
+         * @post the moves of the descent are applied to work
+         */
+        private Node select() {
+            Node node = root;
+            while (!work.isOver()) {
+                int count = MoveGenerator.generate(work, moves);
+                int actor = work.actor();
+
+                int untried = 0;
+                for (int i = 0; i < count; i++) {
+                    if (node.find(moves[i]) == null) {
+                        moves[untried++] = moves[i];
+                    }
+                }
+                if (untried > 0) {
+                    int move = moves[random.nextInt(untried)];
+                    Node child = node.expand(move, actor);
+                    engine.apply(move);
+                    engine.clear();
+                    return child;
+                }
+
+                Node best = null;
+                double bestValue = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < count; i++) {
+                    Node child = node.find(moves[i]);
+                    int availability = Node.AVAILABILITY.incrementAndGet(child);
+                    int visits = child.visits;
+                    double value = child.reward / (double) REWARD_SCALE / visits
+                            + EXPLORATION * Math.sqrt(Math.log(availability) / visits);
+                    if (value > bestValue) {
+                        bestValue = value;
+                        best = child;
+                    }
+                }
+                Node.VISITS.addAndGet(best, VIRTUAL_LOSS);
+                engine.apply(best.move);
+                engine.clear();
+                node = best;
+            }
+            return node;
+        }
+    }
+
+
+
+
+    /**
+     * A node of the shared search tree: the move that leads to it, the player who made that move
+     * and its statistics. Children are kept in a singly linked list that only grows at its head.
+     * A node that becomes the root of a later search is cut from its parent and siblings.
+     * The reward is counted in fixed point, REWARD_SCALE for a win, and the visits include the
+     * virtual losses of the playouts still running through the node.
+     */
+    private static final class Node {
+        static final AtomicIntegerFieldUpdater<Node> VISITS = AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        static final AtomicLongFieldUpdater<Node> REWARD = AtomicLongFieldUpdater.newUpdater(Node.class, "reward");
+        static final AtomicIntegerFieldUpdater<Node> AVAILABILITY = AtomicIntegerFieldUpdater.newUpdater(Node.class, "availability");
+        static final AtomicReferenceFieldUpdater<Node, Node> CHILD = AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "child");
+
+        final int move;
+        final int player;
+        Node parent;
+        Node sibling;
+        volatile Node child;
+        volatile int visits;
+        volatile long reward;
+        volatile int availability = 1;
+
+
+
+
+        /**
+         * Constructs a Node that is not yet linked under its parent.
+         *
+         * @param move the move leading to the node
+         * @param player the player who made the move
+         * @param parent the parent node, null for the root
+         * @param sibling the next child of the parent, the head of its list when the node is created
+         * @param visits the initial visits, the virtual loss of the thread creating it
+         * @pre none
+         * @post a Node is created
+         */
+        Node(int move, int player, Node parent, Node sibling, int visits) {
+            this.move = move;
+            this.player = player;
+            this.parent = parent;
+            this.sibling = sibling;
+            this.visits = visits;
+        }
+
+
+
+
+        /**
+         * Returns the child reached by a move.
+         *
+         * @param move the encoded move
+         * @return the child node, or null if the move has not been expanded
+         * @pre none
+         * @post the child is returned
+         */
+        Node find(int move) {
+            for (Node node = child; node != null; node = node.sibling) {
+                if (node.move == move) {
+                    return node;
+                }
+            }
+            return null;
+        }
+
+
+
+
+        /**
+         * Links in the child of a move, unless another thread has just done so.
+         *
+         * @param move the encoded move
+         * @param player the player who makes the move
+         * @return the child of the move, with a virtual loss added by the calling thread
+         * @pre none
+         * @post the node has exactly one child for the move
+         */
+        Node expand(int move, int player) {
+            while (true) {
+                Node head = child;
+                Node existing = find(move);
+                if (existing != null) {
+                    VISITS.addAndGet(existing, VIRTUAL_LOSS);
+                    return existing;
+                }
+                Node created = new Node(move, player, this, head, VIRTUAL_LOSS);
+                if (CHILD.compareAndSet(this, head, created)) {
+                    return created;
+                }
+            }
+        }
+
+
+
+
+        /**
+         * Records the result of a playout and removes the virtual loss of its thread.
+         *
+         * @param reward the result for the player of the node, from 0 for a loss to REWARD_SCALE for a win
+         * @pre the calling thread added a virtual loss to the node
+         * @post the statistics include the playout
+         */
+        void backUp(int reward) {
+            if (reward != 0) {
+                REWARD.addAndGet(this, reward);
+            }
+            if (VIRTUAL_LOSS != 1) {
+                VISITS.addAndGet(this, 1 - VIRTUAL_LOSS);
+            }
+        }
+    }
+}
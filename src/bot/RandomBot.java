@@ -0,0 +1,31 @@
+package bot;
+
+import java.util.SplittableRandom;
+
+import engine.GameState;
+
+
+
+/**
+ * The RandomBot class plays a uniformly random legal move. It is the baseline of simulations.
+ */
+public class RandomBot implements Bot {
+    public static final String NAME = "random";
+
+
+
+
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+
+
+
+    @Override
+    public int chooseMove(GameState state, int[] moves, int count, SplittableRandom random) {
+        return moves[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,33 @@
+package bot;
+
+
+
+/**
+ * The SearchMonitor interface watches a bot while it searches on a background thread.
+ * Searching bots poll isCancelled often enough to give up within a few milliseconds, and report
+ * their best move so far with progress. Both methods are called on the search thread.
+ */
+public interface SearchMonitor {
+
+    /**
+     * Returns whether the search should stop. A cancelled bot returns any legal move at once.
+     *
+     * @return true if the result is no longer wanted
+     * @pre none
+     * @post returns whether the search is cancelled
+     */
+    boolean isCancelled();
+
+
+
+
+    /**
+     * Reports the progress of the search.
+     *
+     * @param move the best move found so far
+     * @param work the work done so far: playouts, or nodes searched
+     * @pre move is one of the legal moves of the searched state
+     * @post the progress is recorded
+     */
+    void progress(int move, long work);
+}
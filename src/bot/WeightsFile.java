@@ -0,0 +1,184 @@
+package bot;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+
+
+
+/**
+ * The WeightsFile class reads and writes the weights of a bot as a properties file, one
+ * "name=value" line per feature, so tuned weights can be read and edited by hand.
+ * Writing replaces the file atomically, so a tuning run can be interrupted at any time.
+ *
+ * A tuning run also records its own state in the file, under names starting with RUN_PREFIX, so an
+ * interrupted run resumes where it stopped. Bots that read the weights ignore these entries.
+ */
+public final class WeightsFile {
+    public static final String RUN_PREFIX = "run.";
+
+    /**
+     * Prevents instantiation.
+     *
+     * @pre none
+     * @post none
+     */
+    private WeightsFile() {
+    }
+
+
+
+
+    /**
+     * Reads weights from a file. Features missing from the file keep their default weight, and the
+     * state of a tuning run is ignored.
+     *
+     * @param file the path of the file
+     * @param names the names of the features
+     * @param defaults the default weights, indexed like names
+     * @return the weights
+     * @pre names and defaults have the same length
+     * @post a new array of weights is returned
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalArgumentException if a weight is not a number or a name is unknown
+     */
+    public static double[] load(String file, String[] names, double[] defaults) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the weights file " + file, e);
+        }
+
+        double[] weights = defaults.clone();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(RUN_PREFIX)) {
+                continue;
+            }
+            int index = indexOf(names, key);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown weight " + key + " in " + file);
+            }
+            try {
+                weights[index] = Double.parseDouble(properties.getProperty(key).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight " + key + " in " + file, e);
+            }
+        }
+        return weights;
+    }
+
+
+
+
+    /**
+     * Reads the state of the tuning run recorded in a file.
+     *
+     * @param file the path of the file
+     * @return the entries of the run, without RUN_PREFIX; empty if the file holds no run
+     * @pre none
+     * @post a new Properties is returned
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static Properties loadRun(String file) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the weights file " + file, e);
+        }
+
+        Properties run = new Properties();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(RUN_PREFIX)) {
+                run.setProperty(key.substring(RUN_PREFIX.length()), properties.getProperty(key).trim());
+            }
+        }
+        return run;
+    }
+
+
+
+
+    /**
+     * Writes weights to a file, replacing it atomically.
+     *
+     * @param file the path of the file
+     * @param names the names of the features
+     * @param weights the weights, indexed like names
+     * @param comment a comment written at the top of the file
+     * @pre names and weights have the same length
+     * @post the file holds the weights
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void save(String file, String[] names, double[] weights, String comment) {
+        save(file, names, weights, comment, new Properties());
+    }
+
+
+
+
+    /**
+     * Writes weights and the state of a tuning run to a file, replacing it atomically.
+     *
+     * @param file the path of the file
+     * @param names the names of the features
+     * @param weights the weights, indexed like names
+     * @param comment a comment written at the top of the file
+     * @param run the entries of the run, written after the weights with RUN_PREFIX
+     * @pre names and weights have the same length, run is not null
+     * @post the file holds the weights and the run
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void save(String file, String[] names, double[] weights, String comment, Properties run) {
+        Path path = Paths.get(file).toAbsolutePath();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write("# " + comment + System.lineSeparator());
+                for (int i = 0; i < names.length; i++) {
+                    writer.write(names[i] + "=" + String.format(Locale.ROOT, "%.6f", weights[i]) + System.lineSeparator());
+                }
+                for (String key : new TreeSet<>(run.stringPropertyNames())) {
+                    writer.write(RUN_PREFIX + key + "=" + run.getProperty(key) + System.lineSeparator());
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the weights file " + file, e);
+        }
+    }
+
+
+
+
+    /**
+     * Returns the index of a name.
+     *
+     * @param names the names
+     * @param name the name looked for
+     * @return the index of name, or -1 if it is missing
+     * @pre none
+     * @post the index is returned
+     */
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
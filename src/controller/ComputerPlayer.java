@@ -0,0 +1,437 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+import bot.Bot;
+import bot.SearchMonitor;
+import engine.GameState;
+import engine.Move;
+import engine.MoveGenerator;
+import engine.StateEngine;
+import model.CardId;
+import model.Pawn;
+import model.Player;
+import view.GameView;
+
+/**
+ * The ComputerPlayer class plays the turns of one player with a Bot.
+ * On its turn it captures the game into a GameState on the event dispatch thread and lets the bot
+ * think on a background thread, so the window keeps painting and answering while the bot searches.
+ * The bot plans the whole move there: the card, and the finding decisions its own pawns will face
+ * while the card is resolved. The plan is then played on the event dispatch thread through the
+ * GameController, as the user would play it.
+ *
+ * The bots think on virtual threads when the Java runtime has them, on daemon threads otherwise.
+ * A search is cancelled cooperatively: the bot polls its monitor and gives up within milliseconds,
+ * and the result of a cancelled search is dropped. Its progress is shown on the event dispatch thread,
+ * coalesced so a fast search never floods the event queue.
+ *
+ * While the opponent is to move the bot ponders: it searches the opponent's position from its own
+ * point of view. Every card the opponent plays or discards through the GameController restarts the
+ * pondering from the new position, and the bot carries the matching part of its tree over, up to the
+ * search of its own turn.
+ */
+public class ComputerPlayer {
+    private static final ExecutorService THINKERS = createExecutor();
+
+    private final GameController controller;
+    private final Player player;
+    private final Bot bot;
+    private final SplittableRandom random;
+    private final Deque<Integer> decisions = new ArrayDeque<>();
+    private Thinking thinking;
+    private Thinking pondering;
+    private int move;
+    private boolean playing;
+
+
+
+
+
+    /**
+     * Constructs a ComputerPlayer for the specified player.
+     *
+     * @param controller the game controller
+     * @param player the player the bot plays for
+     * @param bot the bot choosing the moves
+     * @param seed the seed of the bot's random choices
+     * @pre controller, player and bot are not null
+     * @post a ComputerPlayer is created
+     */
+    public ComputerPlayer(GameController controller, Player player, Bot bot, long seed) {
+        this.controller = controller;
+        this.player = player;
+        this.bot = bot;
+        this.random = new SplittableRandom(seed);
+    }
+
+
+
+
+    /**
+     * Creates the executor the bots think on: one virtual thread per search when the runtime
+     * supports them, a pool of daemon threads otherwise.
+     *
+     * @return the executor
+     * @pre none
+     * @post an executor whose threads never keep the application alive is returned
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "computer-player");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+
+
+
+    /**
+     * Returns the player the bot plays for.
+     *
+     * @return the Player instance
+     * @pre none
+     * @post the player is returned
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+
+
+
+    /**
+     * Returns the bot choosing the moves.
+     *
+     * @return the Bot instance
+     * @pre none
+     * @post the bot is returned
+     */
+    public Bot getBot() {
+        return bot;
+    }
+
+
+
+
+    /**
+     * Returns whether the bot is thinking about a move.
+     *
+     * @return true if a search is running and has not been cancelled
+     * @pre called on the event dispatch thread
+     * @post returns whether the bot is thinking
+     */
+    public boolean isThinking() {
+        return thinking != null;
+    }
+
+
+
+
+    /**
+     * Schedules the turn: after the view has shown the start of the turn, the game is captured on
+     * the event dispatch thread and the bot starts thinking on a background thread.
+     *
+     * @pre it is the player's turn
+     * @post the turn is played later on the event dispatch thread, unless it is cancelled
+     */
+    public void scheduleTurn() {
+        SwingUtilities.invokeLater(this::startThinking);
+    }
+
+
+
+
+    /**
+     * Schedules pondering on the opponent's position, after the event being handled.
+     *
+     * @pre it is the opponent's turn
+     * @post the bot ponders later on a background thread, from the position of that moment
+     */
+    public void schedulePondering() {
+        SwingUtilities.invokeLater(this::startPondering);
+    }
+
+
+
+
+    /**
+     * Cancels the search in progress and the pondering, for instance when the game is over or the window
+     * is closed. The bot stops within milliseconds and its move is never played.
+     *
+     * @pre called on the event dispatch thread
+     * @post no move of the current search will be played
+     */
+    public void cancel() {
+        if (thinking != null) {
+            thinking.cancelled = true;
+            thinking = null;
+        }
+        stopPondering();
+    }
+
+
+
+
+    /**
+     * Stops the pondering, if the bot is pondering.
+     *
+     * @pre called on the event dispatch thread
+     * @post the bot stops pondering within milliseconds
+     */
+    private void stopPondering() {
+        if (pondering != null) {
+            pondering.cancelled = true;
+            pondering = null;
+        }
+    }
+
+
+
+
+    /**
+     * Captures the opponent's position and submits the pondering on it, in place of any older one.
+     *
+     * @pre called on the event dispatch thread
+     * @post the bot ponders, unless the game is over or the turn is the player's
+     */
+    private void startPondering() {
+        stopPondering();
+        if (controller.getModel().getEngine().isGameOver() || controller.getCurrentPlayer() == player) {
+            return;
+        }
+        GameState state = GameState.capture(controller.getModel().getEngine());
+        if (state.phase() == GameState.PHASE_ACTION || state.phase() == GameState.PHASE_DRAW) {
+            pondering = new Thinking(state, random.split(), true);
+            THINKERS.execute(pondering);
+        }
+    }
+
+
+
+
+    /**
+     * Captures the game and submits the search of the turn.
+     *
+     * @pre called on the event dispatch thread
+     * @post a search of the turn is running, unless the turn is no longer the player's
+     */
+    private void startThinking() {
+        cancel();
+        if (controller.getModel().getEngine().isGameOver() || controller.getCurrentPlayer() != player) {
+            return;
+        }
+        thinking = new Thinking(GameState.capture(controller.getModel().getEngine()), random.split(), false);
+        THINKERS.execute(thinking);
+    }
+
+
+
+
+    /**
+     * Plays the planned move of a finished search: a card is played or discarded, a card is drawn
+     * and the turn is ended.
+     *
+     * @param search the finished search
+     * @pre called on the event dispatch thread, it is the player's turn and the player holds 8 cards
+     * @post the turn is played, or the game is over; nothing happens if the search was cancelled
+     */
+    private void playTurn(Thinking search) {
+        if (search != thinking || search.cancelled) {
+            return;
+        }
+        thinking = null;
+        move = search.plan[0];
+        decisions.clear();
+        for (int i = 1; i < search.planned; i++) {
+            decisions.add(search.plan[i]);
+        }
+
+        playing = true;
+        try {
+            if (Move.kind(move) == Move.PLAY) {
+                controller.playCard(player, CardId.toCard(Move.face(move)));
+            } else {
+                controller.discardCard(player, CardId.toCard(Move.face(move)));
+            }
+        } finally {
+            playing = false;
+            decisions.clear();
+        }
+        if (controller.getModel().getEngine().isGameOver()) {
+            return;
+        }
+        controller.drawCard(player);
+        if (!controller.getModel().getEngine().isGameOver()) {
+            controller.endTurn();
+        }
+    }
+
+
+
+
+    /**
+     * Shows the progress of a search in the view.
+     *
+     * @param search the search reporting
+     * @pre called on the event dispatch thread
+     * @post the view shows the best move so far, unless the search is over or cancelled
+     */
+    private void showProgress(Thinking search) {
+        search.progressPending.set(false);
+        GameView view = controller.getView();
+        if (search == thinking && view != null) {
+            view.displayComputerThinking(player, Move.toString(search.progressMove), search.progressWork);
+        }
+    }
+
+
+
+
+    /**
+     * Chooses the pawn to place on a new path, as decided by the move being played.
+     *
+     * @return the pawn to place, or null if none is left
+     * @pre none
+     * @post the chosen pawn is returned
+     */
+    public Pawn choosePawn() {
+        if (playing && Move.isTheseus(move)) {
+            return player.getTheseus();
+        }
+        Pawn pawn = player.getArchaeologist();
+        return pawn != null ? pawn : player.getTheseus();
+    }
+
+
+
+
+    /**
+     * Decides whether a pawn of the player opens or destroys the finding it landed on.
+     * During the player's own move the decisions planned by the bot are played in order; a decision
+     * caused by the opponent's Minotaur always takes the finding.
+     *
+     * @return true to take the finding
+     * @pre none
+     * @post returns the decision
+     */
+    public boolean decideFinding() {
+        if (!playing || decisions.isEmpty()) {
+            return true;
+        }
+        return Move.kind(decisions.poll()) == Move.TAKE;
+    }
+
+
+
+
+    /**
+     * The Thinking class is the search of one turn, or the pondering on the opponent's turn, run on
+     * a background thread. It works on its own capture of the game; the search of a turn hands its
+     * plan back to the event dispatch thread.
+     */
+    private final class Thinking implements Runnable, SearchMonitor {
+        private final GameState state;
+        private final SplittableRandom random;
+        private final boolean ponder;
+        private final int[] moves = new int[Move.MAX_MOVES];
+        private final int[] plan = new int[Move.MAX_MOVES];
+        private final AtomicBoolean progressPending = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile int progressMove;
+        private volatile long progressWork;
+        private int planned;
+
+
+
+
+        /**
+         * Constructs the search of a turn or the pondering on the opponent's turn.
+         *
+         * @param state the captured game, owned by the search
+         * @param random the generator of the search
+         * @param ponder true to ponder on the opponent's turn
+         * @pre state waits for the player's card, or for the opponent's card or draw if ponder is true
+         * @post a search is created
+         */
+        Thinking(GameState state, SplittableRandom random, boolean ponder) {
+            this.state = state;
+            this.random = random;
+            this.ponder = ponder;
+        }
+
+
+
+
+        /**
+         * Chooses the card, then follows it on the captured game with a StateEngine and chooses
+         * every finding decision of the player's pawns it leads to; or ponders until cancelled.
+         * The bot searches one position at a time: a search started while a cancelled one is still
+         * unwinding waits for it.
+         *
+         * @pre none
+         * @post the plan is handed to the event dispatch thread, unless the search was cancelled
+         *       or is pondering
+         */
+        @Override
+        public void run() {
+            synchronized (bot) {
+                if (cancelled) {
+                    return;
+                }
+                StateEngine engine = new StateEngine(state);
+                bot.setMonitor(this);
+                try {
+                    if (ponder) {
+                        bot.ponder(state, state.actor() ^ 1, random);
+                        return;
+                    }
+                    do {
+                        int count = MoveGenerator.generate(state, moves);
+                        int next = bot.chooseMove(state, moves, count, random);
+                        plan[planned++] = next;
+                        engine.apply(next);
+                        engine.clear();
+                    } while (!cancelled && state.phase() == GameState.PHASE_DECIDE && state.decider() == state.side());
+                } finally {
+                    bot.setMonitor(null);
+                }
+            }
+            if (!cancelled) {
+                SwingUtilities.invokeLater(() -> playTurn(this));
+            }
+        }
+
+
+
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+
+
+
+        @Override
+        public void progress(int move, long work) {
+            progressMove = move;
+            progressWork = work;
+            if (!ponder && !cancelled && progressPending.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(() -> showProgress(this));
+            }
+        }
+    }
+}
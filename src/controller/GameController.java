@@ -1,5 +1,6 @@
 package controller;
 
+import bot.Bot;
 import model.GameModel;
 import model.Player;
 import model.Card;
@@ -18,6 +19,7 @@ public class GameController {
     private Player currentPlayer;
     private Turn currentTurn;
     private GameController controller;
+    private ComputerPlayer computerPlayer;
 
     /**
      * Sets the controller.
@@ -63,6 +65,54 @@ public class GameController {
 
 
 
+    /**
+     * Lets a bot play the turns of one player. The bot's random choices are seeded from the game seed,
+     * so a game against the computer can be replayed.
+     * 
+     * @param player the player the bot plays for
+     * @param bot the bot choosing the moves
+     * @pre player is one of the players of the model and bot is not null
+     * @post the turns of the player are played by the bot
+     */
+    public void setComputerPlayer(Player player, Bot bot) {
+        this.computerPlayer = new ComputerPlayer(this, player, bot, model.getSeed().getValue());
+    }
+
+
+
+
+
+    /**
+     * Returns the computer player.
+     * 
+     * @return the ComputerPlayer instance, or null if both players are human
+     * @pre none
+     * @post the computer player is returned
+     */
+    public ComputerPlayer getComputerPlayer() {
+        return computerPlayer;
+    }
+
+
+
+
+
+    /**
+     * Stops the computer player's search in progress, when the game is over or the window is closed.
+     * 
+     * @pre called on the event dispatch thread
+     * @post no move of the search in progress will be played
+     */
+    public void stopComputerPlayer() {
+        if (computerPlayer != null) {
+            computerPlayer.cancel();
+        }
+    }
+
+
+
+
+
     /**
      * Sets the current player.
      * 
@@ -108,7 +158,8 @@ public class GameController {
      * Starts the current player's turn.
      * 
      * @pre model and view are not null
-     * @post the current player's turn is started and the view is updated to display the current player
+     * @post the current player's turn is started and the view is updated to display the current player,
+     *       and a computer player is scheduled to play it, or to ponder on the opponent's turn
      */
     public void startTurn() {
         currentPlayer = model.getCurrentPlayer();
@@ -116,6 +167,12 @@ public class GameController {
         currentTurn.startTurn();
         view.displayCurrentPlayer(currentPlayer); 
        // System.out.println("Starting turn for player: " + currentPlayer.getName());
+        if (computerPlayer != null && computerPlayer.getPlayer() == currentPlayer) {
+            computerPlayer.scheduleTurn();
+        } else if (computerPlayer != null) {
+            computerPlayer.cancel();
+            computerPlayer.schedulePondering();
+        }
     }
 
     /**
@@ -143,6 +200,21 @@ public class GameController {
         return currentPlayer;
     }
 
+    /**
+     * Returns whether the view may act for a player. The computer player's seat never takes input:
+     * its moves are played by its search, which runs off the event dispatch thread, so a click on its
+     * cards, the deck or End Turn while it thinks would play its turn for it.
+     * 
+     * @param player the Player instance
+     * @return true if it is the player's turn and the player is not the computer player
+     * @pre called on the event dispatch thread
+     * @post returns whether the input of the view is accepted
+     */
+    public boolean acceptsInput(Player player) {
+        return player != null && player == currentPlayer
+                && (computerPlayer == null || computerPlayer.getPlayer() != player);
+    }
+
     /**
      * Returns the game model.
      * 
@@ -171,11 +243,12 @@ public class GameController {
      * @param player the Player instance
      * @param card the Card instance to play
      * @pre player and card are not null
-     * @post the card is played if the current turn is not null
+     * @post the card is played if the current turn is not null, and a computer opponent ponders on the result
      */
     public void playCard(Player player, Card card) {
         if (currentTurn != null) {
             currentTurn.playCard(card);
+            followOpponent(player);
         }
     }
 
@@ -185,12 +258,30 @@ public class GameController {
      * @param player the Player instance
      * @param card the Card instance to discard
      * @pre player and card are not null
-     * @post the card is discarded if the current turn is not null
+     * @post the card is discarded if the current turn is not null, and a computer opponent ponders on the result
      */
     public void discardCard(Player player, Card card) {
         if (currentTurn != null) {
            // System.out.println("Attempting to discard card: " + card + " for player: " + player.getName());
             currentTurn.discardCard(card);
+            followOpponent(player);
+        }
+    }
+
+
+
+
+    /**
+     * Lets the computer player ponder on the position reached by a card of its opponent. The pondering
+     * on the opponent's draw needs no restart: the search of the position before it already covers it.
+     * 
+     * @param player the player who played or discarded the card
+     * @pre none
+     * @post the computer player ponders on the new position if player is its opponent
+     */
+    private void followOpponent(Player player) {
+        if (computerPlayer != null && computerPlayer.getPlayer() != player) {
+            computerPlayer.schedulePondering();
         }
     }
 
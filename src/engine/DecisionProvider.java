@@ -0,0 +1,71 @@
+package engine;
+
+import model.Card;
+import model.Finding;
+import model.Pawn;
+import model.Player;
+
+
+
+/**
+ * The DecisionProvider interface answers the questions the rules ask a player in the middle of a move.
+ * The Swing client asks the user with dialogs, bots and simulations answer programmatically.
+ */
+public interface DecisionProvider {
+
+
+
+
+    /**
+     * Chooses the pawn to place on a path the player has not entered yet.
+     * 
+     * @param player the player placing the pawn
+     * @param palace the name of the palace of the path
+     * @return one of the player's unplaced pawns, or null to cancel the move
+     * @pre player and palace are not null
+     * @post the chosen pawn is returned, or null if no pawn is chosen
+     */
+    Pawn choosePawn(Player player, String palace);
+
+
+
+
+    /**
+     * Decides whether an archaeologist opens the finding it landed on.
+     * 
+     * @param player the owner of the pawn
+     * @param finding the finding at the pawn's position
+     * @return true to open the finding, false to leave it
+     * @pre player and finding are not null
+     * @post returns the player's decision
+     */
+    boolean confirmOpenFinding(Player player, Finding finding);
+
+
+
+
+    /**
+     * Decides whether a Theseus destroys the finding it landed on.
+     * 
+     * @param player the owner of the pawn
+     * @param finding the finding at the pawn's position
+     * @return true to destroy the finding, false to keep it
+     * @pre player and finding are not null
+     * @post returns the player's decision
+     */
+    boolean confirmDestroyFinding(Player player, Finding finding);
+
+
+
+
+    /**
+     * Confirms that the player wants to discard a card.
+     * 
+     * @param player the player discarding
+     * @param card the card to discard
+     * @return true to discard the card, false to cancel
+     * @pre player and card are not null
+     * @post returns the player's decision
+     */
+    boolean confirmDiscard(Player player, Card card);
+}
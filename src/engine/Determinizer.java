@@ -0,0 +1,146 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+import model.CardId;
+import model.Player;
+
+
+
+/**
+ * The Determinizer class samples a full GameState consistent with what one player can see.
+ * The opponent's hand and the deck order are dealt again from the cards the observer has not seen:
+ * every copy that is not in the observer's hand, on the table or in a discard pile. The opponent's
+ * face-down pawns are assigned a type consistent with the pawns left to them (see Player's archaeologist
+ * and Theseus counts). Everything public is kept: pawns, findings, the highest values played on each
+ * path (Player's highestValueCards), the played and discarded cards and the sizes of the hand and deck.
+ * The highest values need no sampling, as any unseen card may still be held whatever was played.
+ *
+ * A Determinizer reuses its buffers and samples into a caller-owned GameState, so sampling allocates
+ * nothing; each thread keeps its own Determinizer.
+ */
+public final class Determinizer {
+    private final int[] pool = new int[GameState.DECK_SIZE];
+    private final int[] candidates = new int[GameState.PATHS + 1];
+    private final GameState observed = new GameState();
+
+
+
+
+
+    /**
+     * Samples a determinization of a state for an observer.
+     *
+     * @param source the true state
+     * @param observer the index of the observing player
+     * @param target the state receiving the sample, may be source itself
+     * @param random the generator of the sample
+     * @pre source, target and random are not null, 0 &lt;= observer &lt; 2
+     * @post target equals source except for the information hidden from the observer, which is resampled
+     * @throws IllegalStateException if the unseen cards do not fill the opponent's hand and the deck
+     */
+    public void sample(GameState source, int observer, GameState target, SplittableRandom random) {
+        int hidden = source.deckSize() + source.handSize(observer ^ 1);
+        if (target != source) {
+            target.copyFrom(source);
+        }
+        int opponent = observer ^ 1;
+
+        int size = 0;
+        for (int face = 0; face < CardId.COUNT; face++) {
+            int count = target.handCount(opponent, face);
+            if (count > 0) {
+                target.changeHand(opponent, face, -count);
+            }
+            int unseen = CardId.copies(face) - target.handCount(observer, face) - target.playedCount(face)
+                    - target.discardedCount(0, face) - target.discardedCount(1, face);
+            for (int i = 0; i < unseen; i++) {
+                pool[size++] = face;
+            }
+        }
+        if (size != hidden) {
+            throw new IllegalStateException("The state has " + size + " unseen cards for " + hidden + " hidden places.");
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int card = pool[i];
+            pool[i] = pool[j];
+            pool[j] = card;
+        }
+
+        int deckSize = target.deckSize();
+        for (int i = 0; i < deckSize; i++) {
+            target.setDeckCard(i, pool[i]);
+        }
+        for (int i = deckSize; i < size; i++) {
+            target.changeHand(opponent, pool[i], 1);
+        }
+
+        sampleHiddenPawns(target, opponent, random);
+    }
+
+
+
+
+    /**
+     * Samples a determinization of a game of the object model for one of its players.
+     * The game is captured into a buffer of the Determinizer, so only the target is written.
+     *
+     * @param engine the rules engine of the game
+     * @param observer the observing player
+     * @param target the state receiving the sample
+     * @param random the generator of the sample
+     * @pre no finding decision is pending, observer is a player of the game, target and random are not null
+     * @post target describes the game with the information hidden from the observer resampled
+     */
+    public void sample(RulesEngine engine, Player observer, GameState target, SplittableRandom random) {
+        GameState.capture(engine, observed);
+        sample(observed, engine.getPlayers().indexOf(observer), target, random);
+    }
+
+
+
+
+    /**
+     * Assigns a type to each face-down pawn of a player. The Theseus is equally likely to be any pawn
+     * not known to be an archaeologist: a face-down pawn on a path, or one of the pawns not yet placed.
+     *
+     * @param state the state to change
+     * @param player the owner of the pawns
+     * @param random the generator of the sample
+     * @pre state and random are not null
+     * @post every face-down pawn of the player has a type, with at most one Theseus in total
+     */
+    private void sampleHiddenPawns(GameState state, int player, SplittableRandom random) {
+        int hidden = 0;
+        int placed = 0;
+        boolean theseusKnown = false;
+        for (int path = 0; path < GameState.PATHS; path++) {
+            int slot = state.pawnSlot(player, path);
+            if (GameState.isPlaced(slot)) {
+                placed++;
+                if (GameState.isHidden(slot)) {
+                    candidates[hidden++] = path;
+                } else if (GameState.isTheseus(slot)) {
+                    theseusKnown = true;
+                }
+            }
+        }
+        if (hidden == 0) {
+            return;
+        }
+
+        int theseus = -1;
+        if (!theseusKnown) {
+            int choice = random.nextInt(hidden + GameState.PATHS - placed);
+            if (choice < hidden) {
+                theseus = candidates[choice];
+            }
+        }
+        for (int i = 0; i < hidden; i++) {
+            int path = candidates[i];
+            int slot = state.pawnSlot(player, path) & ~GameState.THESEUS;
+            state.setPawnSlot(player, path, path == theseus ? slot | GameState.THESEUS : slot);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package engine;
+
+import model.Card;
+import model.Finding;
+import model.Pawn;
+import model.Player;
+
+
+
+/**
+ * The GameAdapter class is an empty implementation of GameListener.
+ * Headless callers extend it and override only the notifications they care about.
+ */
+public class GameAdapter implements GameListener {
+
+    @Override
+    public void invalidMove(Player player, String message) {
+    }
+
+    @Override
+    public void notice(Player player, String title, String message) {
+    }
+
+    @Override
+    public void pawnPlaced(Player player, Pawn pawn) {
+    }
+
+    @Override
+    public void pawnMoved(Player player, Pawn pawn) {
+    }
+
+    @Override
+    public void pawnReleased(Player player, Pawn pawn) {
+    }
+
+    @Override
+    public void palaceReached(Player player, String palace) {
+    }
+
+    @Override
+    public void findingClaimed(Player player, Finding finding) {
+    }
+
+    @Override
+    public void findingDestroyed(Player player, Finding finding) {
+    }
+
+    @Override
+    public void scoreChanged(Player player) {
+    }
+
+    @Override
+    public void cardPlayed(Player player, Card card) {
+    }
+
+    @Override
+    public void cardDiscarded(Player player, Card card) {
+    }
+
+    @Override
+    public void cardDrawn(Player player, Card card) {
+    }
+
+    @Override
+    public void deckEmpty() {
+    }
+
+    @Override
+    public void gameOver(Player winner) {
+    }
+}
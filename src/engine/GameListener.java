@@ -0,0 +1,194 @@
+package engine;
+
+import model.Card;
+import model.Finding;
+import model.Pawn;
+import model.Player;
+
+
+
+/**
+ * The GameListener interface receives the notifications raised by the RulesEngine while it applies the rules.
+ * A Swing client forwards them to the view, a headless simulation may simply ignore them.
+ */
+public interface GameListener {
+
+
+
+
+    /**
+     * Called when a player attempts a move that the rules do not allow.
+     * 
+     * @param player the player who attempted the move
+     * @param message the reason the move was rejected
+     * @pre player and message are not null
+     * @post the listener is notified of the invalid move
+     */
+    void invalidMove(Player player, String message);
+
+
+
+
+    /**
+     * Called when the rules produce an informational message for a player.
+     * 
+     * @param player the player the message concerns
+     * @param title a short title for the message
+     * @param message the message text
+     * @pre player, title and message are not null
+     * @post the listener is notified of the message
+     */
+    void notice(Player player, String title, String message);
+
+
+
+
+    /**
+     * Called when a pawn is placed at the start of a path.
+     * 
+     * @param player the owner of the pawn
+     * @param pawn the placed pawn
+     * @pre player and pawn are not null
+     * @post the listener is notified of the placement
+     */
+    void pawnPlaced(Player player, Pawn pawn);
+
+
+
+
+    /**
+     * Called when a pawn changes position or appearance (revealed, immobilized).
+     * 
+     * @param player the owner of the pawn
+     * @param pawn the pawn that changed
+     * @pre player and pawn are not null
+     * @post the listener is notified of the change
+     */
+    void pawnMoved(Player player, Pawn pawn);
+
+
+
+
+    /**
+     * Called when an immobilized pawn becomes free to move again.
+     * 
+     * @param player the owner of the pawn
+     * @param pawn the released pawn
+     * @pre player and pawn are not null
+     * @post the listener is notified of the release
+     */
+    void pawnReleased(Player player, Pawn pawn);
+
+
+
+
+    /**
+     * Called when a pawn reaches the palace at the end of its path.
+     * 
+     * @param player the owner of the pawn
+     * @param palace the name of the palace reached
+     * @pre player and palace are not null
+     * @post the listener is notified that the palace was reached
+     */
+    void palaceReached(Player player, String palace);
+
+
+
+
+    /**
+     * Called when a player opens a finding (photographs a fresco or claims a rare finding or statue).
+     * 
+     * @param player the player who opened the finding
+     * @param finding the finding
+     * @pre player and finding are not null
+     * @post the listener is notified of the claimed finding
+     */
+    void findingClaimed(Player player, Finding finding);
+
+
+
+
+    /**
+     * Called when a Theseus pawn destroys a finding.
+     * 
+     * @param player the owner of the Theseus pawn
+     * @param finding the destroyed finding
+     * @pre player and finding are not null
+     * @post the listener is notified of the destroyed finding
+     */
+    void findingDestroyed(Player player, Finding finding);
+
+
+
+
+    /**
+     * Called when the score of a player may have changed.
+     * 
+     * @param player the player whose score changed
+     * @pre player is not null
+     * @post the listener is notified of the score change
+     */
+    void scoreChanged(Player player);
+
+
+
+
+    /**
+     * Called after a card has been played successfully and removed from the hand.
+     * 
+     * @param player the player who played the card
+     * @param card the played card
+     * @pre player and card are not null
+     * @post the listener is notified of the played card
+     */
+    void cardPlayed(Player player, Card card);
+
+
+
+
+    /**
+     * Called after a card has been discarded.
+     * 
+     * @param player the player who discarded the card
+     * @param card the discarded card
+     * @pre player and card are not null
+     * @post the listener is notified of the discarded card
+     */
+    void cardDiscarded(Player player, Card card);
+
+
+
+
+    /**
+     * Called after a card has been drawn from the deck.
+     * 
+     * @param player the player who drew the card
+     * @param card the drawn card
+     * @pre player and card are not null
+     * @post the listener is notified of the drawn card
+     */
+    void cardDrawn(Player player, Card card);
+
+
+
+
+    /**
+     * Called when a player tries to draw from an empty deck.
+     * 
+     * @pre none
+     * @post the listener is notified that the deck is empty
+     */
+    void deckEmpty();
+
+
+
+
+    /**
+     * Called once when the game ends. The final scores are already stored in the players.
+     * 
+     * @param winner the winning player, or null if the game is a draw
+     * @pre none
+     * @post the listener is notified that the game is over
+     */
+    void gameOver(Player winner);
+}
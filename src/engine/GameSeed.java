@@ -0,0 +1,146 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+
+
+/**
+ * The GameSeed class identifies one reproducible game setup.
+ * Every random choice of a game (finding layout, deck order) is drawn from a SplittableRandom
+ * created from the seed, so the same seed always gives the same game.
+ */
+public final class GameSeed {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private final long value;
+
+
+
+
+
+    /**
+     * Constructs a GameSeed with the specified value.
+     *
+     * @param value the seed value
+     * @pre none
+     * @post a GameSeed is created with the specified value
+     */
+    public GameSeed(long value) {
+        this.value = value;
+    }
+
+
+
+
+    /**
+     * Returns a new seed picked at random.
+     *
+     * @return a new GameSeed with a random value
+     * @pre none
+     * @post a seed that differs between calls with high probability is returned
+     */
+    public static GameSeed random() {
+        return new GameSeed(new SplittableRandom().nextLong());
+    }
+
+
+
+
+    /**
+     * Returns the seed of one game of a batch. The seed depends only on the master seed and
+     * the index of the game, so a batch played by many threads is reproducible whatever thread plays which game.
+     *
+     * @param masterSeed the seed of the whole batch
+     * @param gameIndex the index of the game in the batch
+     * @return the GameSeed of the game
+     * @pre gameIndex is not negative
+     * @post the seed of the game is returned
+     */
+    public static GameSeed forGame(long masterSeed, long gameIndex) {
+        return new GameSeed(mix64(masterSeed + (gameIndex + 1) * GOLDEN_GAMMA));
+    }
+
+
+
+
+    /**
+     * Parses a seed written as a decimal number.
+     *
+     * @param text the text of the seed
+     * @return the parsed GameSeed
+     * @pre text is not null
+     * @post the seed is returned, or a NumberFormatException is thrown
+     */
+    public static GameSeed parse(String text) {
+        return new GameSeed(Long.parseLong(text.trim()));
+    }
+
+
+
+
+    /**
+     * Returns the value of the seed.
+     *
+     * @return the seed value
+     * @pre none
+     * @post the seed value is returned
+     */
+    public long getValue() {
+        return value;
+    }
+
+
+
+
+    /**
+     * Creates the generator of the game. Each call returns a new generator that produces the same sequence,
+     * and the generator can be split into independent streams for parallel work.
+     *
+     * @return a new SplittableRandom seeded with this seed
+     * @pre none
+     * @post a new generator is returned
+     */
+    public SplittableRandom newGenerator() {
+        return new SplittableRandom(value);
+    }
+
+
+
+
+    /**
+     * Mixes the bits of a 64-bit value (the finalizer of SplitMix64).
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     * @pre none
+     * @post a well distributed value is returned
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+
+
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GameSeed && ((GameSeed) other).value == value;
+    }
+
+
+
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+
+
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
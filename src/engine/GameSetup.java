@@ -0,0 +1,152 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import model.Board;
+import model.CardId;
+import model.Deck;
+import model.Finding;
+import model.FindingPosition;
+import model.Fresco;
+import model.Path;
+import model.RareFinding;
+import model.SnakeGoddess;
+
+
+
+/**
+ * The GameSetup class prepares the board and the deck of a new game.
+ * All random choices are taken from the generator passed in, in a fixed order,
+ * so a seeded generator always produces the same layout and deck order.
+ */
+public final class GameSetup {
+    private static final int[] FINDING_POSITIONS = {1, 3, 5, 7, 8};
+    private static final String[] RARE_FINDINGS = {"Minoas Ring (Knossos)", "Phaistos Disc", "Malia Jewel", "Zakros Rhyton"};
+    private static final int FRESCO_COUNT = 6;
+    private static final int STATUE_COUNT = 10;
+
+
+
+
+
+    private GameSetup() {
+    }
+
+
+
+
+    /**
+     * Sets up a new game: places the findings on the board and shuffles the deck.
+     *
+     * @param board the Board instance
+     * @param deck the Deck instance
+     * @param random the generator of the game
+     * @pre board has no findings, deck is full, random is not null
+     * @post the findings are placed and the deck is shuffled
+     */
+    public static void setUp(Board board, Deck deck, SplittableRandom random) {
+        placeFindings(board, random);
+        deck.shuffle(random);
+    }
+
+
+
+
+    /**
+     * Deals a new game directly into a GameState: the same findings, deck order and hands
+     * that setUp followed by RulesEngine.dealInitialCards produce from the same generator.
+     *
+     * @param state the state to overwrite
+     * @param random the generator of the game
+     * @pre state and random are not null
+     * @post state holds a freshly dealt game with player 0 to move
+     */
+    public static void deal(GameState state, SplittableRandom random) {
+        state.clear();
+        for (int path = 0; path < GameState.PATHS; path++) {
+            int position = FINDING_POSITIONS[random.nextInt(FINDING_POSITIONS.length)];
+            state.setFindingKind(GameState.findingSlot(path, position), GameState.FINDING_RARE + path);
+        }
+
+        byte[] otherFindings = new byte[FRESCO_COUNT + STATUE_COUNT];
+        for (int i = 0; i < otherFindings.length; i++) {
+            otherFindings[i] = (byte) (i < FRESCO_COUNT ? GameState.FINDING_FRESCO + i : GameState.FINDING_STATUE);
+        }
+        for (int i = otherFindings.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte finding = otherFindings[i];
+            otherFindings[i] = otherFindings[j];
+            otherFindings[j] = finding;
+        }
+        int next = 0;
+        for (int slot = 0; slot < GameState.FINDING_SLOTS; slot++) {
+            if (state.findingKind(slot) == GameState.FINDING_NONE) {
+                state.setFindingKind(slot, otherFindings[next++]);
+            }
+            state.setFindingAvailable(slot, true);
+        }
+
+        int size = 0;
+        for (int id = 0; id < CardId.COUNT; id++) {
+            for (int copy = 0; copy < CardId.copies(id); copy++) {
+                state.setDeckCard(size++, id);
+            }
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int card = state.deckCard(i);
+            state.setDeckCard(i, state.deckCard(j));
+            state.setDeckCard(j, card);
+        }
+        for (int player = 0; player < GameState.PLAYERS; player++) {
+            for (int i = 0; i < GameState.HAND_SIZE; i++) {
+                state.changeHand(player, state.deckCard(--size), 1);
+            }
+        }
+        state.setDeckSize(size);
+    }
+
+
+
+
+    /**
+     * Places the findings on the board. Each rare finding goes to a random finding position of its own path,
+     * then the frescoes and statues are shuffled and fill the remaining finding positions.
+     *
+     * @param board the Board instance
+     * @param random the generator of the game
+     * @pre board has no findings, random is not null
+     * @post every finding position of the board holds a finding
+     */
+    public static void placeFindings(Board board, SplittableRandom random) {
+        Path[] paths = board.getPaths();
+        for (int i = 0; i < paths.length; i++) {
+            int position = FINDING_POSITIONS[random.nextInt(FINDING_POSITIONS.length)];
+            ((FindingPosition) paths[i].getPositions()[position]).setFinding(new RareFinding(RARE_FINDINGS[i]));
+        }
+
+        List<Finding> otherFindings = new ArrayList<>();
+        for (int i = 1; i <= FRESCO_COUNT; i++) {
+            otherFindings.add(new Fresco("Fresco " + i));
+        }
+        for (int i = 0; i < STATUE_COUNT; i++) {
+            otherFindings.add(new SnakeGoddess("Snake Goddess Statue", 5));
+        }
+        for (int i = otherFindings.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            otherFindings.set(i, otherFindings.set(j, otherFindings.get(i)));
+        }
+
+        int next = 0;
+        for (Path path : paths) {
+            for (int position : FINDING_POSITIONS) {
+                FindingPosition findingPosition = (FindingPosition) path.getPositions()[position];
+                if (!findingPosition.isFindingAvailable()) {
+                    findingPosition.setFinding(otherFindings.get(next++));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,1259 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.Board;
+import model.Card;
+import model.CardId;
+import model.Deck;
+import model.Finding;
+import model.FindingPosition;
+import model.Fresco;
+import model.Path;
+import model.Pawn;
+import model.Player;
+import model.Position;
+import model.RareFinding;
+import model.SnakeGoddess;
+
+
+
+/**
+ * The GameState class is a compact encoding of a whole game: five long words and one byte array.
+ * Copying, comparing and hashing a state are plain primitive operations, which is what
+ * search and mass simulation need; the object model (Player, Pawn, Deck...) stays for the Swing client.
+ *
+ * Pawns are stored per player and path in 16-bit slots, since a player has at most one pawn per path:
+ * bit 0 placed, bits 1-4 position, bit 5 Theseus, bit 6 hidden, bits 7-8 immobilized turns,
+ * bits 9-10 findings destroyed. The byte array holds the finding layout, the hands and the
+ * played cards as counts per CardId, the discarded cards and the deck order. Only the live parts
+ * take part in equals and hashCode: the layout of the findings still on the board, and the deck
+ * below its top (drawn cards stay above it).
+ */
+public final class GameState {
+    public static final int PLAYERS = 2;
+    public static final int PATHS = 4;
+    public static final int PATH_LENGTH = 9;
+    public static final int CHECKPOINT = Path.CHECKPOINT_POSITION;
+    public static final int PALACE = Path.PALACE_POSITION;
+    public static final int FINDING_SLOTS = 20;
+    public static final int HAND_SIZE = 8;
+    public static final int DECK_SIZE = 100;
+    public static final int CARD_FACES = CardId.COUNT;
+    public static final int FRESCOES = 6;
+    public static final int STATUE_LIMIT = 6;
+
+    public static final int PHASE_ACTION = 0;
+    public static final int PHASE_DRAW = 1;
+    public static final int PHASE_DECIDE = 2;
+    public static final int PHASE_OVER = 3;
+
+    public static final int END_NONE = 0;
+    public static final int END_DECK_EXHAUSTED = 1;
+    public static final int END_CHECKPOINT = 2;
+
+    public static final int FINDING_NONE = 0;
+    public static final int FINDING_RARE = 1;
+    public static final int FINDING_FRESCO = 5;
+    public static final int FINDING_STATUE = 11;
+
+    private static final int[] FINDING_POSITIONS = {1, 3, 5, 7, 8};
+    private static final String[] RARE_FINDINGS = {"Minoas Ring (Knossos)", "Phaistos Disc", "Malia Jewel", "Zakros Rhyton"};
+    private static final int[] SLOT_OF_POSITION = {-1, 0, -1, 1, -1, 2, -1, 3, 4};
+    private static final int[] POSITION_SCORES = new int[PATH_LENGTH];
+    private static final int[] RARE_POINTS = new int[PATHS];
+    private static final int[] FRESCO_POINTS = new int[FRESCOES];
+    private static final int[] STATUE_SCORES = new int[STATUE_LIMIT + 1];
+
+    static {
+        for (int position = 0; position < PATH_LENGTH; position++) {
+            POSITION_SCORES[position] = Path.getPositionScore(position);
+        }
+        for (int palace = 0; palace < PATHS; palace++) {
+            RARE_POINTS[palace] = RareFinding.getRareFindings().get(RARE_FINDINGS[palace]);
+        }
+        for (int fresco = 0; fresco < FRESCOES; fresco++) {
+            FRESCO_POINTS[fresco] = new Fresco("Fresco " + (fresco + 1)).getValue();
+        }
+        for (int count = 0; count <= STATUE_LIMIT; count++) {
+            STATUE_SCORES[count] = Player.getStatueScore(count);
+        }
+    }
+
+    static final int PLACED = 1;
+    static final int POSITION_SHIFT = 1;
+    static final int THESEUS = 1 << 5;
+    static final int HIDDEN = 1 << 6;
+    static final int IMMOBILIZED_SHIFT = 7;
+    static final int DESTROYED_SHIFT = 9;
+
+    private static final int SIDE_SHIFT = 0;
+    private static final int PHASE_SHIFT = 1;
+    private static final int PENDING_PATH_SHIFT = 3;
+    private static final int PENDING_POSITION_SHIFT = 5;
+    private static final int DECIDER_SHIFT = 9;
+    private static final int PENDING_STEPS_SHIFT = 10;
+    private static final int DECK_SHIFT = 12;
+    private static final int HAND_SHIFT = 19;
+    private static final int END_SHIFT = 27;
+
+    private static final long KEY_META_MASK = (((1L << HAND_SHIFT) - 1) & ~1L) | (3L << END_SHIFT);
+
+    private static final int RARE_SHIFT = 32;
+    private static final int STATUE_SHIFT = 40;
+    private static final int FRESCO_SHIFT = 48;
+
+    static final int LAYOUT = 0;
+    static final int HANDS = LAYOUT + FINDING_SLOTS;
+    static final int PLAYED = HANDS + PLAYERS * CARD_FACES;
+    static final int DISCARDED = PLAYED + CARD_FACES;
+    static final int DECK = DISCARDED + PLAYERS * CARD_FACES;
+    static final int DATA_LENGTH = DECK + DECK_SIZE;
+
+    long pawns0;
+    long pawns1;
+    long progress;
+    long board;
+    long meta;
+    long hash;
+    final byte[] data;
+
+
+
+
+
+    /**
+     * Constructs an empty GameState: no pawns, no findings, empty hands and an empty deck.
+     *
+     * @pre none
+     * @post an empty GameState is created with player 0 to move
+     */
+    public GameState() {
+        data = new byte[DATA_LENGTH];
+    }
+
+
+
+
+    /**
+     * Returns a copy of this state.
+     *
+     * @return a new GameState equal to this one
+     * @pre none
+     * @post an independent copy is returned
+     */
+    public GameState copy() {
+        GameState copy = new GameState();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+
+
+
+    /**
+     * Overwrites this state with the specified state, without allocating.
+     *
+     * @param other the state to copy
+     * @pre other is not null
+     * @post this state equals other
+     */
+    public void copyFrom(GameState other) {
+        pawns0 = other.pawns0;
+        pawns1 = other.pawns1;
+        progress = other.progress;
+        board = other.board;
+        meta = other.meta;
+        hash = other.hash;
+        System.arraycopy(other.data, 0, data, 0, DATA_LENGTH);
+    }
+
+
+
+
+    /**
+     * Empties this state, without allocating.
+     *
+     * @pre none
+     * @post this state equals a new GameState
+     */
+    void clear() {
+        pawns0 = 0;
+        pawns1 = 0;
+        progress = 0;
+        board = 0;
+        meta = 0;
+        hash = 0;
+        Arrays.fill(data, (byte) 0);
+    }
+
+
+
+
+    /**
+     * Returns the 16-bit slot of the pawn of a player on a path.
+     *
+     * @param player the player index
+     * @param path the path index
+     * @return the slot bits, 0 if the player has no pawn on the path
+     * @pre 0 &lt;= player &lt; 2, 0 &lt;= path &lt; 4
+     * @post the slot is returned
+     */
+    public int pawnSlot(int player, int path) {
+        long word = player == 0 ? pawns0 : pawns1;
+        return (int) (word >>> (path << 4)) & 0xFFFF;
+    }
+
+
+
+
+    /**
+     * Replaces the 16-bit slot of the pawn of a player on a path.
+     *
+     * @param player the player index
+     * @param path the path index
+     * @param slot the new slot bits
+     * @pre 0 &lt;= player &lt; 2, 0 &lt;= path &lt; 4
+     * @post the slot is replaced
+     */
+    void setPawnSlot(int player, int path, int slot) {
+        int shift = path << 4;
+        long mask = 0xFFFFL << shift;
+        long bits = ((long) slot & 0xFFFF) << shift;
+        hash ^= Zobrist.slot(player, path, pawnSlot(player, path)) ^ Zobrist.slot(player, path, slot);
+        if (player == 0) {
+            pawns0 = (pawns0 & ~mask) | bits;
+        } else {
+            pawns1 = (pawns1 & ~mask) | bits;
+        }
+    }
+
+
+
+
+    /**
+     * Builds the slot bits of a pawn.
+     *
+     * @param position the position of the pawn on its path
+     * @param theseus true for a Theseus, false for an archaeologist
+     * @param hidden true if the type of the pawn is not revealed
+     * @param immobilizedTurns the remaining immobilized turns
+     * @param findingsDestroyed the findings destroyed by the pawn
+     * @return the slot bits
+     * @pre 0 &lt;= position &lt;= 8, 0 &lt;= immobilizedTurns &lt;= 3, 0 &lt;= findingsDestroyed &lt;= 3
+     * @post the slot bits of a placed pawn are returned
+     */
+    public static int slot(int position, boolean theseus, boolean hidden, int immobilizedTurns, int findingsDestroyed) {
+        return PLACED | (position << POSITION_SHIFT) | (theseus ? THESEUS : 0) | (hidden ? HIDDEN : 0)
+                | (immobilizedTurns << IMMOBILIZED_SHIFT) | (findingsDestroyed << DESTROYED_SHIFT);
+    }
+
+
+
+
+    /**
+     * Returns whether a slot holds a pawn.
+     *
+     * @param slot the slot bits
+     * @return true if a pawn is placed
+     * @pre none
+     * @post returns true if the placed bit is set
+     */
+    public static boolean isPlaced(int slot) {
+        return (slot & PLACED) != 0;
+    }
+
+
+
+
+    /**
+     * Returns the position of the pawn of a slot.
+     *
+     * @param slot the slot bits
+     * @return the position on the path
+     * @pre slot holds a pawn
+     * @post the position is returned
+     */
+    public static int position(int slot) {
+        return (slot >>> POSITION_SHIFT) & 0xF;
+    }
+
+
+
+
+    /**
+     * Returns whether the pawn of a slot is a Theseus.
+     *
+     * @param slot the slot bits
+     * @return true for a Theseus
+     * @pre slot holds a pawn
+     * @post returns true if the Theseus bit is set
+     */
+    public static boolean isTheseus(int slot) {
+        return (slot & THESEUS) != 0;
+    }
+
+
+
+
+    /**
+     * Returns whether the type of the pawn of a slot is hidden from the opponent.
+     *
+     * @param slot the slot bits
+     * @return true if the pawn is face down
+     * @pre slot holds a pawn
+     * @post returns true if the hidden bit is set
+     */
+    public static boolean isHidden(int slot) {
+        return (slot & HIDDEN) != 0;
+    }
+
+
+
+
+    /**
+     * Returns the remaining immobilized turns of the pawn of a slot.
+     *
+     * @param slot the slot bits
+     * @return the remaining immobilized turns, 0 if the pawn can move
+     * @pre slot holds a pawn
+     * @post the immobilized turns are returned
+     */
+    public static int immobilizedTurns(int slot) {
+        return (slot >>> IMMOBILIZED_SHIFT) & 3;
+    }
+
+
+
+
+    /**
+     * Returns the findings destroyed by the pawn of a slot.
+     *
+     * @param slot the slot bits
+     * @return the number of destroyed findings
+     * @pre slot holds a pawn
+     * @post the number of destroyed findings is returned
+     */
+    public static int findingsDestroyed(int slot) {
+        return (slot >>> DESTROYED_SHIFT) & 3;
+    }
+
+
+
+
+    /**
+     * Returns the highest number card value a player has played on a palace.
+     *
+     * @param player the player index
+     * @param palace the palace index
+     * @return the highest value played, 0 if none
+     * @pre 0 &lt;= player &lt; 2, 0 &lt;= palace &lt; 4
+     * @post the highest value is returned
+     */
+    public int highestValue(int player, int palace) {
+        return (int) (progress >>> (((player << 2) + palace) << 2)) & 0xF;
+    }
+
+
+
+
+    /**
+     * Sets the highest number card value a player has played on a palace.
+     *
+     * @param player the player index
+     * @param palace the palace index
+     * @param value the new highest value
+     * @pre 0 &lt;= value &lt;= 10
+     * @post the highest value is updated
+     */
+    void setHighestValue(int player, int palace, int value) {
+        int shift = ((player << 2) + palace) << 2;
+        hash ^= Zobrist.highest(player, palace, highestValue(player, palace)) ^ Zobrist.highest(player, palace, value);
+        progress = (progress & ~(0xFL << shift)) | ((long) value << shift);
+    }
+
+
+
+
+    /**
+     * Returns the rare findings collected by a player as a bit mask indexed by palace.
+     *
+     * @param player the player index
+     * @return the mask of collected rare findings
+     * @pre 0 &lt;= player &lt; 2
+     * @post the mask is returned
+     */
+    public int rareMask(int player) {
+        return (int) (progress >>> (RARE_SHIFT + (player << 2))) & 0xF;
+    }
+
+
+
+
+    /**
+     * Marks a rare finding as collected by a player.
+     *
+     * @param player the player index
+     * @param palace the palace of the rare finding
+     * @pre 0 &lt;= player &lt; 2, 0 &lt;= palace &lt; 4
+     * @post the rare finding is in the player's mask
+     */
+    void addRare(int player, int palace) {
+        progress |= 1L << (RARE_SHIFT + (player << 2) + palace);
+    }
+
+
+
+
+    /**
+     * Returns the number of statues collected by a player.
+     *
+     * @param player the player index
+     * @return the number of statues
+     * @pre 0 &lt;= player &lt; 2
+     * @post the number of statues is returned
+     */
+    public int statueCount(int player) {
+        return (int) (progress >>> (STATUE_SHIFT + (player << 2))) & 0xF;
+    }
+
+
+
+
+    /**
+     * Adds a statue to the collection of a player.
+     *
+     * @param player the player index
+     * @pre the player has fewer than 15 statues
+     * @post the statue count is incremented
+     */
+    void addStatue(int player) {
+        progress += 1L << (STATUE_SHIFT + (player << 2));
+    }
+
+
+
+
+    /**
+     * Returns the frescoes photographed by a player as a bit mask indexed by fresco.
+     *
+     * @param player the player index
+     * @return the mask of photographed frescoes
+     * @pre 0 &lt;= player &lt; 2
+     * @post the mask is returned
+     */
+    public int frescoMask(int player) {
+        return (int) (progress >>> (FRESCO_SHIFT + player * 6)) & 0x3F;
+    }
+
+
+
+
+    /**
+     * Marks a fresco as photographed by a player.
+     *
+     * @param player the player index
+     * @param fresco the fresco index (0 to 5)
+     * @pre 0 &lt;= player &lt; 2, 0 &lt;= fresco &lt; 6
+     * @post the fresco is in the player's mask
+     */
+    void addFresco(int player, int fresco) {
+        progress |= 1L << (FRESCO_SHIFT + player * 6 + fresco);
+    }
+
+
+
+
+    /**
+     * Returns the finding slot of a position of a path.
+     *
+     * @param path the path index
+     * @param position the position on the path
+     * @return the slot index, or -1 if the position holds no finding
+     * @pre 0 &lt;= path &lt; 4, 0 &lt;= position &lt;= 8
+     * @post the finding slot is returned
+     */
+    public static int findingSlot(int path, int position) {
+        int index = SLOT_OF_POSITION[position];
+        return index < 0 ? -1 : path * FINDING_POSITIONS.length + index;
+    }
+
+
+
+
+    /**
+     * Returns whether a finding is still on the board at a slot.
+     *
+     * @param slot the finding slot
+     * @return true if the finding is available
+     * @pre 0 &lt;= slot &lt; 20
+     * @post returns true if the finding is on the board
+     */
+    public boolean isFindingAvailable(int slot) {
+        return (board >>> slot & 1L) != 0;
+    }
+
+
+
+
+    /**
+     * Sets whether a finding is on the board at a slot.
+     *
+     * @param slot the finding slot
+     * @param available true if the finding is on the board
+     * @pre 0 &lt;= slot &lt; 20
+     * @post the availability of the slot is updated
+     */
+    void setFindingAvailable(int slot, boolean available) {
+        if (available != isFindingAvailable(slot)) {
+            hash ^= Zobrist.finding(slot);
+        }
+        if (available) {
+            board |= 1L << slot;
+        } else {
+            board &= ~(1L << slot);
+        }
+    }
+
+
+
+
+    /**
+     * Returns the mask of the findings still on the board.
+     *
+     * @return a 20-bit mask indexed by finding slot
+     * @pre none
+     * @post the mask is returned
+     */
+    public long findingMask() {
+        return board;
+    }
+
+
+
+
+    /**
+     * Returns the kind of finding laid out at a slot, whether or not it is still on the board.
+     *
+     * @param slot the finding slot
+     * @return FINDING_RARE + palace, FINDING_FRESCO + fresco, or FINDING_STATUE
+     * @pre 0 &lt;= slot &lt; 20
+     * @post the kind of the finding is returned
+     */
+    public int findingKind(int slot) {
+        return data[LAYOUT + slot];
+    }
+
+
+
+
+    /**
+     * Sets the kind of finding laid out at a slot.
+     *
+     * @param slot the finding slot
+     * @param kind the kind of finding
+     * @pre 0 &lt;= slot &lt; 20
+     * @post the layout is updated
+     */
+    void setFindingKind(int slot, int kind) {
+        data[LAYOUT + slot] = (byte) kind;
+    }
+
+
+
+
+    /**
+     * Returns how many cards of a face a player holds.
+     *
+     * @param player the player index
+     * @param face the card face
+     * @return the number of cards of the face in the hand
+     * @pre 0 &lt;= player &lt; 2, 0 &lt;= face &lt; 48
+     * @post the count is returned
+     */
+    public int handCount(int player, int face) {
+        return data[HANDS + player * CARD_FACES + face];
+    }
+
+
+
+
+    /**
+     * Returns how many cards a player holds.
+     *
+     * @param player the player index
+     * @return the size of the hand
+     * @pre 0 &lt;= player &lt; 2
+     * @post the size of the hand is returned
+     */
+    public int handSize(int player) {
+        return (int) (meta >>> (HAND_SHIFT + (player << 2))) & 0xF;
+    }
+
+
+
+
+    /**
+     * Adds a card to or removes a card from the hand of a player.
+     *
+     * @param player the player index
+     * @param face the card face
+     * @param delta +1 to add a card, -1 to remove one
+     * @pre the resulting count is not negative
+     * @post the hand count and the hand size are updated
+     */
+    void changeHand(int player, int face, int delta) {
+        int count = data[HANDS + player * CARD_FACES + face];
+        hash ^= Zobrist.hand(player, face, count) ^ Zobrist.hand(player, face, count + delta);
+        data[HANDS + player * CARD_FACES + face] += delta;
+        meta += (long) delta << (HAND_SHIFT + (player << 2));
+    }
+
+
+
+
+    /**
+     * Returns how many cards of a face have been played by both players.
+     *
+     * @param face the card face
+     * @return the number of played cards of the face
+     * @pre 0 &lt;= face &lt; 48
+     * @post the count is returned
+     */
+    public int playedCount(int face) {
+        return data[PLAYED + face];
+    }
+
+
+
+
+    /**
+     * Records a played card.
+     *
+     * @param face the card face
+     * @param delta +1 to record a card, -1 to forget it
+     * @pre the resulting count is not negative
+     * @post the played count is updated
+     */
+    void changePlayed(int face, int delta) {
+        data[PLAYED + face] += delta;
+    }
+
+
+
+
+    /**
+     * Returns how many cards of a face a player has discarded.
+     *
+     * @param player the player index
+     * @param face the card face
+     * @return the number of discarded cards of the face
+     * @pre 0 &lt;= player &lt; 2, 0 &lt;= face &lt; 48
+     * @post the count is returned
+     */
+    public int discardedCount(int player, int face) {
+        return data[DISCARDED + player * CARD_FACES + face];
+    }
+
+
+
+
+    /**
+     * Records a discarded card.
+     *
+     * @param player the player index
+     * @param face the card face
+     * @param delta +1 to record a card, -1 to forget it
+     * @pre the resulting count is not negative
+     * @post the discarded count is updated
+     */
+    void changeDiscarded(int player, int face, int delta) {
+        data[DISCARDED + player * CARD_FACES + face] += delta;
+    }
+
+
+
+
+    /**
+     * Returns the number of cards left in the deck.
+     *
+     * @return the size of the deck
+     * @pre none
+     * @post the size of the deck is returned
+     */
+    public int deckSize() {
+        return (int) (meta >>> DECK_SHIFT) & 0x7F;
+    }
+
+
+
+
+    /**
+     * Sets the number of cards left in the deck.
+     *
+     * @param size the new size of the deck
+     * @pre 0 &lt;= size &lt;= 100
+     * @post the size of the deck is updated
+     */
+    void setDeckSize(int size) {
+        meta = (meta & ~(0x7FL << DECK_SHIFT)) | ((long) size << DECK_SHIFT);
+    }
+
+
+
+
+    /**
+     * Returns the face of a card of the deck. Index deckSize() - 1 is the top of the deck.
+     *
+     * @param index the index in the deck
+     * @return the card face
+     * @pre 0 &lt;= index &lt; deckSize()
+     * @post the card face is returned
+     */
+    public int deckCard(int index) {
+        return data[DECK + index];
+    }
+
+
+
+
+    /**
+     * Sets the face of a card of the deck.
+     *
+     * @param index the index in the deck
+     * @param face the card face
+     * @pre 0 &lt;= index &lt; 100
+     * @post the deck is updated
+     */
+    void setDeckCard(int index, int face) {
+        data[DECK + index] = (byte) face;
+    }
+
+
+
+
+    /**
+     * Returns the player whose turn it is.
+     *
+     * @return the index of the side to move
+     * @pre none
+     * @post the side to move is returned
+     */
+    public int side() {
+        return (int) (meta >>> SIDE_SHIFT) & 1;
+    }
+
+
+
+
+    /**
+     * Sets the player whose turn it is.
+     *
+     * @param player the index of the side to move
+     * @pre 0 &lt;= player &lt; 2
+     * @post the side to move is updated
+     */
+    void setSide(int player) {
+        if (player != side()) {
+            hash ^= Zobrist.SIDE;
+        }
+        meta = (meta & ~(1L << SIDE_SHIFT)) | ((long) player << SIDE_SHIFT);
+    }
+
+
+
+
+    /**
+     * Returns the phase of the turn: ACTION (play or discard), DRAW, DECIDE (open or destroy a finding) or OVER.
+     *
+     * @return the phase of the turn
+     * @pre none
+     * @post the phase is returned
+     */
+    public int phase() {
+        return (int) (meta >>> PHASE_SHIFT) & 3;
+    }
+
+
+
+
+    /**
+     * Sets the phase of the turn.
+     *
+     * @param phase the new phase
+     * @pre phase is one of the PHASE constants
+     * @post the phase is updated
+     */
+    void setPhase(int phase) {
+        meta = (meta & ~(3L << PHASE_SHIFT)) | ((long) phase << PHASE_SHIFT);
+    }
+
+
+
+
+    /**
+     * Returns whether the game has ended.
+     *
+     * @return true in the OVER phase
+     * @pre none
+     * @post returns true if the game is over
+     */
+    public boolean isOver() {
+        return phase() == PHASE_OVER;
+    }
+
+
+
+
+    /**
+     * Returns the player who must act now: the decider of a pending finding, otherwise the side to move.
+     *
+     * @return the index of the acting player
+     * @pre none
+     * @post the acting player is returned
+     */
+    public int actor() {
+        return phase() == PHASE_DECIDE ? decider() : side();
+    }
+
+
+
+
+    /**
+     * Returns the path of the pawn waiting for a finding decision.
+     *
+     * @return the path index
+     * @pre phase() == PHASE_DECIDE
+     * @post the pending path is returned
+     */
+    public int pendingPath() {
+        return (int) (meta >>> PENDING_PATH_SHIFT) & 3;
+    }
+
+
+
+
+    /**
+     * Returns the position of the pawn waiting for a finding decision.
+     *
+     * @return the position on the path
+     * @pre phase() == PHASE_DECIDE
+     * @post the pending position is returned
+     */
+    public int pendingPosition() {
+        return (int) (meta >>> PENDING_POSITION_SHIFT) & 0xF;
+    }
+
+
+
+
+    /**
+     * Returns the player who decides on the pending finding.
+     *
+     * @return the index of the deciding player
+     * @pre phase() == PHASE_DECIDE
+     * @post the decider is returned
+     */
+    public int decider() {
+        return (int) (meta >>> DECIDER_SHIFT) & 1;
+    }
+
+
+
+
+    /**
+     * Returns the steps an Ariadne card still has to move after the pending decision.
+     *
+     * @return the remaining steps
+     * @pre none
+     * @post the remaining steps are returned
+     */
+    public int pendingSteps() {
+        return (int) (meta >>> PENDING_STEPS_SHIFT) & 3;
+    }
+
+
+
+
+    /**
+     * Records a pending finding decision.
+     *
+     * @param decider the deciding player
+     * @param path the path of the pawn
+     * @param position the position of the pawn
+     * @param steps the steps still to move afterwards
+     * @pre the arguments fit their fields
+     * @post the pending decision is stored, the phase is not changed
+     */
+    void setPending(int decider, int path, int position, int steps) {
+        long mask = (3L << PENDING_PATH_SHIFT) | (0xFL << PENDING_POSITION_SHIFT) | (1L << DECIDER_SHIFT) | (3L << PENDING_STEPS_SHIFT);
+        meta = (meta & ~mask) | ((long) path << PENDING_PATH_SHIFT) | ((long) position << PENDING_POSITION_SHIFT)
+                | ((long) decider << DECIDER_SHIFT) | ((long) steps << PENDING_STEPS_SHIFT);
+    }
+
+
+
+
+    /**
+     * Returns why the game ended.
+     *
+     * @return END_NONE, END_DECK_EXHAUSTED or END_CHECKPOINT
+     * @pre none
+     * @post the end cause is returned
+     */
+    public int endCause() {
+        return (int) (meta >>> END_SHIFT) & 3;
+    }
+
+
+
+
+    /**
+     * Sets why the game ended.
+     *
+     * @param cause the end cause
+     * @pre cause is one of the END constants
+     * @post the end cause is updated
+     */
+    void setEndCause(int cause) {
+        meta = (meta & ~(3L << END_SHIFT)) | ((long) cause << END_SHIFT);
+    }
+
+
+
+
+    /**
+     * Returns the Zobrist hash of the pawns, the findings on the board, the highest played values,
+     * the hands and the side to move. It is kept up to date by every change, so it costs nothing to read.
+     *
+     * @return the 64-bit Zobrist hash
+     * @pre none
+     * @post the hash is returned
+     */
+    public long hash() {
+        return hash;
+    }
+
+
+
+
+    /**
+     * Returns a key for transposition tables: the Zobrist hash combined with the phase, the pending
+     * decision, the deck size and the collected findings, which the hash leaves out.
+     *
+     * @return the 64-bit key of the state
+     * @pre none
+     * @post the key is returned
+     */
+    public long key() {
+        long z = (meta & KEY_META_MASK) ^ (progress >>> RARE_SHIFT) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ z ^ (z >>> 31);
+    }
+
+
+
+
+    /**
+     * Counts the pawns of both players at or beyond the checkpoint.
+     *
+     * @return the number of pawns at positions 6 to 8
+     * @pre none
+     * @post the count is returned
+     */
+    public int pawnsAtCheckpoint() {
+        int count = 0;
+        for (int player = 0; player < PLAYERS; player++) {
+            for (int path = 0; path < PATHS; path++) {
+                int slot = pawnSlot(player, path);
+                if (isPlaced(slot) && position(slot) >= CHECKPOINT) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+
+
+
+    /**
+     * Calculates the total score of a player from the packed fields.
+     *
+     * @param player the player index
+     * @return the total score
+     * @pre 0 &lt;= player &lt; 2
+     * @post the score is returned, as RulesEngine.calculateTotalScore computes it
+     */
+    public int score(int player) {
+        int score = 0;
+        for (int path = 0; path < PATHS; path++) {
+            int slot = pawnSlot(player, path);
+            if (isPlaced(slot)) {
+                int points = POSITION_SCORES[position(slot)];
+                score += isTheseus(slot) ? points * 2 : points;
+            }
+        }
+        int rares = rareMask(player);
+        for (int palace = 0; palace < PATHS; palace++) {
+            if ((rares >>> palace & 1) != 0) {
+                score += RARE_POINTS[palace];
+            }
+        }
+        int frescoes = frescoMask(player);
+        for (int fresco = 0; fresco < FRESCOES; fresco++) {
+            if ((frescoes >>> fresco & 1) != 0) {
+                score += FRESCO_POINTS[fresco];
+            }
+        }
+        return score + statueScore(statueCount(player));
+    }
+
+
+
+
+    /**
+     * Returns the score of a position, as Path.getPositionScore gives it.
+     *
+     * @param position the position on a path
+     * @return the score of the position, not doubled for Theseus
+     * @pre 0 &lt;= position &lt; PATH_LENGTH
+     * @post the score is returned
+     */
+    public static int positionScore(int position) {
+        return POSITION_SCORES[position];
+    }
+
+
+
+
+    /**
+     * Returns the points of the rare finding of a palace, as its RareFinding scores.
+     *
+     * @param palace the index of the palace
+     * @return the points of the rare finding
+     * @pre 0 &lt;= palace &lt; PATHS
+     * @post the points are returned
+     */
+    public static int rarePoints(int palace) {
+        return RARE_POINTS[palace];
+    }
+
+
+
+
+    /**
+     * Returns the points of a fresco, as its Fresco scores.
+     *
+     * @param fresco the index of the fresco
+     * @return the points of the fresco
+     * @pre 0 &lt;= fresco &lt; FRESCOES
+     * @post the points are returned
+     */
+    public static int frescoPoints(int fresco) {
+        return FRESCO_POINTS[fresco];
+    }
+
+
+
+
+    /**
+     * Returns the score of a number of statues, as Player.getStatueScore gives it.
+     *
+     * @param count the number of statues
+     * @return the score of the statues; counts above STATUE_LIMIT score as STATUE_LIMIT
+     * @pre count &gt;= 0
+     * @post the score is returned
+     */
+    public static int statueScore(int count) {
+        return STATUE_SCORES[Math.min(count, STATUE_LIMIT)];
+    }
+
+
+
+
+    /**
+     * Determines the winner, as RulesEngine.determineWinner does: the higher score wins,
+     * ties are broken by rare findings, then frescoes, then statues.
+     *
+     * @return the index of the winner, or -1 for a draw
+     * @pre none
+     * @post the winner is returned
+     */
+    public int winner() {
+        int comparison = Integer.compare(score(0), score(1));
+        if (comparison == 0) {
+            comparison = Integer.compare(Integer.bitCount(rareMask(0)), Integer.bitCount(rareMask(1)));
+        }
+        if (comparison == 0) {
+            comparison = Integer.compare(Integer.bitCount(frescoMask(0)), Integer.bitCount(frescoMask(1)));
+        }
+        if (comparison == 0) {
+            comparison = Integer.compare(statueCount(0), statueCount(1));
+        }
+        return comparison > 0 ? 0 : comparison < 0 ? 1 : -1;
+    }
+
+
+
+
+    /**
+     * Captures the state of a game of the object model. A side holding 8 cards is about to play
+     * or discard, a side holding 7 cards is about to draw.
+     *
+     * @param engine the rules engine of the game
+     * @return the packed state of the game
+     * @pre the game has two players and no finding decision is pending
+     * @post a GameState describing the same game is returned
+     */
+    public static GameState capture(RulesEngine engine) {
+        return capture(engine, new GameState());
+    }
+
+
+
+
+    /**
+     * Captures the state of a game of the object model into an existing GameState, which is cleared first.
+     *
+     * @param engine the rules engine of the game
+     * @param state the state receiving the game
+     * @return state
+     * @pre the game has two players and no finding decision is pending, state is not null
+     * @post state describes the same game as the engine
+     */
+    public static GameState capture(RulesEngine engine, GameState state) {
+        state.clear();
+        Board board = engine.getBoard();
+        List<Player> players = engine.getPlayers();
+
+        Path[] paths = board.getPaths();
+        for (int path = 0; path < PATHS; path++) {
+            Position[] positions = paths[path].getPositions();
+            for (int position : FINDING_POSITIONS) {
+                Finding finding = ((FindingPosition) positions[position]).getFinding();
+                int slot = findingSlot(path, position);
+                if (finding != null) {
+                    state.setFindingKind(slot, findingKind(finding));
+                    state.setFindingAvailable(slot, true);
+                }
+            }
+        }
+
+        for (int player = 0; player < PLAYERS; player++) {
+            Player owner = players.get(player);
+            for (Pawn pawn : owner.getPawns()) {
+                if (!pawn.getPath().isEmpty()) {
+                    state.setPawnSlot(player, engine.getPathIndex(pawn.getPath()), slot(pawn.getPosition(),
+                            pawn.getType().equals("Theseus"), pawn.isHidden(), pawn.getImmobilizedTurns(), pawn.getFindingsDestroyed()));
+                }
+            }
+            for (int palace = 0; palace < PATHS; palace++) {
+                state.setHighestValue(player, palace, owner.getHighestValueCard(CardId.PALACES[palace]));
+            }
+            for (Finding finding : owner.getFindings()) {
+                int kind = findingKind(finding);
+                if (kind == FINDING_STATUE) {
+                    state.addStatue(player);
+                } else if (kind >= FINDING_FRESCO) {
+                    state.addFresco(player, kind - FINDING_FRESCO);
+                } else {
+                    state.addRare(player, kind - FINDING_RARE);
+                }
+            }
+            for (Card card : owner.getHand()) {
+                state.changeHand(player, card.getId(), 1);
+            }
+            for (Card card : owner.getPlayedCards()) {
+                state.changePlayed(card.getId(), 1);
+            }
+            for (Card card : owner.getDiscardedCards()) {
+                state.changeDiscarded(player, card.getId(), 1);
+            }
+        }
+
+        Deck deck = engine.getDeck();
+        int size = deck.getRemainingCards();
+        for (int i = 0; i < size; i++) {
+            state.setDeckCard(i, deck.getCardId(i));
+        }
+        state.setDeckSize(size);
+
+        int side = players.indexOf(engine.getCurrentPlayer());
+        state.setSide(side);
+        if (engine.isGameOver()) {
+            state.setPhase(PHASE_OVER);
+            state.setEndCause(deck.isEmpty() ? END_DECK_EXHAUSTED : END_CHECKPOINT);
+        } else if (state.handSize(side) < HAND_SIZE) {
+            state.setPhase(PHASE_DRAW);
+        }
+        return state;
+    }
+
+
+
+
+    /**
+     * Returns the kind of a finding.
+     *
+     * @param finding the Finding instance
+     * @return the finding kind
+     * @pre finding is not null
+     * @post the finding kind is returned
+     */
+    static int findingKind(Finding finding) {
+        if (finding instanceof SnakeGoddess) {
+            return FINDING_STATUE;
+        } else if (finding instanceof Fresco) {
+            return FINDING_FRESCO + Integer.parseInt(finding.getDescription().substring("Fresco ".length())) - 1;
+        } else if (finding instanceof RareFinding) {
+            for (int palace = 0; palace < RARE_FINDINGS.length; palace++) {
+                if (RARE_FINDINGS[palace].equals(finding.getDescription())) {
+                    return FINDING_RARE + palace;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown finding: " + finding.getDescription());
+    }
+
+
+
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof GameState)) {
+            return false;
+        }
+        GameState state = (GameState) other;
+        if (pawns0 != state.pawns0 || pawns1 != state.pawns1 || progress != state.progress
+                || board != state.board || meta != state.meta) {
+            return false;
+        }
+        for (int slot = 0; slot < FINDING_SLOTS; slot++) {
+            if (isFindingAvailable(slot) && data[LAYOUT + slot] != state.data[LAYOUT + slot]) {
+                return false;
+            }
+        }
+        int length = DECK + deckSize();
+        for (int i = HANDS; i < length; i++) {
+            if (data[i] != state.data[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+
+    @Override
+    public int hashCode() {
+        long key = key();
+        return (int) (key ^ (key >>> 32));
+    }
+}
@@ -0,0 +1,137 @@
+package engine;
+
+import model.CardId;
+
+
+
+/**
+ * The Move class encodes an action as a single int, so move lists are plain int arrays:
+ * bits 0-2 the kind, bits 3-8 the CardId of the card played, discarded or drawn,
+ * bit 9 set when a number card places a Theseus instead of an archaeologist.
+ */
+public final class Move {
+    public static final int PLAY = 0;
+    public static final int DISCARD = 1;
+    public static final int DRAW = 2;
+    public static final int TAKE = 3;
+    public static final int KEEP = 4;
+
+    public static final int MAX_MOVES = 64;
+
+    private static final int FACE_SHIFT = 3;
+    private static final int THESEUS = 1 << 9;
+
+
+
+
+
+    /**
+     * Move only holds static helpers.
+     */
+    private Move() {
+    }
+
+
+
+
+    /**
+     * Returns the move playing a card.
+     *
+     * @param face the CardId of the card
+     * @param theseus true if a number card places a Theseus on a new path
+     * @return the encoded move
+     * @pre 0 &lt;= face &lt; 48
+     * @post the move is returned
+     */
+    public static int play(int face, boolean theseus) {
+        return PLAY | (face << FACE_SHIFT) | (theseus ? THESEUS : 0);
+    }
+
+
+
+
+    /**
+     * Returns the move discarding a card.
+     *
+     * @param face the CardId of the card
+     * @return the encoded move
+     * @pre 0 &lt;= face &lt; 48
+     * @post the move is returned
+     */
+    public static int discard(int face) {
+        return DISCARD | (face << FACE_SHIFT);
+    }
+
+
+
+
+    /**
+     * Returns the kind of a move.
+     *
+     * @param move the encoded move
+     * @return PLAY, DISCARD, DRAW, TAKE or KEEP
+     * @pre none
+     * @post the kind is returned
+     */
+    public static int kind(int move) {
+        return move & 7;
+    }
+
+
+
+
+    /**
+     * Returns the card of a move.
+     *
+     * @param move the encoded move
+     * @return the CardId of the card played or discarded
+     * @pre kind(move) is PLAY or DISCARD
+     * @post the card is returned
+     */
+    public static int face(int move) {
+        return (move >>> FACE_SHIFT) & 0x3F;
+    }
+
+
+
+
+    /**
+     * Returns whether a move places a Theseus.
+     *
+     * @param move the encoded move
+     * @return true if the move places a Theseus
+     * @pre kind(move) == PLAY
+     * @post returns true if the Theseus bit is set
+     */
+    public static boolean isTheseus(int move) {
+        return (move & THESEUS) != 0;
+    }
+
+
+
+
+    /**
+     * Returns a readable form of a move, for logs and debugging.
+     *
+     * @param move the encoded move
+     * @return the description of the move
+     * @pre none
+     * @post the description is returned
+     */
+    public static String toString(int move) {
+        switch (kind(move)) {
+            case PLAY:
+                return "play " + CardId.toCard(face(move)) + (isTheseus(move) ? " (Theseus)" : "");
+            case DISCARD:
+                return "discard " + CardId.toCard(face(move));
+            case DRAW:
+                return "draw";
+            case TAKE:
+                return "take finding";
+            case KEEP:
+                return "leave finding";
+            default:
+                return "unknown move " + move;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package engine;
+
+import model.CardId;
+
+
+
+/**
+ * The MoveGenerator class lists the legal actions of a GameState into a caller-supplied int buffer.
+ * It follows the checks of RulesEngine, so a listed move never ends in an invalid move dialog,
+ * and it allocates nothing.
+ */
+public final class MoveGenerator {
+    public static final int ARCHAEOLOGISTS = 3;
+    public static final int THESEUS_PAWNS = 1;
+
+
+
+
+
+    /**
+     * MoveGenerator only holds static helpers.
+     */
+    private MoveGenerator() {
+    }
+
+
+
+
+    /**
+     * Writes the legal moves of the acting player into the buffer.
+     * In the ACTION phase these are the playable and discardable cards, in the DRAW phase the draw,
+     * and in the DECIDE phase taking or leaving the pending finding.
+     *
+     * @param state the state of the game
+     * @param moves the buffer receiving the moves, at least Move.MAX_MOVES long
+     * @return the number of moves written
+     * @pre state and moves are not null
+     * @post moves[0..count) holds every legal move once, nothing is allocated
+     */
+    public static int generate(GameState state, int[] moves) {
+        switch (state.phase()) {
+            case GameState.PHASE_DRAW:
+                moves[0] = Move.DRAW;
+                return 1;
+            case GameState.PHASE_DECIDE:
+                moves[0] = Move.TAKE;
+                moves[1] = Move.KEEP;
+                return 2;
+            case GameState.PHASE_OVER:
+                return 0;
+            default:
+                break;
+        }
+
+        int player = state.side();
+        int opponent = player ^ 1;
+        int archaeologists = ARCHAEOLOGISTS;
+        int theseus = THESEUS_PAWNS;
+        for (int path = 0; path < GameState.PATHS; path++) {
+            int slot = state.pawnSlot(player, path);
+            if (GameState.isPlaced(slot)) {
+                if (GameState.isTheseus(slot)) {
+                    theseus--;
+                } else {
+                    archaeologists--;
+                }
+            }
+        }
+
+        int count = 0;
+        for (int face = 0; face < CardId.COUNT; face++) {
+            if (state.handCount(player, face) == 0) {
+                continue;
+            }
+            int palace = CardId.palace(face);
+            int rank = CardId.rank(face);
+            int slot = state.pawnSlot(player, palace);
+            if (rank == CardId.MINOTAUR) {
+                int target = state.pawnSlot(opponent, palace);
+                if (GameState.isPlaced(target) && GameState.position(target) < GameState.CHECKPOINT) {
+                    moves[count++] = Move.play(face, false);
+                }
+            } else if (rank == CardId.ARIADNE) {
+                if (canMove(slot)) {
+                    moves[count++] = Move.play(face, false);
+                }
+            } else if (CardId.value(face) >= state.highestValue(player, palace)) {
+                if (GameState.isPlaced(slot)) {
+                    if (canMove(slot)) {
+                        moves[count++] = Move.play(face, false);
+                    }
+                } else {
+                    if (archaeologists > 0) {
+                        moves[count++] = Move.play(face, false);
+                    }
+                    if (theseus > 0) {
+                        moves[count++] = Move.play(face, true);
+                    }
+                }
+            }
+            moves[count++] = Move.discard(face);
+        }
+        return count;
+    }
+
+
+
+
+    /**
+     * Checks whether a move is legal in a state.
+     *
+     * @param state the state of the game
+     * @param move the encoded move
+     * @param buffer a scratch buffer, at least Move.MAX_MOVES long
+     * @return true if the move is legal
+     * @pre state and buffer are not null
+     * @post returns true if generate lists the move
+     */
+    public static boolean isLegal(GameState state, int move, int[] buffer) {
+        int count = generate(state, buffer);
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+
+    /**
+     * Checks whether the pawn of a slot can move forward.
+     *
+     * @param slot the slot bits
+     * @return true if a pawn is placed, not immobilized and not yet at the palace
+     * @pre none
+     * @post returns true if the pawn can move
+     */
+    static boolean canMove(int slot) {
+        return GameState.isPlaced(slot) && GameState.immobilizedTurns(slot) == 0
+                && GameState.position(slot) < GameState.PALACE;
+    }
+}
@@ -0,0 +1,797 @@
+package engine;
+
+import java.util.List;
+
+import model.AriadneCard;
+import model.Board;
+import model.Card;
+import model.Deck;
+import model.Finding;
+import model.FindingPosition;
+import model.Fresco;
+import model.MinotaurCard;
+import model.NumberCard;
+import model.Path;
+import model.Pawn;
+import model.Player;
+import model.RareFinding;
+import model.SnakeGoddess;
+
+
+
+/**
+ * The RulesEngine class applies the rules of the game to the board, the players and the deck.
+ * It has no user interface: questions are asked through a DecisionProvider and every change
+ * is reported to a GameListener, so the same rules drive the Swing client and headless games.
+ */
+public class RulesEngine {
+    private Board board;
+    private List<Player> players;
+    private Deck deck;
+    private int currentPlayerIndex;
+    private GameListener listener;
+    private DecisionProvider decisions;
+    private boolean gameOver;
+
+
+
+
+
+    /**
+     * Constructs a RulesEngine over the specified board, players and deck.
+     *
+     * @param board the Board instance
+     * @param players the list of Player instances
+     * @param deck the Deck instance
+     * @pre board, players and deck are not null
+     * @post a RulesEngine is created with a no-op listener and the first player to move
+     */
+    public RulesEngine(Board board, List<Player> players, Deck deck) {
+        this.board = board;
+        this.players = players;
+        this.deck = deck;
+        this.currentPlayerIndex = 0;
+        this.listener = new GameAdapter();
+    }
+
+
+
+
+    /**
+     * Sets the listener that receives the notifications of the engine.
+     *
+     * @param listener the GameListener instance
+     * @pre listener is not null
+     * @post this.listener is set to the provided listener
+     */
+    public void setListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+
+
+
+    /**
+     * Sets the provider that answers the decisions of the players.
+     *
+     * @param decisions the DecisionProvider instance
+     * @pre decisions is not null
+     * @post this.decisions is set to the provided decision provider
+     */
+    public void setDecisionProvider(DecisionProvider decisions) {
+        this.decisions = decisions;
+    }
+
+
+
+
+    /**
+     * Returns the board.
+     *
+     * @return the Board instance
+     * @pre none
+     * @post the board is returned
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+
+
+
+    /**
+     * Returns the list of players.
+     *
+     * @return the list of Player instances
+     * @pre none
+     * @post the list of players is returned
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+
+
+
+    /**
+     * Returns the deck.
+     *
+     * @return the Deck instance
+     * @pre none
+     * @post the deck is returned
+     */
+    public Deck getDeck() {
+        return deck;
+    }
+
+
+
+
+    /**
+     * Returns the player whose turn it is.
+     *
+     * @return the current Player instance
+     * @pre none
+     * @post the current player is returned
+     */
+    public Player getCurrentPlayer() {
+        return players.get(currentPlayerIndex);
+    }
+
+
+
+
+    /**
+     * Sets the index of the player whose turn it is.
+     *
+     * @param currentPlayerIndex the index of the current player
+     * @pre currentPlayerIndex is a valid index in the list of players
+     * @post the current player is updated
+     */
+    public void setCurrentPlayerIndex(int currentPlayerIndex) {
+        this.currentPlayerIndex = currentPlayerIndex;
+    }
+
+
+
+
+    /**
+     * Returns the opponent of the specified player.
+     *
+     * @param player the Player instance
+     * @return the next player in turn order
+     * @pre player is one of the players of the game
+     * @post the opponent of the player is returned
+     */
+    public Player getOpponent(Player player) {
+        return players.get((players.indexOf(player) + 1) % players.size());
+    }
+
+
+
+
+    /**
+     * Returns whether the game has ended.
+     *
+     * @return true if the game is over, false otherwise
+     * @pre none
+     * @post returns true if the end game condition was met
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+
+
+
+    /**
+     * Deals the initial cards to each player.
+     *
+     * @pre the deck holds at least 8 cards per player
+     * @post each player is dealt 8 cards from the deck
+     */
+    public void dealInitialCards() {
+        for (Player player : players) {
+            for (int i = 0; i < 8; i++) {
+                drawCard(player);
+            }
+        }
+    }
+
+
+
+
+    /**
+     * Draws a card for the specified player. Drawing from an empty deck ends the game.
+     *
+     * @param player the Player instance
+     * @return the drawn Card instance, or null if the deck is empty
+     * @pre player is not null
+     * @post a card is drawn from the deck and added to the player's hand, or the game is ended
+     */
+    public Card drawCard(Player player) {
+        if (deck.isEmpty()) {
+            listener.deckEmpty();
+            endGame();
+            return null;
+        }
+        Card drawnCard = deck.drawCard();
+        player.addCardToHand(drawnCard);
+        listener.cardDrawn(player, drawnCard);
+        return drawnCard;
+    }
+
+
+
+
+    /**
+     * Plays a card for the specified player.
+     *
+     * @param player the Player instance
+     * @param card the Card instance to play
+     * @param cardPlayedOrDiscarded a flag indicating if a card has already been played or discarded
+     * @return true if the card was played successfully, false otherwise
+     * @pre player and card are valid
+     * @post the card is played, removed from the hand, and the game is ended if the end condition is met
+     */
+    public boolean playCard(Player player, Card card, boolean cardPlayedOrDiscarded) {
+        if (cardPlayedOrDiscarded) {
+            listener.invalidMove(player, "You can only play or discard one card per turn.");
+            return false;
+        }
+
+        boolean cardPlayedSuccessfully = false;
+        if (card instanceof NumberCard) {
+            cardPlayedSuccessfully = playNumberCard(player, (NumberCard) card);
+        } else if (card instanceof AriadneCard) {
+            cardPlayedSuccessfully = playAriadneCard(player, card.getPalace());
+        } else if (card instanceof MinotaurCard) {
+            cardPlayedSuccessfully = playMinotaurCard(player, card.getPalace());
+        }
+
+        if (!cardPlayedSuccessfully) {
+            return false;
+        }
+
+        player.getHand().remove(card);
+        player.addPlayedCard(card);
+        listener.cardPlayed(player, card);
+
+        if (checkEndGameCondition()) {
+            endGame();
+        }
+        return true;
+    }
+
+
+
+
+    /**
+     * Discards a card for the specified player.
+     *
+     * @param player the Player instance
+     * @param card the Card instance to discard
+     * @param cardPlayedOrDiscarded a flag indicating if a card has already been played or discarded
+     * @return true if the card was discarded successfully, false otherwise
+     * @pre player and card are valid
+     * @post the card is removed from the player's hand if the player confirms the discard
+     */
+    public boolean discardCard(Player player, Card card, boolean cardPlayedOrDiscarded) {
+        if (cardPlayedOrDiscarded) {
+            listener.invalidMove(player, "You can only play or discard one card per turn.");
+            return false;
+        }
+        if (!decisions.confirmDiscard(player, card)) {
+            return false;
+        }
+        player.getHand().remove(card);
+        player.addDiscardedCard(card);
+        listener.cardDiscarded(player, card);
+        return true;
+    }
+
+
+
+
+    /**
+     * Plays a number card for the specified player.
+     *
+     * @param player the Player instance
+     * @param card the NumberCard instance to play
+     * @return true if the card was played successfully, false otherwise
+     * @pre player and card are valid
+     * @post a new pawn is placed on the path, or the player's pawn is moved one step forward
+     */
+    public boolean playNumberCard(Player player, NumberCard card) {
+        String palace = card.getPalace();
+        int cardValue = card.getValue();
+
+        if (cardValue < player.getHighestValueCard(palace)) {
+            listener.invalidMove(player, "Card value must be equal or greater than the highest value card previously played.");
+            return false;
+        }
+
+        if (!player.hasPawnInPath(palace)) {
+            if (player.getArchaeologistCount() == 0 && player.getTheseusCount() == 0) {
+                listener.invalidMove(player, "No available pawns to place.");
+                return false;
+            }
+            Pawn pawn = decisions.choosePawn(player, palace);
+            if (pawn == null) {
+                return false;
+            }
+            if (!canPlacePawn(player, palace)) {
+                listener.invalidMove(player, "You can only place one pawn per path.");
+                return false;
+            }
+            placePawn(player, palace, pawn);
+        } else {
+            Pawn existingPawn = player.getPawnInPath(palace);
+            if (existingPawn.isImmobilized()) {
+                listener.invalidMove(player, "This Theseus is immobilized and cannot move this turn.");
+                return false;
+            }
+            if (existingPawn.getPosition() == Path.PALACE_POSITION) {
+                listener.invalidMove(player, "The pawn is already at the palace.");
+                return false;
+            }
+            movePawn(existingPawn, existingPawn.getPosition() + 1);
+        }
+
+        player.updateHighestValueCard(palace, cardValue);
+        return true;
+    }
+
+
+
+
+    /**
+     * Plays an Ariadne card for the specified player in the specified palace.
+     * The pawn moves two steps forward, one at a time, and stops at the palace.
+     *
+     * @param player the Player instance
+     * @param palace the name of the palace
+     * @return true if the card was played successfully, false otherwise
+     * @pre player and palace are valid
+     * @post the player's pawn is moved up to two steps forward
+     */
+    public boolean playAriadneCard(Player player, String palace) {
+        if (!player.hasPawnInPath(palace)) {
+            listener.invalidMove(player, "Player has no pawn in the path of the palace.");
+            return false;
+        }
+
+        Pawn playerPawn = player.getPawnInPath(palace);
+        if (playerPawn.isImmobilized()) {
+            listener.invalidMove(player, "This Theseus is immobilized and cannot move this turn.");
+            return false;
+        }
+        if (playerPawn.getPosition() == Path.PALACE_POSITION) {
+            listener.invalidMove(player, "The pawn is already at the palace.");
+            return false;
+        }
+
+        for (int step = 0; step < 2 && playerPawn.getPosition() < Path.PALACE_POSITION; step++) {
+            movePawn(playerPawn, playerPawn.getPosition() + 1);
+        }
+        return true;
+    }
+
+
+
+
+    /**
+     * Plays a Minotaur card for the specified player in the specified palace.
+     * A Theseus is immobilized for the opponent's next turn, an archaeologist is pushed two steps back.
+     *
+     * @param player the Player instance
+     * @param palace the name of the palace
+     * @return true if the card was played successfully, false otherwise
+     * @pre player and palace are valid
+     * @post the opponent's pawn is revealed and affected
+     */
+    public boolean playMinotaurCard(Player player, String palace) {
+        Player opponent = getOpponent(player);
+
+        if (!opponent.hasPawnInPath(palace)) {
+            listener.invalidMove(player, "Opponent has no pawn in the path of the palace.");
+            return false;
+        }
+
+        Pawn opponentPawn = opponent.getPawnInPath(palace);
+        if (opponentPawn.getPosition() >= Path.CHECKPOINT_POSITION) {
+            listener.invalidMove(player, "Invalid move. Opponent's pawn has claimed the checkpoint!.");
+            return false;
+        }
+
+        opponentPawn.setHidden(false);
+
+        if (opponentPawn.getType().equals("Theseus")) {
+            opponentPawn.setImmobilized(true);
+            opponentPawn.setImmobilizedTurns(2);
+        } else {
+            movePawn(opponentPawn, Math.max(0, opponentPawn.getPosition() - 2));
+        }
+
+        listener.pawnMoved(opponent, opponentPawn);
+        listener.scoreChanged(opponent);
+        return true;
+    }
+
+
+
+
+    /**
+     * Checks if a pawn can be placed on the specified palace for the specified player.
+     *
+     * @param player the Player instance
+     * @param palace the name of the palace
+     * @return true if the pawn can be placed, false otherwise
+     * @pre player and palace are valid
+     * @post returns true if the player has no pawn on the path yet
+     */
+    public boolean canPlacePawn(Player player, String palace) {
+        return !player.hasPawnInPath(palace);
+    }
+
+
+
+
+    /**
+     * Places a pawn at the start of the path of the specified palace.
+     *
+     * @param player the Player instance
+     * @param palace the name of the palace
+     * @param pawn the Pawn instance to place
+     * @pre player, palace, and pawn are valid
+     * @post the pawn is placed face down at position 0 and the player's pawn counts are updated
+     */
+    private void placePawn(Player player, String palace, Pawn pawn) {
+        pawn.setPath(palace);
+        pawn.setPosition(0);
+        player.addPawnPath(palace);
+
+        if (pawn.getType().equals("Archaeologist")) {
+            player.decrementArchaeologistCount();
+        } else if (pawn.getType().equals("Theseus")) {
+            player.decrementTheseusCount();
+        }
+
+        pawn.setHidden(true);
+
+        listener.pawnPlaced(player, pawn);
+        listener.scoreChanged(player);
+    }
+
+
+
+
+    /**
+     * Moves a pawn to the specified new position and resolves the position it lands on.
+     *
+     * @param pawn the Pawn instance to move
+     * @param newPosition the new position to move the pawn to
+     * @pre pawn and newPosition are valid
+     * @post the pawn is moved, and the finding at the new position is handled
+     */
+    private void movePawn(Pawn pawn, int newPosition) {
+        Player owner = pawn.getPlayer();
+        if (pawn.isImmobilized()) {
+            listener.invalidMove(owner, "This Theseus is immobilized and cannot move this turn.");
+            return;
+        }
+
+        pawn.setPosition(newPosition);
+        listener.pawnMoved(owner, pawn);
+
+        if (newPosition == Path.PALACE_POSITION) {
+            listener.palaceReached(owner, pawn.getPath());
+        }
+
+        handleFinding(owner, pawn.getPath(), newPosition);
+        listener.scoreChanged(owner);
+    }
+
+
+
+
+    /**
+     * Handles a finding at the specified position on the specified path for the specified player.
+     * An archaeologist may open the finding, a Theseus may destroy up to 3 findings.
+     *
+     * @param player the Player instance
+     * @param pathName the name of the path
+     * @param position the position on the path
+     * @return true if the finding was opened or destroyed, false otherwise
+     * @pre player, pathName, and position are valid
+     * @post the finding is handled if available, and the player's pawn is revealed
+     */
+    public boolean handleFinding(Player player, String pathName, int position) {
+        Path path = getPathByName(pathName);
+        if (path == null || !(path.getPositions()[position] instanceof FindingPosition)) {
+            return false;
+        }
+        FindingPosition findingPosition = (FindingPosition) path.getPositions()[position];
+        if (!findingPosition.isFindingAvailable()) {
+            return false;
+        }
+        Finding finding = findingPosition.getFinding();
+
+        if (finding instanceof Fresco) {
+            if (player.getFindings().contains(finding)) {
+                listener.notice(player, "Fresco Already Photographed", "You have already photographed this fresco.");
+                return false;
+            }
+        } else if (finding.getPhotographedBy() != null && !finding.getPhotographedBy().equals(player)) {
+            listener.notice(player, "Finding Already Claimed", "This finding has already been claimed by another player.");
+            return false;
+        }
+
+        Pawn pawn = player.getPawnInPath(pathName);
+        if (pawn != null && pawn.getType().equals("Theseus")) {
+            if (pawn.getFindingsDestroyed() >= 3) {
+                listener.notice(player, "Cannot Destroy Finding", "This Theseus has already destroyed the maximum of 3 findings.");
+                return false;
+            }
+            if (!decisions.confirmDestroyFinding(player, finding)) {
+                return false;
+            }
+            findingPosition.setFinding(null);
+            pawn.incrementFindingsDestroyed();
+            pawn.setHidden(false);
+            listener.findingDestroyed(player, finding);
+            listener.pawnMoved(player, pawn);
+            listener.scoreChanged(player);
+            return true;
+        }
+
+        if (!decisions.confirmOpenFinding(player, finding)) {
+            return false;
+        }
+        player.addFinding(finding);
+        finding.setPhotographedBy(player);
+        if (finding instanceof RareFinding || finding instanceof SnakeGoddess) {
+            findingPosition.setFinding(null);
+        }
+        listener.findingClaimed(player, finding);
+        listener.scoreChanged(player);
+
+        if (pawn != null) {
+            pawn.setHidden(false);
+            listener.pawnMoved(player, pawn);
+        }
+        return true;
+    }
+
+
+
+
+    /**
+     * Ends the current player's turn. Immobilized pawns count down one turn and the next player moves.
+     *
+     * @return the player whose turn starts
+     * @pre none
+     * @post immobilization counters are decremented and the next player becomes the current player
+     */
+    public Player endTurn() {
+        for (Player player : players) {
+            for (Pawn pawn : player.getPawns()) {
+                if (pawn.getImmobilizedTurns() > 0) {
+                    pawn.setImmobilizedTurns(pawn.getImmobilizedTurns() - 1);
+                    if (pawn.getImmobilizedTurns() == 0) {
+                        pawn.setImmobilized(false);
+                        listener.pawnReleased(player, pawn);
+                    }
+                }
+            }
+        }
+        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+        return getCurrentPlayer();
+    }
+
+
+
+
+    /**
+     * Checks if the end game condition is met.
+     *
+     * @return true if the deck is empty or at least 4 pawns have reached the checkpoint, false otherwise
+     * @pre none
+     * @post returns true if the end game condition is met, false otherwise
+     */
+    public boolean checkEndGameCondition() {
+        int pawnsAtCheckpoint = 0;
+        for (Player player : players) {
+            for (Pawn pawn : player.getPawns()) {
+                if (pawn.getPosition() >= Path.CHECKPOINT_POSITION) {
+                    pawnsAtCheckpoint++;
+                }
+            }
+        }
+        return deck.isEmpty() || pawnsAtCheckpoint >= 4;
+    }
+
+
+
+
+    /**
+     * Ends the game: stores the final scores, determines the winner and notifies the listener once.
+     *
+     * @pre none
+     * @post the game is over and the listener is notified with the winner
+     */
+    public void endGame() {
+        if (gameOver) {
+            return;
+        }
+        gameOver = true;
+        for (Player player : players) {
+            player.setScore(calculateTotalScore(player));
+        }
+        listener.gameOver(determineWinner());
+    }
+
+
+
+
+    /**
+     * Determines the winner of the game. Ties on score are broken by rare findings, frescoes and statues.
+     *
+     * @return the Player instance who is the winner, or null if it's a draw
+     * @pre the scores of the players are up to date
+     * @post the winner of the game is returned, or null if it's a draw
+     */
+    public Player determineWinner() {
+        Player player1 = players.get(0);
+        Player player2 = players.get(1);
+
+        int comparison = Integer.compare(player1.getScore(), player2.getScore());
+        if (comparison == 0) {
+            comparison = Integer.compare(countRareFindings(player1), countRareFindings(player2));
+        }
+        if (comparison == 0) {
+            comparison = Integer.compare(countFrescoes(player1), countFrescoes(player2));
+        }
+        if (comparison == 0) {
+            comparison = Integer.compare(countStatues(player1), countStatues(player2));
+        }
+
+        if (comparison > 0) {
+            return player1;
+        } else if (comparison < 0) {
+            return player2;
+        }
+        return null;
+    }
+
+
+
+
+    /**
+     * Recomputes and stores the score of the specified player.
+     *
+     * @param player the Player instance
+     * @pre player is not null
+     * @post the player's score is updated and the listener is notified
+     */
+    public void updatePlayerScore(Player player) {
+        player.setScore(calculateTotalScore(player));
+        listener.scoreChanged(player);
+    }
+
+
+
+
+    /**
+     * Calculates the total score for the specified player, from the running totals the player keeps.
+     *
+     * @param player the Player instance
+     * @return the total score of the player
+     * @pre player is not null
+     * @post the total score of the player is returned
+     */
+    public int calculateTotalScore(Player player) {
+        return player.getTotalScore();
+    }
+
+
+
+
+    /**
+     * Returns the score based on the number of statues.
+     *
+     * @param statueCount the number of statues
+     * @return the score based on the number of statues
+     * @pre none
+     * @post the score based on the number of statues is returned, max statues 6
+     */
+    public static int getStatueScore(int statueCount) {
+        return Player.getStatueScore(statueCount);
+    }
+
+
+
+
+    /**
+     * Returns the number of rare findings for the specified player.
+     *
+     * @param player the Player instance
+     * @return the number of rare findings
+     * @pre player is not null
+     * @post the number of rare findings is returned
+     */
+    public int countRareFindings(Player player) {
+        return player.getRareFindingCount();
+    }
+
+
+
+
+    /**
+     * Returns the number of frescoes for the specified player.
+     *
+     * @param player the Player instance
+     * @return the number of frescoes
+     * @pre player is not null
+     * @post the number of frescoes is returned
+     */
+    public int countFrescoes(Player player) {
+        return player.getFrescoCount();
+    }
+
+
+
+
+    /**
+     * Returns the number of statues for the specified player.
+     *
+     * @param player the Player instance
+     * @return the number of statues
+     * @pre player is not null
+     * @post the number of statues is returned
+     */
+    public int countStatues(Player player) {
+        return player.getStatueCount();
+    }
+
+
+
+
+    /**
+     * Returns the index of the specified palace.
+     *
+     * @param palace the name of the palace
+     * @return the index of the palace
+     * @pre palace is valid
+     * @post the index of the palace is returned
+     */
+    public int getPathIndex(String palace) {
+        switch (palace) {
+            case "Knossos":
+                return 0;
+            case "Phaistos":
+                return 1;
+            case "Malia":
+                return 2;
+            case "Zakros":
+                return 3;
+            default:
+                throw new IllegalArgumentException("Invalid palace: " + palace);
+        }
+    }
+
+
+
+
+    /**
+     * Returns the path with the specified name.
+     *
+     * @param pathName the name of the path
+     * @return the Path instance with the specified name, or null if not found
+     * @pre pathName is not null
+     * @post the path with the specified name is returned, or null if not found
+     */
+    public Path getPathByName(String pathName) {
+        return board.getPathByPalace(pathName);
+    }
+}
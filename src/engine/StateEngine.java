@@ -0,0 +1,417 @@
+package engine;
+
+import model.CardId;
+
+
+
+/**
+ * The StateEngine class applies moves to a GameState and takes them back, for tree search.
+ * It plays by the rules of RulesEngine, with the finding decisions as explicit moves:
+ * when a pawn lands on a finding its owner may open or destroy, the state waits in the DECIDE phase.
+ *
+ * apply returns an undo record from a pool of primitive longs: the five state words and the Zobrist
+ * hash before the move, and the move itself. The byte array changes of a move (hand, played and
+ * discarded cards) are reversed from the move, so a search of any depth allocates nothing once
+ * the pool has grown to that depth.
+ */
+public final class StateEngine {
+    private static final int RECORD_SIZE = 7;
+    private static final int INITIAL_RECORDS = 256;
+
+    private final GameState state;
+    private long[] records;
+    private int top;
+
+
+
+
+
+    /**
+     * Constructs a StateEngine playing on the specified state.
+     *
+     * @param state the state to play on, changed in place
+     * @pre state is not null
+     * @post a StateEngine with an empty undo stack is created
+     */
+    public StateEngine(GameState state) {
+        this.state = state;
+        this.records = new long[INITIAL_RECORDS * RECORD_SIZE];
+    }
+
+
+
+
+    /**
+     * Returns the state the engine plays on.
+     *
+     * @return the GameState instance
+     * @pre none
+     * @post the state is returned
+     */
+    public GameState getState() {
+        return state;
+    }
+
+
+
+
+    /**
+     * Returns the number of moves that can still be taken back.
+     *
+     * @return the depth of the undo stack
+     * @pre none
+     * @post the depth is returned
+     */
+    public int depth() {
+        return top;
+    }
+
+
+
+
+    /**
+     * Forgets all undo records, for instance after the state has been overwritten with copyFrom.
+     *
+     * @pre none
+     * @post the undo stack is empty
+     */
+    public void clear() {
+        top = 0;
+    }
+
+
+
+
+    /**
+     * Applies a move.
+     *
+     * @param move the encoded move
+     * @return the undo record of the move
+     * @pre move is legal in the current state (see MoveGenerator)
+     * @post the move is applied and its undo record is on top of the undo stack
+     */
+    public int apply(int move) {
+        int record = top;
+        int base = record * RECORD_SIZE;
+        if (base + RECORD_SIZE > records.length) {
+            long[] grown = new long[records.length * 2];
+            System.arraycopy(records, 0, grown, 0, records.length);
+            records = grown;
+        }
+        records[base] = state.pawns0;
+        records[base + 1] = state.pawns1;
+        records[base + 2] = state.progress;
+        records[base + 3] = state.board;
+        records[base + 4] = state.meta;
+        records[base + 5] = state.hash;
+        records[base + 6] = move;
+        top++;
+
+        switch (Move.kind(move)) {
+            case Move.PLAY:
+                play(Move.face(move), Move.isTheseus(move));
+                break;
+            case Move.DISCARD:
+                state.changeHand(state.side(), Move.face(move), -1);
+                state.changeDiscarded(state.side(), Move.face(move), 1);
+                state.setPhase(GameState.PHASE_DRAW);
+                break;
+            case Move.DRAW:
+                draw();
+                break;
+            default:
+                decide(Move.kind(move) == Move.TAKE);
+                break;
+        }
+        return record;
+    }
+
+
+
+
+    /**
+     * Draws a chosen card instead of the top card of the deck, for the chance nodes of a search.
+     * A copy of the card is swapped to the top of the deck and the draw is applied as usual;
+     * undo takes the draw back but leaves the deck in its new order.
+     *
+     * @param face the CardId of the card to draw
+     * @return the undo record of the draw
+     * @pre the state is in the DRAW phase and the deck holds the card
+     * @post the card is in the hand of the side to move and the opponent is to move
+     */
+    public int draw(int face) {
+        int top = state.deckSize() - 1;
+        for (int i = top; i >= 0; i--) {
+            if (state.deckCard(i) == face) {
+                state.setDeckCard(i, state.deckCard(top));
+                state.setDeckCard(top, face);
+                break;
+            }
+        }
+        return apply(Move.DRAW);
+    }
+
+
+
+
+    /**
+     * Takes back a move and every move applied after it.
+     *
+     * @param record the undo record returned by apply
+     * @pre record is on the undo stack
+     * @post the state is exactly as it was before the move was applied
+     */
+    public void undo(int record) {
+        while (top > record) {
+            top--;
+            int base = top * RECORD_SIZE;
+            state.pawns0 = records[base];
+            state.pawns1 = records[base + 1];
+            state.progress = records[base + 2];
+            state.board = records[base + 3];
+            state.meta = records[base + 4];
+            state.hash = records[base + 5];
+
+            int move = (int) records[base + 6];
+            int player = state.side();
+            byte[] data = state.data;
+            switch (Move.kind(move)) {
+                case Move.PLAY:
+                    data[GameState.HANDS + player * GameState.CARD_FACES + Move.face(move)]++;
+                    data[GameState.PLAYED + Move.face(move)]--;
+                    break;
+                case Move.DISCARD:
+                    data[GameState.HANDS + player * GameState.CARD_FACES + Move.face(move)]++;
+                    data[GameState.DISCARDED + player * GameState.CARD_FACES + Move.face(move)]--;
+                    break;
+                case Move.DRAW:
+                    int size = state.deckSize();
+                    if (size > 0) {
+                        data[GameState.HANDS + player * GameState.CARD_FACES + data[GameState.DECK + size - 1]]--;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+
+
+
+    /**
+     * Plays a card of the side to move, as RulesEngine.playCard does.
+     *
+     * @param face the CardId of the card
+     * @param theseus true if a number card places a Theseus on a new path
+     * @pre the play is legal
+     * @post the card is played, and the state is in the DECIDE, DRAW or OVER phase
+     */
+    private void play(int face, boolean theseus) {
+        int player = state.side();
+        int palace = CardId.palace(face);
+        int rank = CardId.rank(face);
+        state.changeHand(player, face, -1);
+        state.changePlayed(face, 1);
+
+        if (rank == CardId.MINOTAUR) {
+            int opponent = player ^ 1;
+            int slot = state.pawnSlot(opponent, palace) & ~GameState.HIDDEN;
+            if (GameState.isTheseus(slot)) {
+                state.setPawnSlot(opponent, palace, (slot & ~(3 << GameState.IMMOBILIZED_SHIFT)) | (2 << GameState.IMMOBILIZED_SHIFT));
+            } else {
+                int position = Math.max(0, GameState.position(slot) - 2);
+                state.setPawnSlot(opponent, palace, withPosition(slot, position));
+                if (needsDecision(opponent, palace, position)) {
+                    state.setPending(opponent, palace, position, 0);
+                    state.setPhase(GameState.PHASE_DECIDE);
+                    return;
+                }
+            }
+        } else if (rank == CardId.ARIADNE) {
+            if (advance(player, palace, 2)) {
+                return;
+            }
+        } else {
+            int slot = state.pawnSlot(player, palace);
+            state.setHighestValue(player, palace, CardId.value(face));
+            if (!GameState.isPlaced(slot)) {
+                state.setPawnSlot(player, palace, GameState.slot(0, theseus, true, 0, 0));
+            } else if (advance(player, palace, 1)) {
+                return;
+            }
+        }
+        finishPlay();
+    }
+
+
+
+
+    /**
+     * Moves a pawn forward one step at a time, stopping at the palace or at a finding that needs a decision.
+     *
+     * @param player the owner of the pawn
+     * @param path the path of the pawn
+     * @param steps the number of steps
+     * @return true if the move stopped for a decision
+     * @pre the pawn is placed and can move
+     * @post the pawn has moved, and a pending decision is recorded if needed
+     */
+    private boolean advance(int player, int path, int steps) {
+        int slot = state.pawnSlot(player, path);
+        int position = GameState.position(slot);
+        while (steps > 0 && position < GameState.PALACE) {
+            position++;
+            steps--;
+            slot = withPosition(slot, position);
+            state.setPawnSlot(player, path, slot);
+            if (needsDecision(player, path, position)) {
+                state.setPending(player, path, position, steps);
+                state.setPhase(GameState.PHASE_DECIDE);
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+
+    /**
+     * Checks whether a pawn landing on a position faces a finding decision, as RulesEngine.handleFinding does.
+     *
+     * @param player the owner of the pawn
+     * @param path the path of the pawn
+     * @param position the position the pawn landed on
+     * @return true if an available finding can be opened or destroyed
+     * @pre the pawn is placed on the path
+     * @post returns true if the owner has to decide
+     */
+    private boolean needsDecision(int player, int path, int position) {
+        int findingSlot = GameState.findingSlot(path, position);
+        if (findingSlot < 0 || !state.isFindingAvailable(findingSlot)) {
+            return false;
+        }
+        int kind = state.findingKind(findingSlot);
+        if (kind >= GameState.FINDING_FRESCO && kind < GameState.FINDING_STATUE
+                && (state.frescoMask(player) >>> (kind - GameState.FINDING_FRESCO) & 1) != 0) {
+            return false;
+        }
+        int slot = state.pawnSlot(player, path);
+        return !GameState.isTheseus(slot) || GameState.findingsDestroyed(slot) < 3;
+    }
+
+
+
+
+    /**
+     * Resolves the pending finding decision and resumes the interrupted card.
+     *
+     * @param take true to open or destroy the finding, false to leave it
+     * @pre the state is in the DECIDE phase
+     * @post the decision is applied, and the state is in the DECIDE, DRAW or OVER phase
+     */
+    private void decide(boolean take) {
+        int player = state.decider();
+        int path = state.pendingPath();
+        int position = state.pendingPosition();
+        int steps = state.pendingSteps();
+        state.setPending(0, 0, 0, 0);
+
+        if (take) {
+            int findingSlot = GameState.findingSlot(path, position);
+            int kind = state.findingKind(findingSlot);
+            int slot = state.pawnSlot(player, path) & ~GameState.HIDDEN;
+            if (GameState.isTheseus(slot)) {
+                state.setFindingAvailable(findingSlot, false);
+                slot += 1 << GameState.DESTROYED_SHIFT;
+            } else if (kind == GameState.FINDING_STATUE) {
+                state.setFindingAvailable(findingSlot, false);
+                state.addStatue(player);
+            } else if (kind >= GameState.FINDING_FRESCO) {
+                state.addFresco(player, kind - GameState.FINDING_FRESCO);
+            } else {
+                state.setFindingAvailable(findingSlot, false);
+                state.addRare(player, kind - GameState.FINDING_RARE);
+            }
+            state.setPawnSlot(player, path, slot);
+        }
+
+        if (steps > 0 && advance(player, path, steps)) {
+            return;
+        }
+        finishPlay();
+    }
+
+
+
+
+    /**
+     * Ends the game if the end condition of RulesEngine.checkEndGameCondition is met,
+     * otherwise lets the side to move draw.
+     *
+     * @pre the played card is fully resolved
+     * @post the state is in the DRAW or OVER phase
+     */
+    private void finishPlay() {
+        if (state.deckSize() == 0) {
+            state.setEndCause(GameState.END_DECK_EXHAUSTED);
+            state.setPhase(GameState.PHASE_OVER);
+        } else if (state.pawnsAtCheckpoint() >= 4) {
+            state.setEndCause(GameState.END_CHECKPOINT);
+            state.setPhase(GameState.PHASE_OVER);
+        } else {
+            state.setPhase(GameState.PHASE_DRAW);
+        }
+    }
+
+
+
+
+    /**
+     * Draws the top card of the deck and ends the turn, as RulesEngine.drawCard and endTurn do.
+     * Drawing from an empty deck ends the game.
+     *
+     * @pre the state is in the DRAW phase
+     * @post the card is in the hand of the side to move and the opponent is to move,
+     *       or the game is over
+     */
+    private void draw() {
+        int size = state.deckSize();
+        if (size == 0) {
+            state.setEndCause(GameState.END_DECK_EXHAUSTED);
+            state.setPhase(GameState.PHASE_OVER);
+            return;
+        }
+        int player = state.side();
+        state.setDeckSize(size - 1);
+        state.changeHand(player, state.deckCard(size - 1), 1);
+
+        for (int owner = 0; owner < GameState.PLAYERS; owner++) {
+            for (int path = 0; path < GameState.PATHS; path++) {
+                int slot = state.pawnSlot(owner, path);
+                if (GameState.immobilizedTurns(slot) > 0) {
+                    state.setPawnSlot(owner, path, slot - (1 << GameState.IMMOBILIZED_SHIFT));
+                }
+            }
+        }
+        state.setSide(player ^ 1);
+        state.setPhase(GameState.PHASE_ACTION);
+    }
+
+
+
+
+    /**
+     * Returns the slot bits with a new position.
+     *
+     * @param slot the slot bits
+     * @param position the new position
+     * @return the updated slot bits
+     * @pre 0 &lt;= position &lt;= 8
+     * @post the slot bits are returned
+     */
+    private static int withPosition(int slot, int position) {
+        return (slot & ~(0xF << GameState.POSITION_SHIFT)) | (position << GameState.POSITION_SHIFT);
+    }
+}
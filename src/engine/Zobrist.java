@@ -0,0 +1,148 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+import model.CardId;
+
+
+
+/**
+ * The Zobrist class holds the random keys of the incremental GameState hash: pawn slots,
+ * finding availability, highest played values, hand counts and the side to move.
+ * The key of every empty feature is 0, so an empty GameState hashes to 0.
+ * The keys come from a fixed seed, so hashes are stable across runs and can be stored with replays.
+ */
+final class Zobrist {
+    static final long SIDE;
+
+    private static final long SEED = 0x4C6F737443697465L;
+    private static final int SLOTS = GameState.PLAYERS * GameState.PATHS;
+    private static final long[] POSITION = new long[SLOTS * GameState.PATH_LENGTH];
+    private static final long[] THESEUS = new long[SLOTS];
+    private static final long[] HIDDEN = new long[SLOTS];
+    private static final long[] IMMOBILIZED = new long[SLOTS * 4];
+    private static final long[] DESTROYED = new long[SLOTS * 4];
+    private static final long[] FINDING = new long[GameState.FINDING_SLOTS];
+    private static final long[] HIGHEST = new long[SLOTS * 11];
+    private static final long[] HAND = new long[GameState.PLAYERS * CardId.COUNT * 4];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        fill(random, POSITION, 0);
+        fill(random, THESEUS, 0);
+        fill(random, HIDDEN, 0);
+        fill(random, IMMOBILIZED, 4);
+        fill(random, DESTROYED, 4);
+        fill(random, FINDING, 0);
+        fill(random, HIGHEST, 11);
+        fill(random, HAND, 4);
+        SIDE = random.nextLong();
+    }
+
+
+
+
+
+    /**
+     * Zobrist only holds static tables.
+     */
+    private Zobrist() {
+    }
+
+
+
+
+    /**
+     * Fills a key table with random keys.
+     *
+     * @param random the generator of the keys
+     * @param keys the table to fill
+     * @param stride the number of values per feature whose first value keeps the key 0, or 0 for none
+     * @pre random and keys are not null
+     * @post the table holds random keys, with 0 for the empty value of each feature
+     */
+    private static void fill(SplittableRandom random, long[] keys, int stride) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = stride > 0 && i % stride == 0 ? 0 : random.nextLong();
+        }
+    }
+
+
+
+
+    /**
+     * Returns the key of a pawn slot.
+     *
+     * @param player the player index
+     * @param path the path index
+     * @param slot the slot bits
+     * @return the key of the slot, 0 if no pawn is placed
+     * @pre 0 &lt;= player &lt; 2, 0 &lt;= path &lt; 4
+     * @post the key is returned
+     */
+    static long slot(int player, int path, int slot) {
+        if (!GameState.isPlaced(slot)) {
+            return 0;
+        }
+        int index = (player << 2) + path;
+        long key = POSITION[index * GameState.PATH_LENGTH + GameState.position(slot)]
+                ^ IMMOBILIZED[(index << 2) + GameState.immobilizedTurns(slot)]
+                ^ DESTROYED[(index << 2) + GameState.findingsDestroyed(slot)];
+        if (GameState.isTheseus(slot)) {
+            key ^= THESEUS[index];
+        }
+        if (GameState.isHidden(slot)) {
+            key ^= HIDDEN[index];
+        }
+        return key;
+    }
+
+
+
+
+    /**
+     * Returns the key of an available finding.
+     *
+     * @param slot the finding slot
+     * @return the key of the finding
+     * @pre 0 &lt;= slot &lt; 20
+     * @post the key is returned
+     */
+    static long finding(int slot) {
+        return FINDING[slot];
+    }
+
+
+
+
+    /**
+     * Returns the key of a highest played value.
+     *
+     * @param player the player index
+     * @param palace the palace index
+     * @param value the highest value
+     * @return the key of the value, 0 for 0
+     * @pre 0 &lt;= value &lt;= 10
+     * @post the key is returned
+     */
+    static long highest(int player, int palace, int value) {
+        return HIGHEST[((player << 2) + palace) * 11 + value];
+    }
+
+
+
+
+    /**
+     * Returns the key of a hand count.
+     *
+     * @param player the player index
+     * @param face the CardId
+     * @param count the number of cards of the face in the hand
+     * @return the key of the count, 0 for 0
+     * @pre 0 &lt;= count &lt;= 3
+     * @post the key is returned
+     */
+    static long hand(int player, int face, int count) {
+        return HAND[((player * CardId.COUNT + face) << 2) + count];
+    }
+}
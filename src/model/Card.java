@@ -1,6 +1,5 @@
 package model;
 
-import javax.swing.ImageIcon;
 
 /**
  * The Card class represents an abstract card associated with a specific palace.
@@ -43,13 +42,28 @@ public abstract class Card {
 
 
     /**
-     * Returns the icon representing this card.
+     * Returns the id of this card.
      * 
-     * @return the ImageIcon representing this card
+     * @return the CardId of this card
      * @pre none
-     * @post the icon representing this card is returned
+     * @post the id of this card is returned
      */
-    public abstract ImageIcon getIcon();
+    public abstract byte getId();
+
+
+
+
+
+    /**
+     * Returns the path of the image of this card.
+     * 
+     * @return the image path of this card
+     * @pre none
+     * @post the image path of this card is returned
+     */
+    public String getImagePath() {
+        return CardId.getImagePath(getId());
+    }
 
 
 
@@ -0,0 +1,206 @@
+package model;
+
+
+
+/**
+ * The CardId class encodes a card face as a single byte: palace * 12 + rank, where ranks 0 to 9
+ * are the number cards 1 to 10, rank 10 is Ariadne and rank 11 is Minotaur.
+ * Cards of the same face are interchangeable, so the game keeps one canonical Card instance per id.
+ */
+public final class CardId {
+    public static final int COUNT = 48;
+    public static final int RANKS = 12;
+    public static final int ARIADNE = 10;
+    public static final int MINOTAUR = 11;
+    public static final String[] PALACES = {"Knossos", "Phaistos", "Malia", "Zakros"};
+
+    private static final String[] IMAGE_PREFIXES = {"knossos", "phaistos", "malia", "zakros"};
+    private static final int[] COPIES = {2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 3, 2};
+    private static final Card[] CARDS = new Card[COUNT];
+
+    static {
+        for (int palace = 0; palace < PALACES.length; palace++) {
+            for (int value = 1; value <= 10; value++) {
+                CARDS[palace * RANKS + value - 1] = new NumberCard(PALACES[palace], value);
+            }
+            CARDS[palace * RANKS + ARIADNE] = new AriadneCard(PALACES[palace]);
+            CARDS[palace * RANKS + MINOTAUR] = new MinotaurCard(PALACES[palace]);
+        }
+    }
+
+
+
+
+
+    /**
+     * CardId only holds static helpers.
+     */
+    private CardId() {
+    }
+
+
+
+
+    /**
+     * Returns the id of a card face.
+     *
+     * @param palace the palace index (0 to 3)
+     * @param rank the rank (0 to 9 for the values 1 to 10, ARIADNE or MINOTAUR)
+     * @return the card id
+     * @pre 0 &lt;= palace &lt; 4, 0 &lt;= rank &lt; 12
+     * @post the card id is returned
+     */
+    public static byte of(int palace, int rank) {
+        return (byte) (palace * RANKS + rank);
+    }
+
+
+
+
+    /**
+     * Returns the id of a number card.
+     *
+     * @param palace the palace index
+     * @param value the value of the card (1 to 10)
+     * @return the card id
+     * @pre 0 &lt;= palace &lt; 4, 1 &lt;= value &lt;= 10
+     * @post the card id is returned
+     */
+    public static byte number(int palace, int value) {
+        return (byte) (palace * RANKS + value - 1);
+    }
+
+
+
+
+    /**
+     * Returns the palace index of a card.
+     *
+     * @param id the card id
+     * @return the palace index
+     * @pre 0 &lt;= id &lt; 48
+     * @post the palace index is returned
+     */
+    public static int palace(int id) {
+        return id / RANKS;
+    }
+
+
+
+
+    /**
+     * Returns the rank of a card.
+     *
+     * @param id the card id
+     * @return the rank (0 to 11)
+     * @pre 0 &lt;= id &lt; 48
+     * @post the rank is returned
+     */
+    public static int rank(int id) {
+        return id % RANKS;
+    }
+
+
+
+
+    /**
+     * Returns whether a card is a number card.
+     *
+     * @param id the card id
+     * @return true for the values 1 to 10
+     * @pre 0 &lt;= id &lt; 48
+     * @post returns true if the card is a number card
+     */
+    public static boolean isNumber(int id) {
+        return id % RANKS < ARIADNE;
+    }
+
+
+
+
+    /**
+     * Returns the value of a card, as Card.getValue does.
+     *
+     * @param id the card id
+     * @return the value of a number card, 0 for special cards
+     * @pre 0 &lt;= id &lt; 48
+     * @post the value is returned
+     */
+    public static int value(int id) {
+        int rank = id % RANKS;
+        return rank < ARIADNE ? rank + 1 : 0;
+    }
+
+
+
+
+    /**
+     * Returns how many copies of a card the full deck holds.
+     *
+     * @param id the card id
+     * @return 2 for number and Minotaur cards, 3 for Ariadne cards
+     * @pre 0 &lt;= id &lt; 48
+     * @post the number of copies is returned
+     */
+    public static int copies(int id) {
+        return COPIES[id % RANKS];
+    }
+
+
+
+
+    /**
+     * Returns the canonical Card instance of an id.
+     *
+     * @param id the card id
+     * @return the Card instance
+     * @pre 0 &lt;= id &lt; 48
+     * @post the shared Card instance is returned
+     */
+    public static Card toCard(int id) {
+        return CARDS[id];
+    }
+
+
+
+
+    /**
+     * Returns the index of a palace.
+     *
+     * @param palace the name of the palace
+     * @return the palace index
+     * @pre palace is one of "Knossos", "Phaistos", "Malia", or "Zakros"
+     * @post the palace index is returned
+     */
+    public static int palaceIndex(String palace) {
+        for (int i = 0; i < PALACES.length; i++) {
+            if (PALACES[i].equals(palace)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown palace: " + palace);
+    }
+
+
+
+
+    /**
+     * Returns the image path of a card. Icons are loaded by the view only.
+     *
+     * @param id the card id
+     * @return the path of the card image
+     * @pre 0 &lt;= id &lt; 48
+     * @post the image path is returned
+     */
+    public static String getImagePath(int id) {
+        String prefix = "project_assets/images/cards/" + IMAGE_PREFIXES[palace(id)];
+        switch (rank(id)) {
+            case ARIADNE:
+                return prefix + "Ari.jpg";
+            case MINOTAUR:
+                return prefix + "Min.jpg";
+            default:
+                return prefix + value(id) + ".jpg";
+        }
+    }
+}
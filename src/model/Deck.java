@@ -1,30 +1,32 @@
 package model;
 
-import java.util.Collections;
-import java.util.Stack;
+import java.util.SplittableRandom;
 
 
 
 /**
  * The Deck class represents a deck of cards used in the game.
+ * Cards are kept as CardId bytes with the top of the deck at index size - 1.
  */
 public class Deck {
-    private Stack<Card> cards;
+    public static final int SIZE = 100;
+
+    private byte[] cards;
+    private int size;
 
 
 
 
 
     /**
-     * Constructs a Deck and initializes it with 100 cards.
+     * Constructs a Deck and initializes it with 100 cards in a fixed order.
      * 
      * @pre none
-     * @post the deck is initialized with 100 cards and shuffled
+     * @post the deck is initialized with 100 unshuffled cards
      */
     public Deck() {
-        cards = new Stack<>();
+        cards = new byte[SIZE];
         initializeDeck();
-        shuffle();
     }
 
 
@@ -38,17 +40,13 @@ public class Deck {
      * @post the deck is populated with 100 cards (20 NumberCards, 3 AriadneCards, and 2 MinotaurCards for each palace)
      */
     private void initializeDeck() {
-        String[] palaces = {"Knossos", "Phaistos", "Malia", "Zakros"};
-        for (String palace : palaces) {
-            for (int j = 1; j <= 10; j++) {
-                cards.push(new NumberCard(palace, j));
-                cards.push(new NumberCard(palace, j));
-            }
-            for (int j = 0; j < 3; j++) {
-                cards.push(new AriadneCard(palace));
-            }
-            for (int j = 0; j < 2; j++) {
-                cards.push(new MinotaurCard(palace));
+        size = 0;
+        for (int palace = 0; palace < CardId.PALACES.length; palace++) {
+            for (int rank = 0; rank < CardId.RANKS; rank++) {
+                byte id = CardId.of(palace, rank);
+                for (int j = 0; j < CardId.copies(id); j++) {
+                    cards[size++] = id;
+                }
             }
         }
     }
@@ -57,14 +55,37 @@ public class Deck {
 
 
 
+
     /**
-     * Shuffles the deck.
+     * Shuffles the deck with the specified generator (Fisher-Yates), so a seeded generator
+     * always produces the same order.
      * 
-     * @pre none
+     * @param random the generator of the game
+     * @pre random is not null
      * @post the deck is shuffled
      */
-    public void shuffle() {
-        Collections.shuffle(cards);
+    public void shuffle(SplittableRandom random) {
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+    }
+
+
+
+
+
+    /**
+     * Puts back every card drawn from the deck, without allocating: drawing only lowers the size, so
+     * the deck holds its 100 cards again, the drawn ones on top in the order they were drawn.
+     * 
+     * @pre none
+     * @post the deck holds 100 cards
+     */
+    public void reset() {
+        size = SIZE;
     }
 
 
@@ -79,7 +100,22 @@ public class Deck {
      * @post a card is removed from the deck and returned
      */
     public Card drawCard() {
-        return cards.pop();
+        return CardId.toCard(drawCardId());
+    }
+
+
+
+
+
+    /**
+     * Draws the id of a card from the deck.
+     * 
+     * @return the CardId of the drawn card
+     * @pre the deck is not empty
+     * @post a card is removed from the deck and its id is returned
+     */
+    public byte drawCardId() {
+        return cards[--size];
     }
 
 
@@ -94,7 +130,7 @@ public class Deck {
      * @post returns true if the deck is empty, false otherwise
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return size == 0;
     }
 
 
@@ -109,7 +145,41 @@ public class Deck {
      * @post the number of remaining cards is returned
      */
     public int getRemainingCards() {
-        return cards.size();
+        return size;
+    }
+
+
+
+
+
+
+    /**
+     * Returns a card of the deck without drawing it. Index 0 is the bottom of the deck,
+     * index getRemainingCards() - 1 is the next card to be drawn.
+     * 
+     * @param index the index of the card
+     * @return the Card instance at the index
+     * @pre 0 <= index < getRemainingCards()
+     * @post the card is returned and the deck is unchanged
+     */
+    public Card getCard(int index) {
+        return CardId.toCard(cards[index]);
+    }
+
+
+
+
+
+    /**
+     * Returns the id of a card of the deck without drawing it.
+     * 
+     * @param index the index of the card
+     * @return the CardId of the card at the index
+     * @pre 0 <= index < getRemainingCards()
+     * @post the id is returned and the deck is unchanged
+     */
+    public byte getCardId(int index) {
+        return cards[index];
     }
 
 
@@ -1,28 +1,32 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import util.SoundPlayer;
 import javax.swing.*;
 import java.awt.*;
+import controller.ComputerPlayer;
 import controller.GameController;
+import engine.DecisionProvider;
+import engine.GameListener;
+import engine.GameSeed;
+import engine.GameSetup;
+import engine.RulesEngine;
 import view.GameView;
 
 
 /**
  * The GameModel class represents the model in the MVC pattern for the game.
- * It manages the game state, including players, deck, board, and game logic.
+ * It adapts the headless RulesEngine to the Swing client: the rules run in the engine,
+ * and this class turns the engine's notifications and questions into view updates and dialogs.
  */
-public class GameModel {
+public class GameModel implements GameListener, DecisionProvider {
     private List<Player> players;
     private Deck deck;
     private Board board;
-    private int currentPlayerIndex;
+    private RulesEngine engine;
+    private GameSeed seed;
     private GameView view;
     private GameController controller;
     
@@ -39,21 +43,16 @@ public class GameModel {
      * @post a GameModel is created with the specified controller and view
      */
     public GameModel(GameController controller, GameView view) {
+        this(new Board(), createDefaultPlayers());
         this.controller = controller;
         this.view = view;
-        players = new ArrayList<>();
-        players.add(new Player("Player 1"));
-        players.add(new Player("Player 2"));
-        deck = new Deck();
-        board = new Board();
-        currentPlayerIndex = 0;
     }
 
 
 
 
     /**
-     * Constructs a GameModel with the specified board and players.
+     * Constructs a GameModel with the specified board and players and a random seed.
      * 
      * @param board the Board instance
      * @param players the list of Player instances
@@ -61,10 +60,60 @@ public class GameModel {
      * @post a GameModel is created with the specified board and players
      */
     public GameModel(Board board, List<Player> players) {
+        this(board, players, GameSeed.random());
+    }
+
+
+
+
+    /**
+     * Constructs a GameModel with the specified board, players and seed.
+     * 
+     * @param board the Board instance
+     * @param players the list of Player instances
+     * @param seed the seed that decides the finding layout and the deck order
+     * @pre board, players and seed are not null
+     * @post a GameModel is created that sets up the game from the specified seed
+     */
+    public GameModel(Board board, List<Player> players, GameSeed seed) {
+        this.seed = seed;
         this.board = board;
         this.players = players;
         this.deck = new Deck();
-        this.currentPlayerIndex = 0;
+        this.engine = new RulesEngine(board, players, deck);
+        this.engine.setListener(this);
+        this.engine.setDecisionProvider(this);
+    }
+
+
+
+
+    /**
+     * Creates the two players of a default game.
+     * 
+     * @return a list with "Player 1" and "Player 2"
+     * @pre none
+     * @post a new list with two players is returned
+     */
+    private static List<Player> createDefaultPlayers() {
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("Player 1"));
+        players.add(new Player("Player 2"));
+        return players;
+    }
+
+
+
+
+    /**
+     * Returns the seed of the game.
+     * 
+     * @return the GameSeed instance
+     * @pre none
+     * @post the seed of the game is returned
+     */
+    public GameSeed getSeed() {
+        return seed;
     }
 
 
@@ -99,20 +148,15 @@ public class GameModel {
 
 
     /**
-     * Initializes the game by setting up the board, shuffling the deck, and dealing initial cards.
+     * Initializes the game by placing the findings and shuffling the deck from the seed, and dealing initial cards.
      * 
      * @pre none
      * @post the game is initialized, the board and players' hands are displayed, and the first player's turn is started
      */
     public void initializeGame() {
+        engine.setCurrentPlayerIndex(0);
 
-        /* Random random = new Random();
-        currentPlayerIndex = random.nextInt(players.size()); */
-        currentPlayerIndex = 0;
-    
-        initializeFindings();
-
-        deck.shuffle();
+        GameSetup.setUp(board, deck, seed.newGenerator());
 
         dealInitialCards();
 
@@ -124,89 +168,6 @@ public class GameModel {
 
 
 
-/**
- * Initializes the findings on the board by placing rare findings in their respective paths
- * and distributing other findings randomly.
- * 
- * @pre none
- * @post the board is populated with rare findings and other findings in specific positions
- */
-private void initializeFindings() {
-    List<RareFinding> rareFindings = new ArrayList<>();
-    List<Finding> otherFindings = new ArrayList<>();
-
-    
-    for (String description : RareFinding.getRareFindings().keySet()) {
-        rareFindings.add(new RareFinding(description));
-    }
-
-    
-    for (String description : Fresco.getFrescoes().keySet()) {
-        otherFindings.add(new Fresco(description));
-    }
-    for (int i = 0; i < 10; i++) {
-        otherFindings.add(new SnakeGoddess("Snake Goddess Statue", 5));
-    }
-
-    placeRareFindings(rareFindings);
-
-    Collections.shuffle(otherFindings);
-
-    for (Path path : board.getPaths()) {
-        for (int pos : new int[]{1, 3, 5, 7, 8}) {
-            if (path.getPositions()[pos] instanceof FindingPosition) {
-                FindingPosition findingPosition = (FindingPosition) path.getPositions()[pos];
-                if (!findingPosition.isFindingAvailable() && !otherFindings.isEmpty()) {
-                    findingPosition.setFinding(otherFindings.remove(0));
-                }
-            }
-        }
-    }
-}
-
-
-
-
-
-/**
- * Places rare findings in their respective paths on the board.
- * 
- * @param rareFindings the list of RareFinding instances to place
- * @pre rareFindings is not null
- * @post each rare finding is placed in a specific position on the board based on its description
- */
-private void placeRareFindings(List<RareFinding> rareFindings) {
-    Map<String, String> palaceMapping = new HashMap<>();
-    palaceMapping.put("Phaistos Disc", "Phaistos");
-    palaceMapping.put("Minoas Ring (Knossos)", "Knossos");
-    palaceMapping.put("Malia Jewel", "Malia");
-    palaceMapping.put("Zakros Rhyton", "Zakros");
-
-    for (RareFinding rareFinding : rareFindings) {
-        String palaceName = palaceMapping.get(rareFinding.getDescription());
-        for (Path path : board.getPaths()) {
-            if (path.getPalaceName().equals(palaceName)) {
-                List<Integer> positions = Arrays.asList(1, 3, 5, 7, 8);
-                Collections.shuffle(positions);
-                for (int pos : positions) {
-                    if (path.getPositions()[pos] instanceof FindingPosition) {
-                        FindingPosition findingPosition = (FindingPosition) path.getPositions()[pos];
-                        if (!findingPosition.isFindingAvailable()) {
-                            findingPosition.setFinding(rareFinding);
-                            break;
-                        }
-                    }
-                }
-                break;
-            }
-        }
-    }
-}
-
-
-
-
-
     /**
      * Deals the initial cards to each player.
      * 
@@ -214,11 +175,7 @@ private void placeRareFindings(List<RareFinding> rareFindings) {
      * @post each player is dealt 8 cards from the deck
      */
     public void dealInitialCards() {
-        for (Player player : players) {
-            for (int i = 0; i < 8; i++) {
-                drawCard(player);
-            }
-        }
+        engine.dealInitialCards();
     }
 
 
@@ -233,7 +190,7 @@ private void placeRareFindings(List<RareFinding> rareFindings) {
      * @post the current player is returned
      */
     public Player getCurrentPlayer() {
-        return players.get(currentPlayerIndex);
+        return engine.getCurrentPlayer();
     }
 
 
@@ -255,40 +212,6 @@ private void placeRareFindings(List<RareFinding> rareFindings) {
 
 
 
-    /**
-     * Ends the current player's turn and starts the next player's turn.
-     * also logic for the immobilized pawns and the must immobilazation for 1 round
-     * @pre none
-     * @post the current player's turn is ended, and the next player's turn is started
-     */
-    public void endTurn() {
-        Player currentPlayer = controller.getCurrentPlayer();
-       // System.out.println("Ending turn for player: " + currentPlayer.getName());
-    
-        for (Player player : players) {
-            for (Pawn pawn : player.getPawns()) {
-                if (pawn.getImmobilizedTurns() > 0) {
-                    pawn.setImmobilizedTurns(pawn.getImmobilizedTurns() - 1);
-                    if (pawn.getImmobilizedTurns() == 0) {
-                        pawn.setImmobilized(false);
-                        view.updatePawnAppearance(pawn, getPathIndex(pawn.getPath()), players.indexOf(player));
-                    }
-                }
-            }
-        }
-    
-        currentPlayerIndex = (currentPlayerIndex + 1) % players.size(); 
-        Player nextPlayer = players.get(currentPlayerIndex);
-      //  System.out.println("Next player: " + nextPlayer.getName());
-        controller.setCurrentPlayer(nextPlayer); 
-        view.updatePlayerHandButtons(); 
-        controller.startTurn();
-    }
-
-
-
-
-
      /**
      * Returns the board.
      * 
@@ -305,215 +228,20 @@ private void placeRareFindings(List<RareFinding> rareFindings) {
 
 
     /**
-     * Handles a finding at the specified position on the specified path for the specified player.
+     * Returns the rules engine that this model adapts to the Swing client.
      * 
-     * @param player the Player instance
-     * @param pathName the name of the path
-     * @param position the position on the path
-     * @return true if the finding was handled, false otherwise
-     * @pre player, pathName, and position are valid
-     * @post the finding is handled if available, and the player's score is updated
-     */
-    public boolean handleFinding(Player player, String pathName, int position) {
-        Path path = getPathByName(pathName);
-        if (path != null && path.getPositions()[position] instanceof FindingPosition) {
-            FindingPosition findingPosition = (FindingPosition) path.getPositions()[position];
-            if (findingPosition.isFindingAvailable()) {
-                Finding finding = findingPosition.getFinding();
-                
-            
-                if (finding instanceof Fresco) {
-                    if (finding.getPhotographedBy() != null && finding.getPhotographedBy().equals(player)) {
-                        JOptionPane.showMessageDialog(null, "You have already photographed this fresco.", "Fresco Already Photographed", JOptionPane.INFORMATION_MESSAGE);
-                        return false;
-                    }
-                } else {
-                   
-                    if (finding.getPhotographedBy() != null && !finding.getPhotographedBy().equals(player)) {
-                        JOptionPane.showMessageDialog(null, "This finding has already been claimed by another player.", "Finding Already Claimed", JOptionPane.INFORMATION_MESSAGE);
-                     //   System.out.println("Debug: Finding " + finding.getDescription() + " has already been claimed by player " + finding.getPhotographedBy().getName());
-                        return false;
-                    }
-                }
-    
-               
-                Pawn pawn = player.getPawnInPath(pathName);
-                if (pawn != null && pawn.getType().equals("Theseus")) {
-                    if (pawn.getFindingsDestroyed() >= 3) {
-                        JOptionPane.showMessageDialog(null, "This Theseus has already destroyed the maximum of 3 findings.", "Cannot Destroy Finding", JOptionPane.INFORMATION_MESSAGE);
-                        return false; 
-                    }
-    
-                    
-                    boolean destroy = view.showDestroyFindingDialog(finding);
-                    if (destroy) {
-                        findingPosition.setFinding(null); 
-                        pawn.incrementFindingsDestroyed(); 
-                        JOptionPane.showMessageDialog(null, "The finding has been destroyed.", "Finding Destroyed", JOptionPane.INFORMATION_MESSAGE);
-                      //  System.out.println("Debug: Player " + player.getName() + " has destroyed the finding: " + finding.getDescription());
-                        view.updatePlayerScore(player); 
-                       
-                    pawn.setHidden(false);
-                    int pathIndex = getPathIndex(pathName);
-                    int playerIndex = players.indexOf(player);
-                    view.movePawnOnBoard(pawn, pathIndex, playerIndex);
-
-
-                        return true; 
-                    } else {
-                        return false; 
-                    }
-                } else {
-                   
-                    Object[] options = {"Yes", "No"};
-                    int response = JOptionPane.showOptionDialog(null,
-                            "Do you want to open the finding?",
-                            "Open Finding",
-                            JOptionPane.YES_NO_OPTION,
-                            JOptionPane.QUESTION_MESSAGE,
-                            null,
-                            options,
-                            options[0]);
-                    if (response == JOptionPane.YES_OPTION) {
-                        if (finding instanceof Fresco) {
-                            player.addFinding(finding);
-                            finding.setPhotographedBy(player); 
-                            view.showFindingDialog(finding, "Fresco Found");
-                         //   System.out.println("Debug: Player " + player.getName() + " has photographed the fresco: " + finding.getDescription());
-                        } else if (finding instanceof RareFinding || finding instanceof SnakeGoddess) {
-                            player.addFinding(finding);
-                            finding.setPhotographedBy(player); 
-                            findingPosition.setFinding(null); 
-                            view.showFindingDialog(finding, "Finding Claimed");
-                           // System.out.println("Debug: Player " + player.getName() + " has claimed the finding: " + finding.getDescription());
-    
-                           
-                            if (finding instanceof SnakeGoddess) {
-                                System.out.println("Snake Goddess statue found by " + player.getName());
-                                int statueCount = countStatues(player);
-                                System.out.println("Updated statue count for " + player.getName() + ": " + statueCount);
-                            }
-    
-                            view.updateStatuesLabel(player);
-    
-                        
-                            if (finding instanceof RareFinding) {
-                                view.updateRareFindingIcon(player, finding.getDescription());
-                            }
-                        }
-                       
-                        view.updatePlayerScore(player);
-
-                        
-                    pawn.setHidden(false);
-                    int pathIndex = getPathIndex(pathName);
-                    int playerIndex = players.indexOf(player);
-                    view.movePawnOnBoard(pawn, pathIndex, playerIndex);
-
-
-                        return true; 
-
-
-                    }
-                }
-            }
-        }
-        return false; 
-    }
-   
-    
-
-
-
-
-
-/**
- * Returns the path with the specified name.
- * 
- * @param pathName the name of the path
- * @return the Path instance with the specified name, or null if not found
- * @pre pathName is not null
- * @post the path with the specified name is returned, or null if not found
- */
-    private Path getPathByName(String pathName) {
-        for (Path path : board.getPaths()) {
-            if (path.getPalaceName().equals(pathName)) {
-                return path;
-            }
-        }
-        return null;
-    }
-
-    
-
-
-
-
-
-    /**
-     * Checks if a pawn can be placed on the specified palace for the specified player.
-     * 
-     * @param player the Player instance
-     * @param palace the name of the palace
-     * @return true if the pawn can be placed, false otherwise
-     * @pre player and palace are valid
-     * @post returns true if the pawn can be placed, false otherwise
-     */
-    public boolean canPlacePawn(Player player, String palace) {
-        return !player.hasPawnInPath(palace);
-    }
-
-
-
-
-
-
-
-     /**
-     * Places a pawn on the specified palace for the specified player.
-     * 
-     * @param player the Player instance
-     * @param palace the name of the palace
-     * @param pawn the Pawn instance to place
-     * @pre player, palace, and pawn are valid
-     * @post the pawn is placed on the specified palace for the specified player
+     * @return the RulesEngine instance
+     * @pre none
+     * @post the rules engine is returned
      */
-    public void placePawn(Player player, String palace, Pawn pawn) {
-     //   System.out.println("Placing new pawn at position: " + pawn.getPosition());
-     //   System.out.println("Pawn type before placing: " + pawn.getType());
-        pawn.setPath(palace);
-        pawn.setPosition(0); // Set the initial position to 0
-        player.addPawnPath(palace);
-      //  System.out.println("Pawn type after placing: " + pawn.getType());
-    
-       
-        if (pawn.getType().equals("Archaeologist")) {
-            player.decrementArchaeologistCount();
-        } else if (pawn.getType().equals("Theseus")) {
-            player.decrementTheseusCount();
-        }
-
-        
-        pawn.setHidden(true);
-    
-       
-        int pathIndex = getPathIndex(palace);
-        int playerIndex = players.indexOf(player);
-        view.addPawnToBoard(pawn, pathIndex, playerIndex);
-        
-         
-        view.updatePlayerScore(player);
-        
-    //    System.out.println("Remaining Archaeologists: " + player.getArchaeologistCount());
-    //  System.out.println("Remaining Theseus: " + player.getTheseusCount());
+    public RulesEngine getEngine() {
+        return engine;
     }
 
 
 
 
 
-
-
 /**
      * Sets the controller.
      * 
@@ -529,201 +257,100 @@ public void setController(GameController controller) {
 
 
 
-
-
-
     /**
-     * Moves a pawn to the specified new position.
+     * Ends the current player's turn and starts the next player's turn.
      * 
-     * @param pawn the Pawn instance to move
-     * @param newPosition the new position to move the pawn to
-     * @pre pawn and newPosition are valid
-     * @post the pawn is moved to the specified new position
+     * @pre none
+     * @post the current player's turn is ended, and the next player's turn is started
      */
-    public void movePawn(Pawn pawn, int newPosition) {
-    if (pawn.isImmobilized()) {
-        view.displayInvalidMove("This Theseus is immobilized and cannot move this turn.");
-      //  System.out.println("Invalid move. This Theseus is immobilized and cannot move this turn.");
-        return;
+    public void endTurn() {
+        Player nextPlayer = engine.endTurn();
+        controller.setCurrentPlayer(nextPlayer); 
+        view.updatePlayerHandButtons(); 
+        controller.startTurn();
     }
 
- //   System.out.println("Moving pawn to new position: " + newPosition);
- //   System.out.println("Pawn type before moving: " + pawn.getType());
-    pawn.setPosition(newPosition);
- //   System.out.println("Pawn type after moving: " + pawn.getType());
 
-  
-    if (pawn.getImmobilizedTurns() > 0) {
-        pawn.setImmobilizedTurns(pawn.getImmobilizedTurns() - 1);
-        if (pawn.getImmobilizedTurns() == 0) {
-            pawn.setImmobilized(false);
-        }
-    }
 
-    
-    int pathIndex = getPathIndex(pawn.getPath());
-    int playerIndex = players.indexOf(pawn.getPlayer());
-    view.movePawnOnBoard(pawn, pathIndex, playerIndex);
 
-    
-    if (newPosition == 8) {
-        String palaceName = pawn.getPath();
-        String message = PALACE_TEXTS.get(palaceName);
-        if (message != null) {
-            view.showPalaceReachedDialog(palaceName, message); 
-        }
+
+ /**
+     * Draws a card for the specified player.
+     * 
+     * @param player the Player instance
+     * @return the drawn Card instance, or null if the deck is empty
+     * @pre player is not null
+     * @post a card is drawn from the deck and added to the player's hand
+     */
+    public Card drawCard(Player player) {
+        return engine.drawCard(player);
     }
 
-    
-    handleFinding(pawn.getPlayer(), pawn.getPath(), newPosition);
 
-    
-    view.updatePlayerScore(pawn.getPlayer());
 
-    
-    Player opponent = players.get((players.indexOf(pawn.getPlayer()) + 1) % players.size());
-    Pawn opponentPawn = opponent.getPawnInPath(pawn.getPath());
-    if (opponentPawn != null) {
-        int opponentPosition = opponentPawn.getPosition();
-        int opponentX = 250 + opponentPosition * 100;
-        int opponentY = 50 + pathIndex * 110;
-        if (pathIndex > 0) {
-            opponentY += 40;
-        }
-        if (players.indexOf(opponent) == 1) {
-            opponentY += 30;
-        }
-     //   System.out.println("Opponent's pawn coordinates: x = " + opponentX + ", y = " + opponentY);
-    } else {
-      //  System.out.println("No opponent's pawn in the same path.");
-    }
-}
 
-    
+
+    /**
+     * Plays a card for the specified player.
+     * 
+     * @param player the Player instance
+     * @param card the Card instance to play
+     * @param cardPlayedOrDiscarded a flag indicating if a card has already been played or discarded
+     * @return true if the card was played successfully, false otherwise
+     * @pre player and card are valid
+     * @post the card is played, and the player's hand is updated
+     */
+    public boolean playCard(Player player, Card card, boolean cardPlayedOrDiscarded) {
+        return engine.playCard(player, card, cardPlayedOrDiscarded);
+    }
 
 
 
 
 
- /**
-     * Draws a card for the specified player.
+    /**
+     * Discards a card for the specified player.
      * 
      * @param player the Player instance
-     * @return the drawn Card instance
-     * @pre player is not null
-     * @post a card is drawn from the deck and added to the player's hand
+     * @param card the Card instance to discard
+     * @param cardPlayedOrDiscarded a flag indicating if a card has already been played or discarded
+     * @return true if the card was discarded successfully, false otherwise
+     * @pre player and card are valid
+     * @post the card is discarded, and the player's hand is updated
      */
-public Card drawCard(Player player) {
-  //  System.out.println("GameModel: Drawing a card for player: " + player.getName());
-    Card drawnCard = deck.drawCard();
-    if (drawnCard != null) {
-        player.addCardToHand(drawnCard);
-        view.updateRemainingCards(getRemainingCards());
-        // System.out.println(player.getName() + " drew a card: " + drawnCard);
-    } else {
-        view.displayDeckEmpty();
-        endGame(); // End the game if the deck is empty
+    public boolean discardCard(Player player, Card card, boolean cardPlayedOrDiscarded) {
+        return engine.discardCard(player, card, cardPlayedOrDiscarded);
     }
-    return drawnCard;
-}
 
 
 
 
 
      /**
-     * Plays an Ariadne card for the specified player in the specified palace.
+     * Returns the number of remaining cards in the deck.
      * 
-     * @param player the Player instance
-     * @param palace the name of the palace
-     * @return true if the card was played successfully, false otherwise
-     * @pre player and palace are valid
-     * @post the Ariadne card is played, and the player's pawn is moved forward
+     * @return the number of remaining cards
+     * @pre none
+     * @post the number of remaining cards is returned
      */
-    public boolean playAriadneCard(Player player, String palace) {
-      //  System.out.println("Playing Ariadne card for player: " + player.getName() + " in palace: " + palace);
-    
-        if (!player.hasPawnInPath(palace)) {
-          //  System.out.println("Player has no pawn in the path of the palace.");
-            view.displayInvalidMove("Player has no pawn in the path of the palace.");
-            return false; 
-        }
-    
-        Pawn playerPawn = player.getPawnInPath(palace);
-        if (playerPawn.isImmobilized()) {
-            view.displayInvalidMove("This Theseus is immobilized and cannot move this turn.");
-          //  System.out.println("Invalid move. This Theseus is immobilized and cannot move this turn.");
-            return false;
-        }
-    
-        int previousPosition = playerPawn.getPosition();
-        int intermediatePosition = previousPosition + 1; 
-        int finalPosition = previousPosition + 2; 
-    
-     //   System.out.println("Moving player's pawn 1 step forward in palace: " + palace);
-        movePawn(playerPawn, intermediatePosition); 
-    
-     //   System.out.println("Moving player's pawn another step forward in palace: " + palace);
-        movePawn(playerPawn, finalPosition); // Move another step forward
-    
-        return true;
+    public int getRemainingCards() {
+        return deck.getRemainingCards();
     }
 
 
 
 
 
-
-     /**
-     * Plays a Minotaur card for the specified player in the specified palace.
+    /**
+     * Returns the index of the specified palace.
      * 
-     * @param player the Player instance
      * @param palace the name of the palace
-     * @return true if the card was played successfully, false otherwise
-     * @pre player and palace are valid
-     * @post the Minotaur card is played, and the opponent's pawn is affected
+     * @return the index of the palace
+     * @pre palace is valid
+     * @post the index of the palace is returned
      */
-    public boolean playMinotaurCard(Player player, String palace) {
-        Player opponent = controller.getNextPlayer(); 
-     //   System.out.println("Playing Minotaur card for player: " + player.getName() + " in palace: " + palace);
-    
-        if (!opponent.hasPawnInPath(palace)) {
-         //   System.out.println("Opponent has no pawn in the path of the palace.");
-            view.displayInvalidMove("Opponent has no pawn in the path of the palace.");
-            return false; 
-        }
-    
-        Pawn opponentPawn = opponent.getPawnInPath(palace);
-    
-        
-        if (opponentPawn.getPosition() >= 6) {
-          //  System.out.println("Invalid move. Opponent's pawn is in step 7 or greater.");
-            view.displayInvalidMove("Invalid move. Opponent's pawn has claimed the checkpoint!.");
-            return false;
-        }
-
-        
-        opponentPawn.setHidden(false);
-    
-       
-        if (opponentPawn.getType().equals("Theseus")) {
-            opponentPawn.setImmobilized(true);
-            opponentPawn.setImmobilizedTurns(2); 
-          //  System.out.println("Opponent's Theseus is immobilized for the next turn in palace: " + palace);
-        } else {
-            int previousPosition = opponentPawn.getPosition();
-            int newPosition = Math.max(0, previousPosition - 2); 
-          //  System.out.println("Moving opponent's pawn 2 steps back in palace: " + palace);
-            movePawn(opponentPawn, newPosition);
-        }
-    
-        view.updatePlayerScore(opponent);
-
-        int pathIndex = getPathIndex(palace);
-        int playerIndex = players.indexOf(opponent);
-        view.movePawnOnBoard(opponentPawn, pathIndex, playerIndex);
-    
-        return true;
+    public int getPathIndex(String palace) {
+        return engine.getPathIndex(palace);
     }
 
 
@@ -739,529 +366,374 @@ public Card drawCard(Player player) {
      * @post the total score of the player is returned
      */
     public int calculateTotalScore(Player player) {
-        int totalScore = 0;
-    
-        for (Finding finding : player.getFindings()) {
-            if (finding instanceof RareFinding) {
-                totalScore += ((RareFinding) finding).getScore();
-            }
-        }
-    
-        for (Finding finding : player.getFindings()) {
-            if (finding instanceof Fresco) {
-                totalScore += ((Fresco) finding).getScore();
-            }
-        }
-    
-        int statueCount = countStatues(player);
-        totalScore += getStatueScore(statueCount);
-    
-        for (Pawn pawn : player.getPawns()) {
-            totalScore += getPositionScore(pawn);
-        }
-    
-        return totalScore;
+        return engine.calculateTotalScore(player);
     }
 
 
 
 
 
-
     /**
-     * Plays a number card for the specified player.
+     * Returns the number of statues for the specified player.
      * 
      * @param player the Player instance
-     * @param card the NumberCard instance to play
-     * @return true if the card was played successfully, false otherwise
-     * @pre player and card are valid
-     * @post the number card is played, and the player's pawn is moved forward
+     * @return the number of statues
+     * @pre player is not null
+     * @post the number of statues is returned
      */
-    public boolean playNumberCard(Player player, NumberCard card) {
-        String palace = card.getPalace();
-        int cardValue = card.getValue();
-        int highestValueCard = player.getHighestValueCard(palace);
-    
-        if (cardValue < highestValueCard) {
-            view.displayInvalidMove("Card value must be equal or greater than the highest value card previously played.");
-          //  System.out.println("Invalid move. Card value must be equal or greater than the highest value card previously played.");
-            return false;
-        }
-    
-        if (!player.hasPawnInPath(palace)) {
-            if (player.getArchaeologistCount() == 0 && player.getTheseusCount() == 0) {
-                view.displayInvalidMove("No available pawns to place.");
-              //  System.out.println("No available pawns to place.");
-                return false;
-            }
-    
-            Pawn pawn = view.promptPlayerToChoosePawn(player);
-            if (pawn == null) {
-             //   System.out.println("No pawn selected.");
-                return false;
-            }
-    
-            if (!canPlacePawn(player, palace)) {
-                view.displayInvalidMove("You can only place one pawn per path.");
-              //  System.out.println("Cannot place more than one pawn per path.");
-                return false;
-            }
-         //   System.out.println("Placing new pawn in palace: " + palace);
-            placePawn(player, palace, pawn);
-            view.updateRemainingPawns(player); 
-            player.addPawnPath(palace); 
-        } else {
-            Pawn existingPawn = player.getPawnInPath(palace);
-            if (existingPawn.isImmobilized()) {
-                view.displayInvalidMove("This Theseus is immobilized and cannot move this turn.");
-              //  System.out.println("Invalid move. This Theseus is immobilized and cannot move this turn.");
-                return false;
-            }
-          //  System.out.println("Moving existing pawn to next position in palace: " + palace);
-            movePawn(existingPawn, existingPawn.getPosition() + 1);
-        }
-    
-        player.updateHighestValueCard(palace, cardValue);
-        return true;
+    public int countStatues(Player player) {
+        return engine.countStatues(player);
     }
 
 
 
 
 
-
     /**
-     * Plays a card for the specified player.
+     * Shows the reason a move was rejected.
      * 
-     * @param player the Player instance
-     * @param card the Card instance to play
-     * @param cardPlayedOrDiscarded a flag indicating if a card has already been played or discarded
-     * @return true if the card was played successfully, false otherwise
-     * @pre player and card are valid
-     * @post the card is played, and the player's hand is updated
+     * @param player the player who attempted the move
+     * @param message the reason the move was rejected
+     * @pre player and message are not null
+     * @post the message is displayed by the view
      */
-    public boolean playCard(Player player, Card card, boolean cardPlayedOrDiscarded) {
-      //  System.out.println("Starting playCard in GameModel with card: " + card);
-        if (cardPlayedOrDiscarded) {
-            view.displayInvalidMove("You can only play or discard one card per turn.");
-          //  System.out.println("Card already played or discarded.");
-            return false;
-        }
-    
-        boolean cardPlayedSuccessfully = false;
-    
-        if (card instanceof NumberCard) {
-            cardPlayedSuccessfully = playNumberCard(player, (NumberCard) card);
-        } else if (card instanceof AriadneCard) {
-            String palace = ((AriadneCard) card).getPalace();
-         //   System.out.println("Playing Ariadne card in palace: " + palace);
-            cardPlayedSuccessfully = playAriadneCard(player, palace);
-            if (cardPlayedSuccessfully) {
-                Pawn playerPawn = player.getPawnInPath(palace);
-                if (playerPawn.isImmobilized()) {
-                    view.displayInvalidMove("This Theseus is immobilized and cannot move this turn.");
-                 //   System.out.println("Invalid move. This Theseus is immobilized and cannot move this turn.");
-                    return false;
-                }
-                view.movePawnOnBoard(playerPawn, getPathIndex(palace), getPlayers().indexOf(player));
-            }
-        } else if (card instanceof MinotaurCard) {
-            String palace = ((MinotaurCard) card).getPalace();
-          //  System.out.println("Playing Minotaur card in palace: " + palace);
-            cardPlayedSuccessfully = playMinotaurCard(player, palace);
-            if (cardPlayedSuccessfully) {
-                Player opponent = controller.getNextPlayer();
-                Pawn opponentPawn = opponent.getPawnInPath(palace);
-                view.movePawnOnBoard(opponentPawn, getPathIndex(palace), getPlayers().indexOf(opponent));
-            }
-        }
-    
-        if (!cardPlayedSuccessfully) {
-            return false;
-        }
-    
-        player.getHand().remove(card);
-        view.displayBoard();
-        view.displayPlayerHand(player);
-        int playerIndex = getPlayers().indexOf(player);
-        if (card instanceof NumberCard) {
-            String palace = ((NumberCard) card).getPalace(); 
-            ImageIcon cardIcon = new ImageIcon(((NumberCard) card).getIcon().getImage().getScaledInstance(60, 100, Image.SCALE_SMOOTH));
-            if (palace.equals("Knossos")) {
-                view.updatePlayedKnossosCard(cardIcon, true, playerIndex); 
-            } else if (palace.equals("Phaistos")) {
-                view.updatePlayedPhaistosCard(cardIcon, true, playerIndex); 
-            } else if (palace.equals("Malia")) {
-                view.updatePlayedMaliaCard(cardIcon, true, playerIndex); 
-            } else if (palace.equals("Zakros")) {
-                view.updatePlayedZakrosCard(cardIcon, true, playerIndex); 
-            }
-        }
-
-       
-    if (checkEndGameCondition()) {
-        endGame();
+    @Override
+    public void invalidMove(Player player, String message) {
+        view.displayInvalidMove(message);
     }
 
 
-      //  System.out.println("Card played successfully in GameModel with card: " + card);
-        return true;
-    }
-
 
 
+    /**
+     * Shows an informational message of the rules in a dialog.
+     * 
+     * @param player the player the message concerns
+     * @param title a short title for the message
+     * @param message the message text
+     * @pre player, title and message are not null
+     * @post the message is displayed in a dialog
+     */
+    @Override
+    public void notice(Player player, String title, String message) {
+        JOptionPane.showMessageDialog(null, message, title, JOptionPane.INFORMATION_MESSAGE);
+    }
 
 
 
 
     /**
-     * Discards a card for the specified player.
+     * Adds a placed pawn to the board and updates the remaining pawns of its player.
      * 
-     * @param player the Player instance
-     * @param card the Card instance to discard
-     * @param cardPlayedOrDiscarded a flag indicating if a card has already been played or discarded
-     * @return true if the card was discarded successfully, false otherwise
-     * @pre player and card are valid
-     * @post the card is discarded, and the player's hand is updated
+     * @param player the owner of the pawn
+     * @param pawn the placed pawn
+     * @pre player and pawn are not null
+     * @post the pawn is shown on the board
      */
-public boolean discardCard(Player player, Card card, boolean cardPlayedOrDiscarded) {
-    if (cardPlayedOrDiscarded) {
-        view.displayInvalidMove("You can only play or discard one card per turn.");
-        return false;
+    @Override
+    public void pawnPlaced(Player player, Pawn pawn) {
+        view.addPawnToBoard(pawn, getPathIndex(pawn.getPath()), players.indexOf(player));
+        view.updateRemainingPawns(player);
     }
 
-    String cardDescription = card.toString();
-    int response = JOptionPane.showConfirmDialog(null, "Do you want to discard this card: " + cardDescription + "?", "Discard Card", JOptionPane.YES_NO_OPTION);
-    if (response == JOptionPane.YES_OPTION) {
-        player.getHand().remove(card);
-        view.displayPlayerHand(player); 
-      //  System.out.println(player.getName() + "'s hand after discarding a card: " + player.getHand());
-        return true;
-    }
-    return false;
-}
 
 
 
+    /**
+     * Moves a pawn on the board, or redraws it after it was revealed or immobilized.
+     * 
+     * @param player the owner of the pawn
+     * @param pawn the pawn that changed
+     * @pre player and pawn are not null
+     * @post the pawn is shown at its current position
+     */
+    @Override
+    public void pawnMoved(Player player, Pawn pawn) {
+        view.movePawnOnBoard(pawn, getPathIndex(pawn.getPath()), players.indexOf(player));
+    }
 
 
 
 
-     /**
-     * Returns the number of remaining cards in the deck.
+    /**
+     * Redraws a pawn that is no longer immobilized.
      * 
-     * @return the number of remaining cards
-     * @pre none
-     * @post the number of remaining cards is returned
+     * @param player the owner of the pawn
+     * @param pawn the released pawn
+     * @pre player and pawn are not null
+     * @post the pawn is shown as free to move
      */
-    public int getRemainingCards() {
-        return deck.getRemainingCards();
+    @Override
+    public void pawnReleased(Player player, Pawn pawn) {
+        view.updatePawnAppearance(pawn, getPathIndex(pawn.getPath()), players.indexOf(player));
     }
 
 
 
 
-
-
     /**
-     * Returns the index of the specified palace.
+     * Shows the text of a palace when a pawn reaches it.
      * 
-     * @param palace the name of the palace
-     * @return the index of the palace
-     * @pre palace is valid
-     * @post the index of the palace is returned
+     * @param player the owner of the pawn
+     * @param palace the name of the palace reached
+     * @pre player and palace are not null
+     * @post the dialog of the palace is shown, if the palace has a text
      */
-    public int getPathIndex(String palace) {
-        switch (palace) {
-            case "Knossos":
-                return 0;
-            case "Phaistos":
-                return 1;
-            case "Malia":
-                return 2;
-            case "Zakros":
-                return 3;
-            default:
-                throw new IllegalArgumentException("Invalid palace: " + palace);
+    @Override
+    public void palaceReached(Player player, String palace) {
+        String message = PALACE_TEXTS.get(palace);
+        if (message != null) {
+            view.showPalaceReachedDialog(palace, message);
         }
     }
-   
-
-
 
 
 
 
     /**
-     * Ends the game and determines the winner.
+     * Shows a claimed finding and updates the statues and rare findings of the player.
      * 
-     * @pre none
-     * @post the game is ended, scores are updated, and the winner is determined
+     * @param player the player who opened the finding
+     * @param finding the finding
+     * @pre player and finding are not null
+     * @post the finding is shown and the labels of the player are updated
      */
-    private void endGame() {
-        for (Player player : players) {
-            player.setScore(calculateTotalScore(player));
+    @Override
+    public void findingClaimed(Player player, Finding finding) {
+        if (finding instanceof Fresco) {
+            view.showFindingDialog(finding, "Fresco Found");
+            return;
         }
-    
-        Player winner = determineWinner();
-        String message;
-        
-        if (winner != null) {
-            message = "Winner: " + winner.getName() + " with score: " + winner.getScore();
-        } else {
-            message = "The game is a draw.";
+        view.showFindingDialog(finding, "Finding Claimed");
+        view.updateStatuesLabel(player);
+        if (finding instanceof RareFinding) {
+            view.updateRareFindingIcon(player, finding.getDescription());
         }
-        
-        JOptionPane.showMessageDialog(null, message, "Game Over", JOptionPane.INFORMATION_MESSAGE);
-        
-        System.exit(0);
     }
 
 
 
 
+    /**
+     * Tells the player that a finding was destroyed.
+     * 
+     * @param player the owner of the Theseus pawn
+     * @param finding the destroyed finding
+     * @pre player and finding are not null
+     * @post a dialog about the destroyed finding is shown
+     */
+    @Override
+    public void findingDestroyed(Player player, Finding finding) {
+        JOptionPane.showMessageDialog(null, "The finding has been destroyed.", "Finding Destroyed", JOptionPane.INFORMATION_MESSAGE);
+    }
 
 
 
 
     /**
-     * Checks if the end game condition is met.
+     * Updates the score of a player in the view.
      * 
-     * @return true if the end game condition is met, false otherwise
-     * @pre none
-     * @post returns true if the end game condition is met, false otherwise
+     * @param player the player whose score changed
+     * @pre player is not null
+     * @post the score of the player is displayed
      */
-    private boolean checkEndGameCondition() {
-        int pawnsAtCheckpoint = 0;
-        for (Player player : players) {
-            for (Pawn pawn : player.getPawns()) {
-                if (pawn.getPosition() >= 6) { 
-                    pawnsAtCheckpoint++;
-                }
-            }
-        }
-        return deck.isEmpty() || pawnsAtCheckpoint >= 4;
+    @Override
+    public void scoreChanged(Player player) {
+        view.updatePlayerScore(player);
     }
 
 
 
 
-
-
     /**
-     * Determines the winner of the game.
+     * Redraws the board and the hand after a card was played, and shows a played number card on the pile of its palace.
      * 
-     * @return the Player instance who is the winner, or null if it's a draw
-     * @pre none
-     * @post the winner of the game is determined and returned, or null if it's a draw
+     * @param player the player who played the card
+     * @param card the played card
+     * @pre player and card are not null
+     * @post the board, the hand and the played cards are displayed
      */
-    private Player determineWinner() {
-        Player player1 = players.get(0);
-        Player player2 = players.get(1);
-    
-        if (player1.getScore() > player2.getScore()) {
-            return player1;
-        } else if (player1.getScore() < player2.getScore()) {
-            return player2;
-        }
-    
-        int player1RareFindings = countRareFindings(player1);
-        int player2RareFindings = countRareFindings(player2);
-        if (player1RareFindings > player2RareFindings) {
-            return player1;
-        } else if (player1RareFindings < player2RareFindings) {
-            return player2;
-        }
-    
-        int player1Frescoes = countFrescoes(player1);
-        int player2Frescoes = countFrescoes(player2);
-        if (player1Frescoes > player2Frescoes) {
-            return player1;
-        } else if (player1Frescoes < player2Frescoes) {
-            return player2;
-        }
-    
-        int player1Statues = countStatues(player1);
-        int player2Statues = countStatues(player2);
-        if (player1Statues > player2Statues) {
-            return player1;
-        } else if (player1Statues < player2Statues) {
-            return player2;
+    @Override
+    public void cardPlayed(Player player, Card card) {
+        view.displayBoard();
+        view.displayPlayerHand(player);
+        if (card instanceof NumberCard) {
+            int playerIndex = players.indexOf(player);
+            String palace = card.getPalace();
+            ImageIcon cardIcon = view.getCardIcon(card.getId());
+            if (palace.equals("Knossos")) {
+                view.updatePlayedKnossosCard(cardIcon, true, playerIndex); 
+            } else if (palace.equals("Phaistos")) {
+                view.updatePlayedPhaistosCard(cardIcon, true, playerIndex); 
+            } else if (palace.equals("Malia")) {
+                view.updatePlayedMaliaCard(cardIcon, true, playerIndex); 
+            } else if (palace.equals("Zakros")) {
+                view.updatePlayedZakrosCard(cardIcon, true, playerIndex); 
+            }
         }
-    
-        return null;
     }
-    
-    
 
 
-    
-    
+
+
     /**
-     * Updates the score for the specified player.
+     * Redraws the hand of a player after a discard.
      * 
-     * @param player the Player instance
-     * @pre player is not null
-     * @post the player's score is updated
+     * @param player the player who discarded the card
+     * @param card the discarded card
+     * @pre player and card are not null
+     * @post the hand of the player is displayed
      */
-    public void updatePlayerScore(Player player) {
-        int totalScore = 0;
-    
-        for (Finding finding : player.getFindings()) {
-            totalScore += getFindingScore(finding);
-        }
-    
-        int statueCount = countStatues(player);
-        totalScore += getStatueScore(statueCount);
-    
-        for (Pawn pawn : player.getPawns()) {
-            totalScore += getPositionScore(pawn);
-        }
-    
-        player.setScore(totalScore);
-        view.updatePlayerScore(player); 
+    @Override
+    public void cardDiscarded(Player player, Card card) {
+        view.displayPlayerHand(player);
     }
 
 
 
 
-
-
     /**
-     * Returns the score of the specified finding.
+     * Updates the number of remaining cards after a draw.
      * 
-     * @param finding the Finding instance
-     * @return the score of the finding
-     * @pre finding is not null
-     * @post the score of the finding is returned
+     * @param player the player who drew the card
+     * @param card the drawn card
+     * @pre player and card are not null
+     * @post the remaining cards are displayed
      */
-    private int getFindingScore(Finding finding) {
-        if (finding instanceof RareFinding) {
-            return ((RareFinding) finding).getScore(); 
-        } else if (finding instanceof Fresco) {
-            return ((Fresco) finding).getScore(); 
-        }
-        return 0;
+    @Override
+    public void cardDrawn(Player player, Card card) {
+        view.updateRemainingCards(getRemainingCards());
     }
 
 
 
 
-
-
-     /**
-     * Returns the score of the specified pawn's position.
+    /**
+     * Tells the players that the deck is empty.
      * 
-     * @param pawn the Pawn instance
-     * @return the score of the pawn's position
-     * @pre pawn is not null
-     * @post the score of the pawn's position is returned
+     * @pre none
+     * @post the empty deck is displayed
      */
-    private int getPositionScore(Pawn pawn) {
-        Path path = getPathByName(pawn.getPath());
-        if (path != null) {
-            Position position = path.getPositions()[pawn.getPosition()];
-            int score = position.getScore();
-            if (pawn.getType().equals("Theseus")) {
-                return score * 2; 
-            }
-            return score;
-        }
-        return 0;
+    @Override
+    public void deckEmpty() {
+        view.displayDeckEmpty();
     }
 
 
 
 
-
-
     /**
-     * Returns the score based on the number of statues.
+     * Stops the computer player, announces the winner and exits.
      * 
-     * @param statueCount the number of statues
-     * @return the score based on the number of statues
+     * @param winner the winning player, or null if the game is a draw
      * @pre none
-     * @post the score based on the number of statues is returned, max statues 6
+     * @post the result is shown and the application exits
      */
-    private int getStatueScore(int statueCount) {
-        switch (statueCount) {
-            case 0: return 0;
-            case 1: return -20;
-            case 2: return -15;
-            case 3: return 10;
-            case 4: return 15;
-            case 5: return 30;
-            case 6: return 50;
-            default: return 50; 
+    @Override
+    public void gameOver(Player winner) {
+        controller.stopComputerPlayer();
+        String message;
+        if (winner != null) {
+            message = "Winner: " + winner.getName() + " with score: " + winner.getScore();
+        } else {
+            message = "The game is a draw.";
         }
+        JOptionPane.showMessageDialog(null, message, "Game Over", JOptionPane.INFORMATION_MESSAGE);
+        System.exit(0);
     }
 
 
 
 
-
-   
     /**
-     * Returns the number of rare findings for the specified player.
+     * Chooses the pawn to place on a new path: the computer player decides for its own seat, a person is asked.
      * 
-     * @param player the Player instance
-     * @return the number of rare findings
-     * @pre player is not null
-     * @post the number of rare findings is returned
+     * @param player the player placing the pawn
+     * @param palace the name of the palace of the path
+     * @return the chosen pawn, or null to cancel the move
+     * @pre player and palace are not null
+     * @post the chosen pawn is returned, or null if no pawn is chosen
      */
-    private int countRareFindings(Player player) {
-        int count = 0;
-        for (Finding finding : player.getFindings()) {
-            if (finding instanceof RareFinding) {
-                count++;
-            }
+    @Override
+    public Pawn choosePawn(Player player, String palace) {
+        ComputerPlayer computer = controller.getComputerPlayer();
+        if (computer != null && computer.getPlayer() == player) {
+            return computer.choosePawn();
         }
-        return count;
+        return view.promptPlayerToChoosePawn(player);
     }
 
 
 
 
-
-
-     /**
-     * Returns the number of frescoes for the specified player.
+    /**
+     * Decides whether an archaeologist opens a finding: the computer player decides for its own seat, a person is asked.
      * 
-     * @param player the Player instance
-     * @return the number of frescoes
-     * @pre player is not null
-     * @post the number of frescoes is returned
-     */   
-    private int countFrescoes(Player player) {
-        int count = 0;
-        for (Finding finding : player.getFindings()) {
-            if (finding instanceof Fresco) {
-                count++;
-            }
+     * @param player the owner of the pawn
+     * @param finding the finding at the pawn's position
+     * @return true to open the finding, false to leave it
+     * @pre player and finding are not null
+     * @post returns the player's decision
+     */
+    @Override
+    public boolean confirmOpenFinding(Player player, Finding finding) {
+        ComputerPlayer computer = controller.getComputerPlayer();
+        if (computer != null && computer.getPlayer() == player) {
+            return computer.decideFinding();
         }
-        return count;
+        Object[] options = {"Yes", "No"};
+        int response = JOptionPane.showOptionDialog(null,
+                "Do you want to open the finding?",
+                "Open Finding",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                options,
+                options[0]);
+        return response == JOptionPane.YES_OPTION;
     }
 
 
 
 
-
     /**
-     * Returns the number of statues for the specified player.
+     * Decides whether a Theseus destroys a finding: the computer player decides for its own seat, a person is asked.
      * 
-     * @param player the Player instance
-     * @return the number of statues
-     * @pre player is not null
-     * @post the number of statues is returned
+     * @param player the owner of the pawn
+     * @param finding the finding at the pawn's position
+     * @return true to destroy the finding, false to keep it
+     * @pre player and finding are not null
+     * @post returns the player's decision
      */
-    public int countStatues(Player player) {
-        int count = 0;
-        for (Finding finding : player.getFindings()) {
-            if (finding instanceof SnakeGoddess) {
-                count++;
-            }
+    @Override
+    public boolean confirmDestroyFinding(Player player, Finding finding) {
+        ComputerPlayer computer = controller.getComputerPlayer();
+        if (computer != null && computer.getPlayer() == player) {
+            return computer.decideFinding();
         }
-        return count;
+        return view.showDestroyFindingDialog(finding);
+    }
+
+
+
+
+    /**
+     * Confirms a discard: the computer player always confirms, a person is asked.
+     * 
+     * @param player the player discarding
+     * @param card the card to discard
+     * @return true to discard the card, false to cancel
+     * @pre player and card are not null
+     * @post returns the player's decision
+     */
+    @Override
+    public boolean confirmDiscard(Player player, Card card) {
+        ComputerPlayer computer = controller.getComputerPlayer();
+        if (computer != null && computer.getPlayer() == player) {
+            return true;
+        }
+        int response = JOptionPane.showConfirmDialog(null, "Do you want to discard this card: " + card + "?", "Discard Card", JOptionPane.YES_NO_OPTION);
+        return response == JOptionPane.YES_OPTION;
     }
 
 
@@ -5,51 +5,20 @@ package model;
  * The MinotaurCard class represents a special card associated with a specific palace.
  */
 public class MinotaurCard extends SpecialCard {
-    private static final String IMAGE_PATH_KNOSSOS = "project_assets/images/cards/knossosMin.jpg";
-    private static final String IMAGE_PATH_PHAISTOS = "project_assets/images/cards/phaistosMin.jpg";
-    private static final String IMAGE_PATH_MALIA = "project_assets/images/cards/maliaMin.jpg";
-    private static final String IMAGE_PATH_ZAKROS = "project_assets/images/cards/zakrosMin.jpg";
-
 
     /**
      * Constructs a MinotaurCard with the specified palace.
      * 
      * @param palace the name of the palace
      * @pre palace is not null and is a valid palace name
-     * @post a MinotaurCard is created with the specified palace and corresponding image path
+     * @post a MinotaurCard is created with the specified palace and its id
      */
     public MinotaurCard(String palace) {
-        super(palace, getImagePath(palace));
+        super(palace, CardId.MINOTAUR);
     }
 
 
 
-     /**
-     * Returns the image path for the specified palace.
-     * 
-     * @param palace the name of the palace
-     * @return the image path for the palace
-     * @pre palace is not null and is a valid palace name
-     * @post the image path for the palace is returned
-     */
-    private static String getImagePath(String palace) {
-        switch (palace) {
-            case "Knossos":
-                return IMAGE_PATH_KNOSSOS;
-            case "Phaistos":
-                return IMAGE_PATH_PHAISTOS;
-            case "Malia":
-                return IMAGE_PATH_MALIA;
-            case "Zakros":
-                return IMAGE_PATH_ZAKROS;
-            default:
-                throw new IllegalArgumentException("Unknown palace: " + palace);
-        }
-    }
-
-
-
-
      /**
      * Checks if this card matches the specified card.
      * 
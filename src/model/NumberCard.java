@@ -1,8 +1,5 @@
 package model;
 
-import javax.swing.ImageIcon;
-import java.util.HashMap;
-import java.util.Map;
 
 
 
@@ -12,19 +9,7 @@ import java.util.Map;
  */
 public class NumberCard extends Card {
     private int value;
-    private ImageIcon icon;
-
-
-    private static final Map<String, String> NUMBER_CARD_IMAGES = new HashMap<>();
-    static {
-
-        for (int i = 1; i <= 10; i++) {
-            NUMBER_CARD_IMAGES.put("Knossos_" + i, "project_assets/images/cards/knossos" + i + ".jpg");
-            NUMBER_CARD_IMAGES.put("Phaistos_" + i, "project_assets/images/cards/phaistos" + i + ".jpg");
-            NUMBER_CARD_IMAGES.put("Malia_" + i, "project_assets/images/cards/malia" + i + ".jpg");
-            NUMBER_CARD_IMAGES.put("Zakros_" + i, "project_assets/images/cards/zakros" + i + ".jpg");
-        }
-    }
+    private byte id;
 
 
     /**
@@ -33,13 +18,12 @@ public class NumberCard extends Card {
      * @param palace the name of the palace
      * @param value the value of the card
      * @pre palace is not null and is a valid palace name, value is between 1 and 10
-     * @post a NumberCard is created with the specified palace and value, and the corresponding image path is set
+     * @post a NumberCard is created with the specified palace and value, and its id is set
      */
     public NumberCard(String palace, int value) {
         super(palace);
         this.value = value;
-        String imagePath = NUMBER_CARD_IMAGES.get(palace + "_" + value);
-        this.icon = new ImageIcon(imagePath);
+        this.id = CardId.number(CardId.palaceIndex(palace), value);
     }
 
 
@@ -59,15 +43,15 @@ public class NumberCard extends Card {
 
 
     /**
-     * Returns the icon of the card.
+     * Returns the id of the card.
      * 
-     * @return the icon of the card
+     * @return the CardId of the card
      * @pre none
-     * @post the icon of the card is returned
+     * @post the id of the card is returned
      */
     @Override
-    public ImageIcon getIcon() {
-        return icon;
+    public byte getId() {
+        return id;
     }
 
 
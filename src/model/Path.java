@@ -9,7 +9,9 @@ public class Path {
     private Position[] positions;
     private String[] imagePaths;
     private String palaceName;
-    private static final int CHECKPOINT_POSITION = 6; 
+    public static final int CHECKPOINT_POSITION = 6; 
+    public static final int PALACE_POSITION = 8;
+    private static final int[] POSITION_SCORES = {-20, -15, -10, 5, 10, 15, 30, 35, 50};
 
 
 
@@ -31,19 +33,34 @@ public class Path {
         this.imagePaths = imagePaths;
 
         positions = new Position[9]; 
-        positions[0] = new SimplePosition(-20);
-        positions[1] = new FindingPosition(-15, null);
-        positions[2] = new SimplePosition(-10);
-        positions[3] = new FindingPosition(5, null);
-        positions[4] = new SimplePosition(10);
-        positions[5] = new FindingPosition(15, null);
-        positions[6] = new SimplePosition(30);
-        positions[7] = new FindingPosition(35, null);
-        positions[8] = new FindingPosition(50, null); 
+        positions[0] = new SimplePosition(POSITION_SCORES[0]);
+        positions[1] = new FindingPosition(POSITION_SCORES[1], null);
+        positions[2] = new SimplePosition(POSITION_SCORES[2]);
+        positions[3] = new FindingPosition(POSITION_SCORES[3], null);
+        positions[4] = new SimplePosition(POSITION_SCORES[4]);
+        positions[5] = new FindingPosition(POSITION_SCORES[5], null);
+        positions[6] = new SimplePosition(POSITION_SCORES[6]);
+        positions[7] = new FindingPosition(POSITION_SCORES[7], null);
+        positions[8] = new FindingPosition(POSITION_SCORES[8], null); 
     }
 
 
 
+    /**
+     * Returns the score of a position, the same on every path.
+     * 
+     * @param position the position index
+     * @return the score of the position
+     * @pre position is between 0 and 8 (inclusive)
+     * @post the score of the position is returned
+     */
+    public static int getPositionScore(int position) {
+        return POSITION_SCORES[position];
+    }
+
+
+
+
     /**
      * Returns the positions in the path.
      * 
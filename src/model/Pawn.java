@@ -1,7 +1,7 @@
 package model;
 
 import javax.swing.ImageIcon;
-import java.awt.Image;
+import util.ImageCache;
 
 
 
@@ -21,9 +21,10 @@ public class Pawn {
     private int immobilizedTurns;
     private int findingsDestroyed; 
     private boolean hidden;
-    private static final String ARCHAEOLOGIST_IMAGE_PATH = "project_assets/images/pionia/arch.jpg";
-    private static final String THESEUS_IMAGE_PATH = "project_assets/images/pionia/theseus.jpg";
-    private static final String HIDDEN_IMAGE_PATH = "project_assets/images/pionia/question.jpg"; 
+    public static final String ARCHAEOLOGIST_IMAGE_PATH = "project_assets/images/pionia/arch.jpg";
+    public static final String THESEUS_IMAGE_PATH = "project_assets/images/pionia/theseus.jpg";
+    public static final String HIDDEN_IMAGE_PATH = "project_assets/images/pionia/question.jpg";
+    public static final int ICON_SIZE = 30;
    
    
    
@@ -48,11 +49,6 @@ public class Pawn {
         this.immobilized = false;
         this.immobilizedTurns = 0;
         this.findingsDestroyed = 0;
-        if (type.equals("Archaeologist")) {
-            this.imageIcon = new ImageIcon(new ImageIcon(ARCHAEOLOGIST_IMAGE_PATH).getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH));
-        } else if (type.equals("Theseus")) {
-            this.imageIcon = new ImageIcon(new ImageIcon(THESEUS_IMAGE_PATH).getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH));
-        }
     }
 
 
@@ -94,7 +90,9 @@ public class Pawn {
      * @post the position of the pawn is updated
      */
     public void setPosition(int position) {
+        int before = getPositionScore();
         this.position = position;
+        player.addPositionPoints(getPositionScore() - before);
     }
 
 
@@ -107,7 +105,7 @@ public class Pawn {
      * @post the position of the pawn is updated by the specified number of steps
      */
     public void move(int steps) {
-        position += steps;
+        setPosition(position + steps);
     }
 
 
@@ -162,7 +160,28 @@ public class Pawn {
      * @post the path of the pawn is updated
      */
     public void setPath(String path) {
+        int before = getPositionScore();
         this.path = path;
+        player.addPositionPoints(getPositionScore() - before);
+    }
+
+
+
+
+
+    /**
+     * Returns the points of the position of the pawn: the score of the position, doubled for Theseus.
+     * 
+     * @return the points of the position, or 0 if the pawn is not on a path
+     * @pre none
+     * @post the points of the position are returned
+     */
+    public int getPositionScore() {
+        if (path.isEmpty()) {
+            return 0;
+        }
+        int score = Path.getPositionScore(position);
+        return type.equals("Theseus") ? score * 2 : score;
     }
 
 
@@ -198,13 +217,22 @@ public class Pawn {
 
 
     /**
-     * Returns the image icon of the pawn.
+     * Returns the image icon of the pawn. The icon is created the first time it is requested,
+     * so pawns used by headless games never touch the image files. Each pawn has its own icon
+     * around the shared image, since the view finds the label of a pawn by its icon.
      * 
      * @return the image icon of the pawn
      * @pre none
      * @post the image icon of the pawn is returned
      */
     public ImageIcon getImageIcon() {
+        if (imageIcon == null) {
+            if (type.equals("Archaeologist")) {
+                imageIcon = new ImageIcon(ImageCache.getImage(ARCHAEOLOGIST_IMAGE_PATH, ICON_SIZE, ICON_SIZE));
+            } else if (type.equals("Theseus")) {
+                imageIcon = new ImageIcon(ImageCache.getImage(THESEUS_IMAGE_PATH, ICON_SIZE, ICON_SIZE));
+            }
+        }
         return imageIcon;
     }
 
@@ -339,6 +367,6 @@ public class Pawn {
      * @post the hidden image icon of the pawn is returned
      */
     public ImageIcon getHiddenImageIcon() {
-        return new ImageIcon(new ImageIcon(HIDDEN_IMAGE_PATH).getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH));
+        return ImageCache.getIcon(HIDDEN_IMAGE_PATH, ICON_SIZE, ICON_SIZE);
     }
 }
\ No newline at end of file
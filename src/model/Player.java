@@ -18,12 +18,20 @@ public class Player {
     private String name;
     private List<Pawn> pawns;
     private List<Card> hand;
+    private List<Card> playedCards;
+    private List<Card> discardedCards;
     private int score;
     private List<Finding> findings;
     private List<String> pawnPaths; 
     private int archaeologistCount = 3;
     private int theseusCount = 1;
     private Map<String, Integer> highestValueCards; 
+    private int rareFindingPoints;
+    private int rareFindingCount;
+    private int frescoPoints;
+    private int frescoCount;
+    private int statueCount;
+    private int positionPoints;
     private JLabel scoreLabel; 
 
 
@@ -42,11 +50,12 @@ public class Player {
         this.name = name;
         this.pawns = new ArrayList<>();
         this.hand = new ArrayList<>();
+        this.playedCards = new ArrayList<>();
+        this.discardedCards = new ArrayList<>();
         this.score = 0;
         this.findings = new ArrayList<>();
         this.pawnPaths = new ArrayList<>();
         this.highestValueCards = new HashMap<>(); 
-        this.scoreLabel = new JLabel("Score: " + score); 
 
         pawns.add(new Pawn("Archaeologist", this, "A1"));
         pawns.add(new Pawn("Archaeologist", this, "A2"));
@@ -135,6 +144,67 @@ public class Player {
 
 
 
+
+    /**
+     * Returns the cards the player has played, in the order they were played.
+     * 
+     * @return the list of played cards
+     * @pre none
+     * @post the list of played cards is returned
+     */
+    public List<Card> getPlayedCards() {
+        return playedCards;
+    }
+
+
+
+
+
+    /**
+     * Records a card the player has played.
+     * 
+     * @param card the played card
+     * @pre card is not null
+     * @post the card is added to the player's played cards
+     */
+    public void addPlayedCard(Card card) {
+        playedCards.add(card);
+    }
+
+
+
+
+
+    /**
+     * Returns the cards the player has discarded, in the order they were discarded.
+     * 
+     * @return the list of discarded cards
+     * @pre none
+     * @post the list of discarded cards is returned
+     */
+    public List<Card> getDiscardedCards() {
+        return discardedCards;
+    }
+
+
+
+
+
+    /**
+     * Records a card the player has discarded.
+     * 
+     * @param card the discarded card
+     * @pre card is not null
+     * @post the card is added to the player's discarded cards
+     */
+    public void addDiscardedCard(Card card) {
+        discardedCards.add(card);
+    }
+
+
+
+
+
     /**
      * Returns the player's score.
      * 
@@ -160,7 +230,9 @@ public class Player {
      */
     public void setScore(int score) {
         this.score = score;
-        this.scoreLabel.setText("Score: " + score); 
+        if (scoreLabel != null) {
+            scoreLabel.setText("Score: " + score);
+        }
     }
 
 
@@ -177,7 +249,9 @@ public class Player {
      */
     public void addScore(int points) {
         score += points;
-        this.scoreLabel.setText("Score: " + score); 
+        if (scoreLabel != null) {
+            scoreLabel.setText("Score: " + score);
+        }
     }
 
 
@@ -207,6 +281,174 @@ public class Player {
      */
     public void addFinding(Finding finding) {
         findings.add(finding);
+        if (finding instanceof RareFinding) {
+            rareFindingPoints += ((RareFinding) finding).getScore();
+            rareFindingCount++;
+        } else if (finding instanceof Fresco) {
+            frescoPoints += ((Fresco) finding).getScore();
+            frescoCount++;
+        } else if (finding instanceof SnakeGoddess) {
+            statueCount++;
+        }
+    }
+
+
+
+
+
+    /**
+     * Returns the points of the rare findings of the player.
+     * 
+     * @return the sum of the scores of the rare findings
+     * @pre none
+     * @post the points are returned
+     */
+    public int getRareFindingPoints() {
+        return rareFindingPoints;
+    }
+
+
+
+
+
+    /**
+     * Returns the number of rare findings of the player.
+     * 
+     * @return the number of rare findings
+     * @pre none
+     * @post the number of rare findings is returned
+     */
+    public int getRareFindingCount() {
+        return rareFindingCount;
+    }
+
+
+
+
+
+    /**
+     * Returns the points of the frescoes photographed by the player.
+     * 
+     * @return the sum of the scores of the frescoes
+     * @pre none
+     * @post the points are returned
+     */
+    public int getFrescoPoints() {
+        return frescoPoints;
+    }
+
+
+
+
+
+    /**
+     * Returns the number of frescoes photographed by the player.
+     * 
+     * @return the number of frescoes
+     * @pre none
+     * @post the number of frescoes is returned
+     */
+    public int getFrescoCount() {
+        return frescoCount;
+    }
+
+
+
+
+
+    /**
+     * Returns the number of statues of the player.
+     * 
+     * @return the number of statues
+     * @pre none
+     * @post the number of statues is returned
+     */
+    public int getStatueCount() {
+        return statueCount;
+    }
+
+
+
+
+
+    /**
+     * Returns the points of the statues of the player.
+     * 
+     * @return the statue score for the number of statues
+     * @pre none
+     * @post the points are returned
+     */
+    public int getStatuePoints() {
+        return getStatueScore(statueCount);
+    }
+
+
+
+
+
+    /**
+     * Returns the points of the positions of the player's pawns on the paths.
+     * 
+     * @return the sum of the position scores, Theseus counting double
+     * @pre none
+     * @post the points are returned
+     */
+    public int getPositionPoints() {
+        return positionPoints;
+    }
+
+
+
+
+
+    /**
+     * Adjusts the points of the positions of the player's pawns. Called by Pawn when it moves.
+     * 
+     * @param points the change of the position points
+     * @pre none
+     * @post the position points are updated
+     */
+    void addPositionPoints(int points) {
+        positionPoints += points;
+    }
+
+
+
+
+
+    /**
+     * Returns the total score of the player from the running totals, without iterating anything.
+     * 
+     * @return the total score
+     * @pre none
+     * @post the total score is returned
+     */
+    public int getTotalScore() {
+        return rareFindingPoints + frescoPoints + getStatueScore(statueCount) + positionPoints;
+    }
+
+
+
+
+
+    /**
+     * Returns the score based on the number of statues.
+     * 
+     * @param statueCount the number of statues
+     * @return the score based on the number of statues
+     * @pre none
+     * @post the score based on the number of statues is returned, max statues 6
+     */
+    public static int getStatueScore(int statueCount) {
+        switch (statueCount) {
+            case 0: return 0;
+            case 1: return -20;
+            case 2: return -15;
+            case 3: return 10;
+            case 4: return 15;
+            case 5: return 30;
+            default: return 50;
+        }
     }
 
 
@@ -439,13 +681,17 @@ public class Player {
 
 
     /**
-     * Returns the score label for the player.
+     * Returns the score label for the player. The label is created the first time the view asks for it,
+     * so players of headless games do not create Swing components.
      * 
      * @return the score label for the player
      * @pre none
      * @post the score label for the player is returned
      */
     public JLabel getScoreLabel() {
+        if (scoreLabel == null) {
+            scoreLabel = new JLabel("Score: " + score);
+        }
         return scoreLabel;
     }
 }
\ No newline at end of file
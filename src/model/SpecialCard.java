@@ -1,6 +1,5 @@
 package model;
 
-import javax.swing.ImageIcon;
 
 
 
@@ -8,22 +7,22 @@ import javax.swing.ImageIcon;
  * The SpecialCard class represents an abstract special card associated with a specific palace.
  */
 public abstract class SpecialCard extends Card {
-    private ImageIcon icon;
+    private byte id;
 
 
 
 
      /**
-     * Constructs a SpecialCard with the specified palace and image path.
+     * Constructs a SpecialCard with the specified palace and rank.
      * 
      * @param palace the name of the palace
-     * @param imagePath the path to the image of the card
-     * @pre palace is not null, imagePath is not null
-     * @post a SpecialCard is created with the specified palace and image path
+     * @param rank the rank of the card, CardId.ARIADNE or CardId.MINOTAUR
+     * @pre palace is not null and is a valid palace name
+     * @post a SpecialCard is created with the specified palace and its id is set
      */
-    public SpecialCard(String palace, String imagePath) {
+    public SpecialCard(String palace, int rank) {
         super(palace);
-        this.icon = new ImageIcon(imagePath);
+        this.id = CardId.of(CardId.palaceIndex(palace), rank);
     }
 
 
@@ -32,15 +31,15 @@ public abstract class SpecialCard extends Card {
 
 
     /**
-     * Returns the icon of the card.
+     * Returns the id of the card.
      * 
-     * @return the icon of the card
+     * @return the CardId of the card
      * @pre none
-     * @post the icon of the card is returned
+     * @post the id of the card is returned
      */
     @Override
-    public ImageIcon getIcon() {
-        return icon;
+    public byte getId() {
+        return id;
     }
 
 
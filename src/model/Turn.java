@@ -3,12 +3,10 @@ package model;
 import controller.GameController;
 import util.SoundPlayer;
 import view.GameView;
-import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JLayeredPane;
 import javax.swing.JOptionPane;
 
-import java.awt.Image;
 import java.util.List;
 import javax.swing.JButton;
 
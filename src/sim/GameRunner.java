@@ -0,0 +1,101 @@
+package sim;
+
+import java.util.SplittableRandom;
+
+import bot.Bot;
+import engine.GameSeed;
+import engine.GameSetup;
+import engine.GameState;
+import engine.Move;
+import engine.MoveGenerator;
+import engine.StateEngine;
+
+
+
+/**
+ * The GameRunner class plays complete headless games between two bots on a StateEngine.
+ * A runner reuses its state and buffers from game to game, so it belongs to one thread.
+ */
+public class GameRunner {
+    private final GameState state;
+    private final StateEngine engine;
+    private final int[] moves;
+    private int turns;
+
+
+
+
+
+    /**
+     * Constructs a GameRunner.
+     *
+     * @pre none
+     * @post a GameRunner with its own state and buffers is created
+     */
+    public GameRunner() {
+        state = new GameState();
+        engine = new StateEngine(state);
+        moves = new int[Move.MAX_MOVES];
+    }
+
+
+
+
+    /**
+     * Plays a game. The seed decides the deal and then drives the random choices of the bots,
+     * so the same seed and bots replay the same game.
+     *
+     * @param first the bot of player 0
+     * @param second the bot of player 1
+     * @param seed the seed of the game
+     * @return the index of the winner, or -1 for a draw
+     * @pre first, second and seed are not null
+     * @post the final state is available through getState
+     */
+    public int play(Bot first, Bot second, GameSeed seed) {
+        SplittableRandom random = seed.newGenerator();
+        GameSetup.deal(state, random);
+        engine.clear();
+        turns = 0;
+        while (!state.isOver()) {
+            int count = MoveGenerator.generate(state, moves);
+            Bot bot = state.actor() == 0 ? first : second;
+            int move = bot.chooseMove(state, moves, count, random);
+            int kind = Move.kind(move);
+            if (kind == Move.PLAY || kind == Move.DISCARD) {
+                turns++;
+            }
+            engine.apply(move);
+            engine.clear();
+        }
+        return state.winner();
+    }
+
+
+
+
+    /**
+     * Returns the state of the last game played.
+     *
+     * @return the final GameState
+     * @pre play has been called
+     * @post the state is returned
+     */
+    public GameState getState() {
+        return state;
+    }
+
+
+
+
+    /**
+     * Returns the number of turns of the last game played, counting the plays and discards.
+     *
+     * @return the number of turns
+     * @pre play has been called
+     * @post the number of turns is returned
+     */
+    public int getTurns() {
+        return turns;
+    }
+}
@@ -0,0 +1,274 @@
+package sim;
+
+import java.util.Locale;
+
+
+
+/**
+ * The PairingStats class accumulates the results of game pairs between two bots A and B.
+ * A pair is one deal played twice with the seats swapped, and its result is the pentanomial
+ * outcome of A: 0, 0.5, 1, 1.5 or 2 points. Counting pairs instead of games removes the luck
+ * of the deal from the variance, so the Elo error and the SPRT need fewer games.
+ */
+public class PairingStats {
+    /** The number of outcomes of a pair. */
+    public static final int OUTCOMES = 5;
+
+    private static final double Z95 = 1.959964;
+    private static final double MIN_VARIANCE = 1e-3;
+
+    private final long[] counts = new long[OUTCOMES];
+
+
+
+
+
+    /**
+     * Records a pair.
+     *
+     * @param halfPoints the points of A over both games, counted in half points (0 to 4)
+     * @pre 0 &lt;= halfPoints &lt; OUTCOMES
+     * @post the pair is counted
+     */
+    public void record(int halfPoints) {
+        counts[halfPoints]++;
+    }
+
+
+
+
+    /**
+     * Adds pairs with a given outcome.
+     *
+     * @param halfPoints the outcome, in half points of A
+     * @param pairs the number of pairs
+     * @pre 0 &lt;= halfPoints &lt; OUTCOMES, pairs &gt;= 0
+     * @post the pairs are counted
+     */
+    public void add(int halfPoints, long pairs) {
+        counts[halfPoints] += pairs;
+    }
+
+
+
+
+    /**
+     * Adds the pairs of other statistics to these.
+     *
+     * @param other the statistics to merge
+     * @pre other is for the same bots
+     * @post these statistics include the pairs of other
+     */
+    public void merge(PairingStats other) {
+        for (int i = 0; i < OUTCOMES; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+
+
+
+    /**
+     * Returns the number of pairs with a given outcome.
+     *
+     * @param halfPoints the outcome, in half points of A
+     * @return the number of pairs
+     * @pre 0 &lt;= halfPoints &lt; OUTCOMES
+     * @post the number is returned
+     */
+    public long count(int halfPoints) {
+        return counts[halfPoints];
+    }
+
+
+
+
+    /**
+     * Returns the number of pairs.
+     *
+     * @return the number of pairs recorded
+     * @pre none
+     * @post the number is returned
+     */
+    public long pairs() {
+        long pairs = 0;
+        for (long count : counts) {
+            pairs += count;
+        }
+        return pairs;
+    }
+
+
+
+
+    /**
+     * Returns the points of A over all games.
+     *
+     * @return the points, 1 per win and 0.5 per draw
+     * @pre none
+     * @post the points are returned
+     */
+    public double points() {
+        double points = 0;
+        for (int i = 0; i < OUTCOMES; i++) {
+            points += counts[i] * i * 0.5;
+        }
+        return points;
+    }
+
+
+
+
+    /**
+     * Returns the mean score of A per game.
+     *
+     * @return the score between 0 and 1, 0.5 if no pair was recorded
+     * @pre none
+     * @post the score is returned
+     */
+    public double score() {
+        long pairs = pairs();
+        return pairs == 0 ? 0.5 : points() / (2 * pairs);
+    }
+
+
+
+
+    /**
+     * Returns the variance of the score of one pair, each pair scoring between 0 and 1.
+     *
+     * @return the variance of the pair scores
+     * @pre none
+     * @post the variance is returned
+     */
+    public double variance() {
+        long pairs = pairs();
+        if (pairs == 0) {
+            return 0;
+        }
+        double mean = score();
+        double variance = 0;
+        for (int i = 0; i < OUTCOMES; i++) {
+            double deviation = i / 4.0 - mean;
+            variance += counts[i] * deviation * deviation;
+        }
+        return variance / pairs;
+    }
+
+
+
+
+    /**
+     * Returns the Elo difference of A over B.
+     *
+     * @return the Elo difference implied by the score
+     * @pre none
+     * @post the difference is returned
+     */
+    public double elo() {
+        return elo(score());
+    }
+
+
+
+
+    /**
+     * Returns the half width of the 95% confidence interval of the Elo difference.
+     *
+     * @return the error margin in Elo, infinite before two pairs
+     * @pre none
+     * @post the margin is returned
+     */
+    public double eloError() {
+        long pairs = pairs();
+        if (pairs < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double error = Z95 * Math.sqrt(variance() / pairs);
+        return (elo(score() + error) - elo(score() - error)) / 2;
+    }
+
+
+
+
+    /**
+     * Returns the log-likelihood ratio of the hypothesis that A is elo1 stronger than B against the
+     * hypothesis that it is elo0 stronger, with the normal approximation of the generalized SPRT.
+     * The variance is kept above a small floor, so a one-sided pairing whose pairs all end alike
+     * is still decided.
+     *
+     * @param elo0 the Elo difference of the null hypothesis
+     * @param elo1 the Elo difference of the alternative hypothesis
+     * @return the log-likelihood ratio, 0 before any pair
+     * @pre elo0 &lt; elo1
+     * @post the ratio is returned
+     */
+    public double llr(double elo0, double elo1) {
+        if (pairs() == 0) {
+            return 0;
+        }
+        double variance = Math.max(MIN_VARIANCE, variance());
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return pairs() * (s1 - s0) * (2 * score() - s0 - s1) / (2 * variance);
+    }
+
+
+
+
+    /**
+     * Returns the counts as text: the number of pairs of each outcome, from 0 to 2 points.
+     *
+     * @return the counts separated by spaces
+     * @pre none
+     * @post the text is returned
+     */
+    public String countsText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < OUTCOMES; i++) {
+            text.append(i == 0 ? "" : " ").append(counts[i]);
+        }
+        return text.toString();
+    }
+
+
+
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d games, score %.1f%%, Elo %+.1f +/- %.1f, pairs [%s]",
+                2 * pairs(), 100 * score(), elo(), eloError(), countsText());
+    }
+
+
+
+
+    /**
+     * Returns the expected score of an Elo difference.
+     *
+     * @param elo the Elo difference
+     * @return the expected score between 0 and 1
+     * @pre none
+     * @post the score is returned
+     */
+    public static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+
+
+
+    /**
+     * Returns the Elo difference of a score, the inverse of expectedScore. Scores of 0 and 1 are
+     * moved slightly inside, so the difference stays finite.
+     *
+     * @param score the score between 0 and 1
+     * @return the Elo difference
+     * @pre none
+     * @post the difference is returned
+     */
+    public static double elo(double score) {
+        double clamped = Math.max(1e-6, Math.min(1 - 1e-6, score));
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+}
@@ -0,0 +1,282 @@
+package sim;
+
+import java.io.PrintStream;
+
+import engine.GameState;
+
+
+
+/**
+ * The SimulationStats class accumulates the results of simulated games between two policies:
+ * wins, scores, game lengths and the cause that ended each game.
+ * Each worker fills its own instance and the instances are merged at the end.
+ */
+public class SimulationStats {
+    private static final int MIN_SCORE = -300;
+    private static final int MAX_SCORE = 600;
+    private static final int MAX_TURNS = 200;
+
+    private final String[] names;
+    private long games;
+    private final long[] wins = new long[2];
+    private long draws;
+    private final long[][] scores = new long[2][MAX_SCORE - MIN_SCORE + 1];
+    private final long[] lengths = new long[MAX_TURNS + 1];
+    private final long[] endCauses = new long[3];
+    private final long[] seatWins = new long[2];
+
+
+
+
+
+    /**
+     * Constructs empty SimulationStats for two policies.
+     *
+     * @param first the name of policy A
+     * @param second the name of policy B
+     * @pre first and second are not null
+     * @post empty statistics are created
+     */
+    public SimulationStats(String first, String second) {
+        names = new String[] {first, second};
+    }
+
+
+
+
+    /**
+     * Records a finished game.
+     *
+     * @param state the final state of the game
+     * @param firstSeat the player index of policy A in this game
+     * @param turns the number of turns of the game
+     * @pre state is over
+     * @post the game is counted
+     */
+    public void record(GameState state, int firstSeat, int turns) {
+        games++;
+        int winner = state.winner();
+        if (winner < 0) {
+            draws++;
+        } else {
+            wins[winner == firstSeat ? 0 : 1]++;
+            seatWins[winner]++;
+        }
+        for (int policy = 0; policy < 2; policy++) {
+            int score = state.score(policy == 0 ? firstSeat : firstSeat ^ 1);
+            scores[policy][Math.max(MIN_SCORE, Math.min(MAX_SCORE, score)) - MIN_SCORE]++;
+        }
+        lengths[Math.min(turns, MAX_TURNS)]++;
+        endCauses[state.endCause()]++;
+    }
+
+
+
+
+    /**
+     * Adds the games of other statistics to these.
+     *
+     * @param other the statistics to merge
+     * @pre other is for the same policies
+     * @post these statistics count the games of both
+     */
+    public void merge(SimulationStats other) {
+        games += other.games;
+        draws += other.draws;
+        for (int i = 0; i < 2; i++) {
+            wins[i] += other.wins[i];
+            seatWins[i] += other.seatWins[i];
+            for (int j = 0; j < scores[i].length; j++) {
+                scores[i][j] += other.scores[i][j];
+            }
+        }
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] += other.lengths[i];
+        }
+        for (int i = 0; i < endCauses.length; i++) {
+            endCauses[i] += other.endCauses[i];
+        }
+    }
+
+
+
+
+    /**
+     * Returns the number of games recorded.
+     *
+     * @return the number of games
+     * @pre none
+     * @post the number of games is returned
+     */
+    public long getGames() {
+        return games;
+    }
+
+
+
+
+    /**
+     * Returns the wins of a policy.
+     *
+     * @param policy 0 for policy A, 1 for policy B
+     * @return the number of games won
+     * @pre 0 &lt;= policy &lt; 2
+     * @post the number of wins is returned
+     */
+    public long getWins(int policy) {
+        return wins[policy];
+    }
+
+
+
+
+    /**
+     * Returns the number of drawn games.
+     *
+     * @return the number of draws
+     * @pre none
+     * @post the number of draws is returned
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+
+
+
+    /**
+     * Prints a report of the statistics.
+     *
+     * @param out the stream to print to
+     * @pre out is not null
+     * @post the report is printed
+     */
+    public void print(PrintStream out) {
+        out.printf("Games: %d%n", games);
+        for (int policy = 0; policy < 2; policy++) {
+            out.printf("%s (%s): %d wins, win rate %.2f%% +/- %.2f%%%n", policy == 0 ? "A" : "B", names[policy],
+                    wins[policy], percent(wins[policy]), 196.0 * Math.sqrt(rate(wins[policy]) * (1 - rate(wins[policy])) / Math.max(1, games)));
+        }
+        out.printf("Draws: %d (%.2f%%)%n", draws, percent(draws));
+        out.printf("Seat wins: player 1 %.2f%%, player 2 %.2f%%%n", percent(seatWins[0]), percent(seatWins[1]));
+
+        for (int policy = 0; policy < 2; policy++) {
+            long[] histogram = scores[policy];
+            out.printf("Score %s (%s): mean %.1f, sd %.1f, min %d, p10 %d, median %d, p90 %d, max %d%n",
+                    policy == 0 ? "A" : "B", names[policy],
+                    mean(histogram, MIN_SCORE), deviation(histogram, MIN_SCORE), percentile(histogram, MIN_SCORE, 0.0),
+                    percentile(histogram, MIN_SCORE, 0.1), percentile(histogram, MIN_SCORE, 0.5),
+                    percentile(histogram, MIN_SCORE, 0.9), percentile(histogram, MIN_SCORE, 1.0));
+        }
+        out.printf("Turns: mean %.1f, sd %.1f, min %d, median %d, max %d%n", mean(lengths, 0), deviation(lengths, 0),
+                percentile(lengths, 0, 0.0), percentile(lengths, 0, 0.5), percentile(lengths, 0, 1.0));
+        out.printf("End cause: deck exhausted %d (%.2f%%), four pawns past the checkpoint %d (%.2f%%)%n",
+                endCauses[GameState.END_DECK_EXHAUSTED], percent(endCauses[GameState.END_DECK_EXHAUSTED]),
+                endCauses[GameState.END_CHECKPOINT], percent(endCauses[GameState.END_CHECKPOINT]));
+    }
+
+
+
+
+    /**
+     * Returns a count as a fraction of the games.
+     *
+     * @param count the count
+     * @return the fraction of the games, 0 if there are none
+     * @pre none
+     * @post the fraction is returned
+     */
+    private double rate(long count) {
+        return games == 0 ? 0 : (double) count / games;
+    }
+
+
+
+
+    /**
+     * Returns a count as a percentage of the games.
+     *
+     * @param count the count
+     * @return the percentage of the games
+     * @pre none
+     * @post the percentage is returned
+     */
+    private double percent(long count) {
+        return 100.0 * rate(count);
+    }
+
+
+
+
+    /**
+     * Returns the mean of a histogram.
+     *
+     * @param histogram the counts per value
+     * @param offset the value of the first bucket
+     * @return the mean value, 0 if the histogram is empty
+     * @pre histogram is not null
+     * @post the mean is returned
+     */
+    private static double mean(long[] histogram, int offset) {
+        long count = 0;
+        double sum = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            count += histogram[i];
+            sum += (double) histogram[i] * (i + offset);
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+
+
+
+    /**
+     * Returns the standard deviation of a histogram.
+     *
+     * @param histogram the counts per value
+     * @param offset the value of the first bucket
+     * @return the standard deviation, 0 if the histogram is empty
+     * @pre histogram is not null
+     * @post the standard deviation is returned
+     */
+    private static double deviation(long[] histogram, int offset) {
+        double mean = mean(histogram, offset);
+        long count = 0;
+        double sum = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            double delta = i + offset - mean;
+            count += histogram[i];
+            sum += histogram[i] * delta * delta;
+        }
+        return count == 0 ? 0 : Math.sqrt(sum / count);
+    }
+
+
+
+
+    /**
+     * Returns a percentile of a histogram.
+     *
+     * @param histogram the counts per value
+     * @param offset the value of the first bucket
+     * @param fraction the percentile as a fraction, 0 for the minimum and 1 for the maximum
+     * @return the value at the percentile
+     * @pre histogram is not null, 0 &lt;= fraction &lt;= 1
+     * @post the percentile is returned
+     */
+    private static int percentile(long[] histogram, int offset, double fraction) {
+        long count = 0;
+        for (long value : histogram) {
+            count += value;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target && histogram[i] > 0) {
+                return i + offset;
+            }
+        }
+        return offset;
+    }
+}
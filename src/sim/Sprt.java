@@ -0,0 +1,88 @@
+package sim;
+
+import java.util.Locale;
+
+
+
+/**
+ * The Sprt class is a sequential probability ratio test between two Elo hypotheses. It decides,
+ * as soon as the results allow it, whether a bot is elo1 stronger than its opponent (H1)
+ * or only elo0 stronger (H0), with error rates alpha and beta.
+ */
+public class Sprt {
+    /** The test has not decided yet. */
+    public static final int CONTINUE = 0;
+    /** The test accepted H0. */
+    public static final int H0 = -1;
+    /** The test accepted H1. */
+    public static final int H1 = 1;
+
+    private final double elo0;
+    private final double elo1;
+    private final double lower;
+    private final double upper;
+
+
+
+
+
+    /**
+     * Constructs an Sprt.
+     *
+     * @param elo0 the Elo difference of H0
+     * @param elo1 the Elo difference of H1
+     * @param alpha the probability of accepting H1 when H0 holds
+     * @param beta the probability of accepting H0 when H1 holds
+     * @pre elo0 &lt; elo1, 0 &lt; alpha &lt; 1, 0 &lt; beta &lt; 1
+     * @post an Sprt is created
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        if (!(elo0 < elo1) || !(alpha > 0 && alpha < 1) || !(beta > 0 && beta < 1)) {
+            throw new IllegalArgumentException("Invalid SPRT: elo0 " + elo0 + ", elo1 " + elo1 + ", alpha " + alpha + ", beta " + beta);
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lower = Math.log(beta / (1 - alpha));
+        this.upper = Math.log((1 - beta) / alpha);
+    }
+
+
+
+
+    /**
+     * Returns the log-likelihood ratio of the results.
+     *
+     * @param stats the results of the pairing
+     * @return the log-likelihood ratio
+     * @pre stats is not null
+     * @post the ratio is returned
+     */
+    public double llr(PairingStats stats) {
+        return stats.llr(elo0, elo1);
+    }
+
+
+
+
+    /**
+     * Returns the decision of the test on the results.
+     *
+     * @param stats the results of the pairing
+     * @return H1, H0 or CONTINUE
+     * @pre stats is not null
+     * @post the decision is returned
+     */
+    public int status(PairingStats stats) {
+        double llr = llr(stats);
+        return llr >= upper ? H1 : llr <= lower ? H0 : CONTINUE;
+    }
+
+
+
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "SPRT [%.1f, %.1f], LLR bounds [%.2f, %.2f]", elo0, elo1, lower, upper);
+    }
+}
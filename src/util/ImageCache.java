@@ -0,0 +1,422 @@
+package util;
+
+import javax.imageio.ImageIO;
+import javax.swing.GrayFilter;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.awt.image.FilteredImageSource;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+
+/**
+ * The ImageCache class holds the images of the game, decoded and scaled once. An image is asked for by
+ * its asset path, its size and a filter, and comes back as a BufferedImage that is ready to draw,
+ * so repainting the board or a hand never reads a file or rescales a picture.
+ *
+ * The cache is bounded by the bytes of its pixels. When it is full, the least recently used images
+ * are dropped first, and the images are only softly referenced, so the garbage collector may also
+ * take them back under memory pressure. A dropped image is simply decoded again the next time it is
+ * asked for. The cache is safe to use from several threads; the decoding itself happens outside its
+ * lock, so assets can be loaded in parallel.
+ */
+public final class ImageCache {
+    /** Keeps the image as it is. */
+    public static final int FILTER_NONE = 0;
+    /** Turns the image gray, like a disabled Swing icon. */
+    public static final int FILTER_GRAY = 1;
+    /** The width or height that keeps the size of the asset. */
+    public static final int ORIGINAL = -1;
+    /** The system property with the size of the cache in megabytes. */
+    public static final String SIZE_PROPERTY = "images.cache.mb";
+
+    private static final long DEFAULT_MEGABYTES = 64;
+    private static final int GRAY_PERCENT = 50;
+
+    private static final long capacity = Long.getLong(SIZE_PROPERTY, DEFAULT_MEGABYTES) << 20;
+    private static final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private static long bytes;
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+
+
+
+
+    /**
+     * ImageCache only holds static helpers.
+     */
+    private ImageCache() {
+    }
+
+
+
+
+    /**
+     * Returns an asset at its own size.
+     *
+     * @param path the path of the image file
+     * @return the decoded image
+     * @pre path is not null
+     * @post the image is cached
+     */
+    public static BufferedImage getImage(String path) {
+        return getImage(path, ORIGINAL, ORIGINAL, FILTER_NONE);
+    }
+
+
+
+
+    /**
+     * Returns an asset scaled to a size.
+     *
+     * @param path the path of the image file
+     * @param width the width of the image
+     * @param height the height of the image
+     * @return the scaled image
+     * @pre path is not null, width and height are positive
+     * @post the image is cached
+     */
+    public static BufferedImage getImage(String path, int width, int height) {
+        return getImage(path, width, height, FILTER_NONE);
+    }
+
+
+
+
+    /**
+     * Returns an asset scaled to a size, with a filter applied. A missing or unreadable file gives a
+     * transparent image of the requested size, and the error is reported on the standard error.
+     *
+     * @param path the path of the image file
+     * @param width the width of the image, or ORIGINAL
+     * @param height the height of the image, or ORIGINAL
+     * @param filter FILTER_NONE or FILTER_GRAY
+     * @return the scaled and filtered image
+     * @pre path is not null, width and height are positive or both ORIGINAL
+     * @post the image is cached
+     */
+    public static BufferedImage getImage(String path, int width, int height, int filter) {
+        Key key = new Key(path, width, height, filter);
+        synchronized (ImageCache.class) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                BufferedImage image = entry.image.get();
+                if (image != null) {
+                    hits++;
+                    return image;
+                }
+                remove(key, entry);
+            }
+            misses++;
+        }
+
+        BufferedImage image = load(key);
+        synchronized (ImageCache.class) {
+            Entry entry = entries.get(key);
+            BufferedImage other = entry != null ? entry.image.get() : null;
+            if (other != null) {
+                return other;
+            }
+            if (entry != null) {
+                remove(key, entry);
+            }
+            entry = new Entry(image);
+            entries.put(key, entry);
+            bytes += entry.bytes;
+            evict();
+        }
+        return image;
+    }
+
+
+
+
+    /**
+     * Returns an asset scaled to a size, as an icon. Icons of the same image are shared, so they
+     * must not be compared by identity.
+     *
+     * @param path the path of the image file
+     * @param width the width of the icon
+     * @param height the height of the icon
+     * @return an icon of the scaled image
+     * @pre path is not null, width and height are positive
+     * @post the image is cached
+     */
+    public static ImageIcon getIcon(String path, int width, int height) {
+        return new ImageIcon(getImage(path, width, height, FILTER_NONE));
+    }
+
+
+
+
+    /**
+     * Returns an asset scaled to a size, turned gray, as an icon.
+     *
+     * @param path the path of the image file
+     * @param width the width of the icon
+     * @param height the height of the icon
+     * @return an icon of the gray image
+     * @pre path is not null, width and height are positive
+     * @post the image is cached
+     */
+    public static ImageIcon getGrayIcon(String path, int width, int height) {
+        return new ImageIcon(getImage(path, width, height, FILTER_GRAY));
+    }
+
+
+
+
+    /**
+     * Returns the number of requests answered from the cache.
+     *
+     * @return the number of hits
+     * @pre none
+     * @post the number is returned
+     */
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+
+
+
+    /**
+     * Returns the number of requests that decoded an image.
+     *
+     * @return the number of misses
+     * @pre none
+     * @post the number is returned
+     */
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+
+
+
+    /**
+     * Returns the number of images dropped to keep the cache within its size.
+     *
+     * @return the number of evictions
+     * @pre none
+     * @post the number is returned
+     */
+    public static synchronized long getEvictions() {
+        return evictions;
+    }
+
+
+
+
+    /**
+     * Returns the bytes of pixels held by the cache.
+     *
+     * @return the size of the cached images
+     * @pre none
+     * @post the size is returned
+     */
+    public static synchronized long getBytes() {
+        return bytes;
+    }
+
+
+
+
+    /**
+     * Returns the counters of the cache as text.
+     *
+     * @return the images, size, hits, misses and evictions of the cache
+     * @pre none
+     * @post the text is returned
+     */
+    public static synchronized String getStats() {
+        return "Image cache: " + entries.size() + " images, " + (bytes >> 10) + " KB of " + (capacity >> 10)
+                + " KB, " + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+    }
+
+
+
+
+    /**
+     * Empties the cache. The counters are kept.
+     *
+     * @pre none
+     * @post no image is cached
+     */
+    public static synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+
+
+
+    /**
+     * Drops the least recently used images until the cache is within its size. The image added
+     * last is always kept, even if it alone is larger than the cache.
+     *
+     * @pre the caller holds the lock of the class
+     * @post bytes &lt;= capacity, or only one image is left
+     */
+    private static void evict() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (bytes > capacity && entries.size() > 1 && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            iterator.remove();
+            bytes -= entry.bytes;
+            evictions++;
+        }
+    }
+
+
+
+
+    /**
+     * Removes an entry whose image was taken back by the garbage collector, or replaced.
+     *
+     * @param key the key of the entry
+     * @param entry the entry
+     * @pre the caller holds the lock of the class, entry is mapped to key
+     * @post the entry is removed and its bytes are no longer counted
+     */
+    private static void remove(Key key, Entry entry) {
+        entries.remove(key);
+        bytes -= entry.bytes;
+    }
+
+
+
+
+    /**
+     * Decodes, filters and scales an image. Scaling keeps the area-averaging quality of
+     * Image.SCALE_SMOOTH, but is done once, into an image that draws without further work.
+     *
+     * @param key the asset, size and filter of the image
+     * @return the image
+     * @pre key is not null
+     * @post the image is returned, transparent if the file could not be read
+     */
+    private static BufferedImage load(Key key) {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(new File(key.path));
+            if (source == null) {
+                throw new IOException("unknown image format");
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read image " + key.path + ": " + e.getMessage());
+            return new BufferedImage(Math.max(1, key.width), Math.max(1, key.height), BufferedImage.TYPE_INT_ARGB);
+        }
+
+        boolean scaled = key.width != ORIGINAL && (key.width != source.getWidth() || key.height != source.getHeight());
+        if (key.filter == FILTER_NONE && !scaled) {
+            return source;
+        }
+        Image image = source;
+        if (key.filter == FILTER_GRAY) {
+            image = Toolkit.getDefaultToolkit().createImage(new FilteredImageSource(image.getSource(), new GrayFilter(true, GRAY_PERCENT)));
+        }
+        if (scaled) {
+            image = image.getScaledInstance(key.width, key.height, Image.SCALE_SMOOTH);
+        }
+        image = new ImageIcon(image).getImage();
+
+        int width = image.getWidth(null);
+        int height = image.getHeight(null);
+        BufferedImage result = new BufferedImage(width, height,
+                source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return result;
+    }
+
+
+
+
+    /**
+     * The key of a cached image: its asset, size and filter.
+     */
+    private static final class Key {
+        private final String path;
+        private final int width;
+        private final int height;
+        private final int filter;
+
+
+
+
+        /**
+         * Constructs a Key.
+         *
+         * @param path the path of the image file
+         * @param width the width of the image
+         * @param height the height of the image
+         * @param filter the filter of the image
+         * @pre path is not null
+         * @post a Key is created
+         */
+        Key(String path, int width, int height, int filter) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.filter = filter;
+        }
+
+
+
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return width == key.width && height == key.height && filter == key.filter && path.equals(key.path);
+        }
+
+
+
+
+        @Override
+        public int hashCode() {
+            return ((path.hashCode() * 31 + width) * 31 + height) * 31 + filter;
+        }
+    }
+
+
+
+
+    /**
+     * A cached image, softly referenced, with the bytes of its pixels.
+     */
+    private static final class Entry {
+        private final SoftReference<BufferedImage> image;
+        private final long bytes;
+
+
+
+
+        /**
+         * Constructs an Entry.
+         *
+         * @param image the image
+         * @pre image is not null
+         * @post an Entry is created
+         */
+        Entry(BufferedImage image) {
+            this.image = new SoftReference<>(image);
+            this.bytes = 4L * image.getWidth() * image.getHeight();
+        }
+    }
+}
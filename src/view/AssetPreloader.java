@@ -0,0 +1,149 @@
+package view;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import model.Board;
+import model.CardId;
+import model.Path;
+import model.Pawn;
+import model.RareFinding;
+import model.SnakeGoddess;
+import util.ImageCache;
+
+
+
+/**
+ * The AssetPreloader class decodes the images the main window shows, in the sizes it shows them,
+ * into the ImageCache before the window is built. The images are decoded in parallel on a pool of
+ * daemon threads, so the first frame of the window is drawn from the cache without touching the disk.
+ */
+public class AssetPreloader {
+    private final List<Runnable> loads = new ArrayList<>();
+    private final Set<String> listed = new HashSet<>();
+    private final AtomicInteger done = new AtomicInteger();
+
+
+
+
+
+    /**
+     * Constructs an AssetPreloader for the images of a board: the background, the deck, the card faces,
+     * the path tiles, the pawns and the finding icons.
+     *
+     * @param board the board of the game
+     * @pre board is not null
+     * @post the images are listed, none is loaded yet
+     */
+    public AssetPreloader(Board board) {
+        add(GameView.BACKGROUND_IMAGE, GameView.BOARD_WIDTH, GameView.BOARD_HEIGHT, ImageCache.FILTER_NONE);
+        add(GameView.DECK_IMAGE, GameView.DECK_WIDTH, GameView.DECK_HEIGHT, ImageCache.FILTER_NONE);
+        for (Path path : board.getPaths()) {
+            int last = path.getPositions().length - 1;
+            for (int i = 0; i <= last; i++) {
+                add(path.getImagePath(i), i == last ? GameView.PALACE_TILE_WIDTH : GameView.TILE_WIDTH, GameView.TILE_HEIGHT, ImageCache.FILTER_NONE);
+            }
+        }
+        for (int id = 0; id < CardId.COUNT; id++) {
+            int face = id;
+            loads.add(() -> CardFaces.getIcon(face));
+        }
+        add(Pawn.ARCHAEOLOGIST_IMAGE_PATH, Pawn.ICON_SIZE, Pawn.ICON_SIZE, ImageCache.FILTER_NONE);
+        add(Pawn.THESEUS_IMAGE_PATH, Pawn.ICON_SIZE, Pawn.ICON_SIZE, ImageCache.FILTER_NONE);
+        add(Pawn.HIDDEN_IMAGE_PATH, Pawn.ICON_SIZE, Pawn.ICON_SIZE, ImageCache.FILTER_NONE);
+        for (String description : GameView.RARE_FINDINGS) {
+            String imagePath = new RareFinding(description).getImagePath();
+            add(imagePath, GameView.ICON_SIZE, GameView.ICON_SIZE, ImageCache.FILTER_GRAY);
+            add(imagePath, GameView.ICON_SIZE, GameView.ICON_SIZE, ImageCache.FILTER_NONE);
+        }
+        add(new SnakeGoddess("Snake Goddess Statue", 5).getImagePath(), GameView.ICON_SIZE, GameView.ICON_SIZE, ImageCache.FILTER_NONE);
+    }
+
+
+
+
+    /**
+     * Returns the number of images to load.
+     *
+     * @return the number of images
+     * @pre none
+     * @post the number is returned
+     */
+    public int getTotal() {
+        return loads.size();
+    }
+
+
+
+
+    /**
+     * Loads all the images and waits until they are in the cache. The progress is reported from the
+     * loading threads, after each image. A file that cannot be read is cached as a transparent image
+     * by the ImageCache; any other failure of a load is rethrown once every load has finished.
+     *
+     * @param threads the number of loading threads
+     * @param progress receives the number of images loaded so far
+     * @pre threads &gt; 0, progress is not null
+     * @post every image is in the cache, the loading threads are stopped
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     * @throws IllegalStateException if a load failed, with the first failure as its cause
+     */
+    public void load(int threads, IntConsumer progress) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "asset-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Runnable load : loads) {
+            tasks.add(() -> {
+                load.run();
+                progress.accept(done.incrementAndGet());
+                return null;
+            });
+        }
+        List<Future<Void>> futures;
+        try {
+            futures = pool.invokeAll(tasks);
+        } finally {
+            pool.shutdownNow();
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("An image could not be preloaded.", e.getCause());
+            }
+        }
+    }
+
+
+
+
+    /**
+     * Lists the load of one image, unless the same image in the same size is already listed, as
+     * tiles shared by several paths are, so no two threads decode the same image.
+     *
+     * @param path the path of the image file
+     * @param width the width the view draws it at
+     * @param height the height the view draws it at
+     * @param filter the filter the view draws it with
+     * @pre path is not null
+     * @post the image is listed
+     */
+    private void add(String path, int width, int height, int filter) {
+        if (!listed.add(path + ":" + width + "x" + height + ":" + filter)) {
+            return;
+        }
+        loads.add(() -> ImageCache.getImage(path, width, height, filter));
+    }
+}
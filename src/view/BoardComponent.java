@@ -0,0 +1,245 @@
+package view;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import model.Board;
+import model.Path;
+import model.Pawn;
+import util.ImageCache;
+
+
+
+/**
+ * The BoardComponent class paints the board: the tiles of the four paths and the pawns on them.
+ *
+ * The tiles never change during a game, so they are laid out once, in a grid that is never shown,
+ * and painted into an image that the component then simply draws. The image is only rendered again
+ * when the component is resized.
+ *
+ * The pawns are a render model: one mark per pawn with its cell, its icon (its own, or the question
+ * mark while it is hidden) and whether it is immobilized. Placing, moving or changing a pawn updates
+ * its mark and repaints only the cells it left and entered, so a move adds or removes no component
+ * and needs no layout.
+ */
+public class BoardComponent extends JComponent {
+    private static final long serialVersionUID = 1L;
+    private static final int STEP_WIDTH = 100;
+    private static final int STEP_HEIGHT = 110;
+    private static final int FIRST_PATH_GAP = 40;
+    private static final int PALACE_X = 7 * STEP_WIDTH + GameView.PALACE_TILE_WIDTH - STEP_WIDTH;
+    private static final int PAWN_SIZE = Pawn.ICON_SIZE;
+    private static final int BORDER = 2;
+    private static final Color[] PLAYER_COLORS = {Color.GREEN, Color.PINK};
+    private static final Color IMMOBILIZED_COLOR = Color.BLUE;
+
+    private final JPanel grid = new JPanel(new GridBagLayout());
+    private final Map<Pawn, PawnMark> marks = new LinkedHashMap<>();
+    private BufferedImage image;
+    private int renders;
+
+
+
+
+
+    /**
+     * Constructs a BoardComponent with the tiles of a board.
+     *
+     * @param board the game board
+     * @pre board is not null, called on the event dispatch thread
+     * @post a BoardComponent is created without pawns; its image is rendered at the first paint
+     */
+    public BoardComponent(Board board) {
+        setOpaque(false);
+        grid.setOpaque(false);
+        Path[] paths = board.getPaths();
+        for (int pathIndex = 0; pathIndex < paths.length; pathIndex++) {
+            Path path = paths[pathIndex];
+            for (int i = 0; i < path.getPositions().length; i++) {
+                JLabel positionLabel = new JLabel();
+                positionLabel.setHorizontalAlignment(SwingConstants.CENTER);
+                positionLabel.setVerticalAlignment(SwingConstants.CENTER);
+                positionLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+
+                boolean palace = i == Path.PALACE_POSITION;
+                int width = palace ? GameView.PALACE_TILE_WIDTH : GameView.TILE_WIDTH;
+                positionLabel.setIcon(ImageCache.getIcon(path.getImagePath(i), width, GameView.TILE_HEIGHT));
+                positionLabel.setPreferredSize(new Dimension(width, GameView.TILE_HEIGHT));
+
+                GridBagConstraints gbc = new GridBagConstraints();
+                gbc.gridx = i;
+                gbc.gridy = pathIndex;
+                gbc.fill = GridBagConstraints.BOTH;
+                gbc.weightx = palace ? 2.0 : 1.0;
+                gbc.weighty = 1.0;
+
+                grid.add(positionLabel, gbc);
+            }
+        }
+    }
+
+
+
+
+    /**
+     * Places a pawn on the board, or moves it, and repaints the cells it left and entered.
+     *
+     * @param pawn the pawn
+     * @param pathIndex the index of its path
+     * @param position its position on the path
+     * @param playerIndex the index of its player (0 for Player 1, 1 for Player 2)
+     * @param icon the icon to draw, the pawn's own or the hidden one
+     * @pre pawn and icon are not null, called on the event dispatch thread
+     * @post the pawn is drawn at its new cell only
+     */
+    public void placePawn(Pawn pawn, int pathIndex, int position, int playerIndex, Image icon) {
+        PawnMark old = marks.get(pawn);
+        PawnMark mark = new PawnMark(cell(pathIndex, position, playerIndex), playerIndex, icon, pawn.isImmobilized());
+        marks.put(pawn, mark);
+        if (old != null) {
+            repaint(old.bounds);
+        }
+        repaint(mark.bounds);
+    }
+
+
+
+
+    /**
+     * Updates whether a pawn is drawn as immobilized, and repaints its cell.
+     *
+     * @param pawn the pawn
+     * @pre pawn is not null, called on the event dispatch thread
+     * @post the pawn is drawn with its current state, if it is on the board
+     */
+    public void updatePawn(Pawn pawn) {
+        PawnMark mark = marks.get(pawn);
+        if (mark != null && mark.immobilized != pawn.isImmobilized()) {
+            mark.immobilized = pawn.isImmobilized();
+            repaint(mark.bounds);
+        }
+    }
+
+
+
+
+    /**
+     * Returns the number of times the image of the tiles was rendered.
+     *
+     * @return the number of renders
+     * @pre none
+     * @post the number is returned
+     */
+    public int getRenders() {
+        return renders;
+    }
+
+
+
+
+    /**
+     * Draws the image of the tiles, rendering it first if there is no image of the component's size
+     * yet, then the pawns within the area to repaint.
+     *
+     * @param g the graphics context
+     * @pre g is not null
+     * @post the tiles and pawns in the clip are drawn
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = image.createGraphics();
+            grid.setSize(width, height);
+            grid.doLayout();
+            grid.paint(graphics);
+            graphics.dispose();
+            renders++;
+        }
+        g.drawImage(image, 0, 0, null);
+
+        Rectangle clip = g.getClipBounds();
+        for (PawnMark mark : marks.values()) {
+            Rectangle bounds = mark.bounds;
+            if (clip != null && !clip.intersects(bounds)) {
+                continue;
+            }
+            g.drawImage(mark.icon, bounds.x, bounds.y, null);
+            g.setColor(mark.immobilized ? IMMOBILIZED_COLOR : PLAYER_COLORS[mark.player]);
+            for (int i = 0; i < BORDER; i++) {
+                g.drawRect(bounds.x + i, bounds.y + i, bounds.width - 2 * i - 1, bounds.height - 2 * i - 1);
+            }
+        }
+    }
+
+
+
+
+    /**
+     * Returns the cell of a pawn. The pawns of Player 2 sit below those of Player 1 on the same step.
+     *
+     * @param pathIndex the index of the path
+     * @param position the position on the path
+     * @param playerIndex the index of the player
+     * @return the bounds of the pawn, in the coordinates of the component
+     * @pre 0 &lt;= position &lt;= Path.PALACE_POSITION
+     * @post the bounds are returned
+     */
+    private static Rectangle cell(int pathIndex, int position, int playerIndex) {
+        int x = position == Path.PALACE_POSITION ? PALACE_X : position * STEP_WIDTH;
+        int y = pathIndex * STEP_HEIGHT + (pathIndex > 0 ? FIRST_PATH_GAP : 0) + playerIndex * PAWN_SIZE;
+        return new Rectangle(x, y, PAWN_SIZE, PAWN_SIZE);
+    }
+
+
+
+
+    /**
+     * The drawing of a pawn on the board.
+     */
+    private static final class PawnMark {
+        private final Rectangle bounds;
+        private final int player;
+        private final Image icon;
+        private boolean immobilized;
+
+
+
+
+        /**
+         * Constructs a PawnMark.
+         *
+         * @param bounds the cell of the pawn
+         * @param player the index of its player
+         * @param icon the icon to draw
+         * @param immobilized whether the pawn is immobilized
+         * @pre bounds and icon are not null
+         * @post a PawnMark is created
+         */
+        PawnMark(Rectangle bounds, int player, Image icon, boolean immobilized) {
+            this.bounds = bounds;
+            this.player = player;
+            this.icon = icon;
+            this.immobilized = immobilized;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package view;
+
+import javax.swing.ImageIcon;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import model.CardId;
+import util.ImageCache;
+
+
+
+/**
+ * The CardFaces class holds the art of the 48 card faces, one flyweight per CardId. The cards of the
+ * model are plain values that only know their id, so the hundred cards of a deck share these faces,
+ * and a face is only read from disk the first time it is shown.
+ */
+public final class CardFaces {
+    /** The width of a card in a hand or on a palace. */
+    public static final int WIDTH = 60;
+    /** The height of a card in a hand or on a palace. */
+    public static final int HEIGHT = 100;
+
+    private static final AtomicReferenceArray<ImageIcon> ICONS = new AtomicReferenceArray<>(CardId.COUNT);
+
+
+
+
+
+    /**
+     * CardFaces only holds static helpers.
+     */
+    private CardFaces() {
+    }
+
+
+
+
+    /**
+     * Returns the icon of a card face, creating it the first time. Every card of the face shares it.
+     * Faces may be created from several threads at once; if two threads create the same face, the
+     * first icon stored wins.
+     *
+     * @param id the CardId of the face
+     * @return the icon of the face, scaled to a hand button
+     * @pre 0 &lt;= id &lt; CardId.COUNT
+     * @post the icon is returned
+     */
+    public static ImageIcon getIcon(int id) {
+        ImageIcon icon = ICONS.get(id);
+        if (icon == null) {
+            ICONS.compareAndSet(id, null, new ImageIcon(ImageCache.getImage(CardId.getImagePath(id), WIDTH, HEIGHT)));
+            icon = ICONS.get(id);
+        }
+        return icon;
+    }
+}
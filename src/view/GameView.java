@@ -13,6 +13,7 @@ import model.Turn;
 import model.Card;
 import model.Pawn;
 import controller.GameController;
+import util.ImageCache;
 import javax.swing.*;
 import javax.swing.border.LineBorder;
 import java.awt.*;
@@ -20,8 +21,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.awt.image.FilteredImageSource;
-import java.awt.image.ImageProducer;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -33,10 +34,23 @@ import java.util.ArrayList;
  * The GameView class represents the graphical user interface for the game.
  */
 public class GameView extends JFrame {
+    private static final long serialVersionUID = 1L;
+    static final String BACKGROUND_IMAGE = "project_assets/images/background.jpg";
+    static final String DECK_IMAGE = "project_assets/images/cards/backCard.jpg";
+    static final int BOARD_WIDTH = 1200;
+    static final int BOARD_HEIGHT = 600;
+    static final int DECK_WIDTH = 100;
+    static final int DECK_HEIGHT = 150;
+    static final int TILE_WIDTH = 130;
+    static final int PALACE_TILE_WIDTH = 220;
+    static final int TILE_HEIGHT = 110;
+    static final int ICON_SIZE = 30;
+    static final String[] RARE_FINDINGS = {"Minoas Ring (Knossos)", "Phaistos Disc", "Malia Jewel", "Zakros Rhyton"};
+
     private Board board;
     private List<Player> players;
     private JLayeredPane boardPanel;
-    private JPanel boardGrid;
+    private BoardComponent boardComponent;
     private JLabel remainingCardsLabel;
     private JLabel currentPlayerInfoLabel;
     private GameController controller;
@@ -59,6 +73,7 @@ public class GameView extends JFrame {
     private List<Pawn> pawns;
     private JLabel player1StatuesLabel;
     private JLabel player2StatuesLabel;
+    private Runnable firstFrameAction;
 
     
 
@@ -93,6 +108,39 @@ public class GameView extends JFrame {
 
 
 
+    /**
+     * Sets an action to run once the window has painted its first frame, after the paint is done.
+     * 
+     * @param action the action, run once on the event dispatch thread
+     * @pre called before the window is shown
+     * @post the action runs after the first paint of the window
+     */
+    public void setFirstFrameAction(Runnable action) {
+        this.firstFrameAction = action;
+    }
+
+
+
+
+    /**
+     * Paints the window, and schedules the first frame action after the first paint.
+     * 
+     * @param g the graphics context
+     * @pre g is not null
+     * @post the window is painted
+     */
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (firstFrameAction != null) {
+            SwingUtilities.invokeLater(firstFrameAction);
+            firstFrameAction = null;
+        }
+    }
+
+
+
+
      /**
      * Adds a pawn to the list of pawns.
      * 
@@ -188,7 +236,7 @@ public class GameView extends JFrame {
      */
         @Override
         public void mouseClicked(MouseEvent e) {
-            if (controller.getCurrentPlayer() != player) {
+            if (!controller.acceptsInput(player)) {
                 JOptionPane.showMessageDialog(null, "Play your cards, your turn!", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
@@ -303,27 +351,36 @@ public class GameView extends JFrame {
         setTitle("Lost Cities Game");
         setSize(1200, 900); 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (controller != null) {
+                    controller.stopComputerPlayer();
+                }
+                System.out.println(ImageCache.getStats());
+            }
+        });
         setLayout(null); 
 
         boardPanel = new JLayeredPane();
         boardPanel.setBounds(0, 150, 1200, 600); 
-        JLabel backgroundLabel = new JLabel(new ImageIcon(new ImageIcon("project_assets/images/background.jpg").getImage().getScaledInstance(1200, 600, Image.SCALE_SMOOTH)));
+        JLabel backgroundLabel = new JLabel(ImageCache.getIcon(BACKGROUND_IMAGE, BOARD_WIDTH, BOARD_HEIGHT));
         backgroundLabel.setBounds(0, 0, 1200, 600);
         boardPanel.add(backgroundLabel, JLayeredPane.DEFAULT_LAYER);
 
-        boardGrid = new JPanel(new GridBagLayout());
-        boardGrid.setOpaque(false); 
-        boardGrid.setBounds(250, 50, 900, 500); 
-        boardPanel.add(boardGrid, JLayeredPane.PALETTE_LAYER);
+        boardComponent = new BoardComponent(board);
+        boardComponent.setBounds(250, 50, 900, 500); 
+        boardPanel.add(boardComponent, JLayeredPane.PALETTE_LAYER);
        
         
-        JButton deckButton = new JButton(new ImageIcon(new ImageIcon("project_assets/images/cards/backCard.jpg").getImage().getScaledInstance(100, 150, Image.SCALE_SMOOTH))); 
+        JButton deckButton = new JButton(ImageCache.getIcon(DECK_IMAGE, DECK_WIDTH, DECK_HEIGHT));
         deckButton.setBounds(50, 250, 100, 150); 
         deckButton.addMouseListener(new MouseListener() {
 
     @Override
     public void mouseClicked(MouseEvent e) {
-        if (SwingUtilities.isLeftMouseButton(e) && controller != null) {
+        if (SwingUtilities.isLeftMouseButton(e) && controller != null
+                && controller.acceptsInput(controller.getCurrentPlayer())) {
             Turn currentTurn = controller.getCurrentTurn();
             if (currentTurn != null) {
                 currentTurn.drawCard();
@@ -453,7 +510,7 @@ public class GameView extends JFrame {
         JButton playerFrescoesButton = new JButton("Frescoes");
         playerFrescoesButton.setBounds(1050, 10, 100, 25); 
         playerFrescoesButton.addActionListener(e -> {
-            if (controller.getCurrentPlayer() != player) {
+            if (!controller.acceptsInput(player)) {
                 JOptionPane.showMessageDialog(null, "It's not your turn!", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
@@ -464,7 +521,7 @@ public class GameView extends JFrame {
         JButton endTurnButton = new JButton("End Turn");
         endTurnButton.setBounds(1050, 40, 100, 25); 
         endTurnButton.addActionListener(e -> {
-            if (controller.getCurrentPlayer() != player) {
+            if (!controller.acceptsInput(player)) {
                 JOptionPane.showMessageDialog(null, "It's not your turn!", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
@@ -488,7 +545,7 @@ public class GameView extends JFrame {
     
         SnakeGoddess snakeGoddess = new SnakeGoddess("Snake Goddess Statue", 5); 
         String snakeGoddessIconPath = snakeGoddess.getImagePath(); 
-        ImageIcon snakeGoddessIcon = new ImageIcon(new ImageIcon(snakeGoddessIconPath).getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH));
+        ImageIcon snakeGoddessIcon = ImageCache.getIcon(snakeGoddessIconPath, ICON_SIZE, ICON_SIZE);
         JLabel snakeGoddessIconLabel = new JLabel(snakeGoddessIcon);
         snakeGoddessIconLabel.setBounds(1150, 95, 30, 30); 
         playerOutline.add(snakeGoddessIconLabel);
@@ -546,7 +603,6 @@ public class GameView extends JFrame {
     private void addPalaceComponents(JPanel playerOutline, int xOffset, int yOffset) {
         String[] palaces = {"Knossos", "Phaistos", "Malia", "Zakros"};
         Color[] palaceColors = {Color.RED, Color.WHITE, Color.YELLOW, Color.BLUE};
-        String[] rareFindings = {"Minoas Ring (Knossos)", "Phaistos Disc", "Malia Jewel", "Zakros Rhyton"};
         
     
         for (int i = 0; i < palaces.length; i++) {
@@ -558,9 +614,9 @@ public class GameView extends JFrame {
 
             JLabel rareFindingLabel = new JLabel();
             rareFindingLabel.setBounds(xOffset + i * 100, yOffset + 100, 30, 30); 
-            RareFinding rareFinding = new RareFinding(rareFindings[i]); 
+            RareFinding rareFinding = new RareFinding(RARE_FINDINGS[i]); 
             String imagePath = rareFinding.getImagePath(); 
-            rareFindingLabel.setIcon(new ImageIcon(createGrayImage(new ImageIcon(imagePath).getImage()).getScaledInstance(30, 30, Image.SCALE_SMOOTH))); 
+            rareFindingLabel.setIcon(ImageCache.getGrayIcon(imagePath, ICON_SIZE, ICON_SIZE));
             playerOutline.add(rareFindingLabel);
             rareFindingLabels.add(rareFindingLabel); 
             
@@ -597,6 +653,26 @@ public void updateStatuesLabel(Player player) {
 
 
 
+/**
+ * Returns the scaled icon of a card. The model only knows card ids; the icon is the shared
+ * flyweight of the face, from CardFaces.
+ * 
+ * @param id the CardId of the card
+ * @return the icon of the card, scaled to the size of a hand button
+ * @pre 0 <= id < 48
+ * @post the icon of the card is returned
+ */
+public ImageIcon getCardIcon(byte id) {
+    return CardFaces.getIcon(id);
+}
+
+
+
+
+
+
+
+
 /**
  * Displays the player's hand by updating the card buttons.
  * 
@@ -615,12 +691,12 @@ public void displayPlayerHand(Player player) {
         }
         if (i < hand.size()) {
             Card card = hand.get(i);
-            cardButton.setIcon(new ImageIcon(card.getIcon().getImage().getScaledInstance(60, 100, Image.SCALE_SMOOTH)));
+            cardButton.setIcon(getCardIcon(card.getId()));
             cardButton.setEnabled(true);
             cardButton.addMouseListener(new MouseListener() {
                 @Override
                 public void mouseClicked(MouseEvent e) {
-                    if (controller.getCurrentPlayer() != player) {
+                    if (!controller.acceptsInput(player)) {
                         JOptionPane.showMessageDialog(null, "It's not your turn!", "Error", JOptionPane.ERROR_MESSAGE);
                         return;
                     }
@@ -674,9 +750,8 @@ public void displayPlayerHand(Player player) {
  * @post the score label for the specified player is updated
  */
 public void updatePlayerScore(Player player) {
-    int totalScore = model.calculateTotalScore(player);
     JLabel playerScoreLabel = player.getScoreLabel();
-    playerScoreLabel.setText("Score: " + totalScore);
+    playerScoreLabel.setText("Score: " + player.getTotalScore());
 }
 
 
@@ -738,44 +813,14 @@ private List<JButton> getPlayerHandButtons(Player player) {
 
 
 /**
- * Displays the game board by updating the board grid with path labels and icons.
+ * Displays the game board. The tiles never change and the pawns repaint their own cells, so this
+ * only repaints the board component.
  * 
  * @pre none
- * @post the board grid is updated with path labels and icons, and the UI is refreshed
+ * @post the board component is repainted
  */
 public void displayBoard() {
-        boardGrid.removeAll();
-        Path[] paths = board.getPaths();
-        for (int pathIndex = 0; pathIndex < paths.length; pathIndex++) {
-            Path path = paths[pathIndex];
-            for (int i = 0; i < path.getPositions().length; i++) {
-                JLabel positionLabel = new JLabel();
-                positionLabel.setHorizontalAlignment(SwingConstants.CENTER);
-                positionLabel.setVerticalAlignment(SwingConstants.CENTER);
-                positionLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-
-                ImageIcon icon;
-                if (i == 8) { 
-                    icon = new ImageIcon(new ImageIcon(path.getImagePath(i)).getImage().getScaledInstance(220, 110, Image.SCALE_SMOOTH)); 
-                    positionLabel.setPreferredSize(new Dimension(220, 110));
-                } else { 
-                    icon = new ImageIcon(new ImageIcon(path.getImagePath(i)).getImage().getScaledInstance(130, 110, Image.SCALE_SMOOTH));
-                    positionLabel.setPreferredSize(new Dimension(130, 110));
-                }
-                positionLabel.setIcon(icon);
-
-                GridBagConstraints gbc = new GridBagConstraints();
-                gbc.gridx = i;
-                gbc.gridy = pathIndex;
-                gbc.fill = GridBagConstraints.BOTH;
-                gbc.weightx = (i == 8) ? 2.0 : 1.0; 
-                gbc.weighty = 1.0;
-
-                boardGrid.add(positionLabel, gbc);
-            }
-        }
-        boardGrid.revalidate();
-        boardGrid.repaint();
+        boardComponent.repaint();
 }
 
 
@@ -832,7 +877,7 @@ private void displayPlayerFrescoes(Player player) {
         for (Finding fresco : frescoes) {
             JLabel label = new JLabel();
             label.setText(fresco.getDescription());
-            label.setIcon(new ImageIcon(fresco.getImagePath()));
+            label.setIcon(new ImageIcon(ImageCache.getImage(fresco.getImagePath())));
             panel.add(label);
         }
     
@@ -862,7 +907,7 @@ private void displayPlayerFrescoes(Player player) {
  * @post a dialog is displayed showing the finding's information
  */
 public void showFindingDialog(Finding finding, String title) {
-        ImageIcon findingImage = new ImageIcon(finding.getImagePath());
+        ImageIcon findingImage = new ImageIcon(ImageCache.getImage(finding.getImagePath()));
         String specificText = finding.getSpecificText(); 
     
         JPanel panel = new JPanel();
@@ -937,28 +982,6 @@ public void showFindingDialog(Finding finding, String title) {
 
 
 
-/**
- * Creates a gray image from the given image.
- * 
- * @param image the original image
- * @pre image is not null
- * @post a gray version of the image is created and returned
- * @return the gray version of the image
- */
-    private Image createGrayImage(Image image) {
-        GrayFilter filter = new GrayFilter(true, 50);
-        ImageProducer producer = new FilteredImageSource(image.getSource(), filter);
-        return Toolkit.getDefaultToolkit().createImage(producer);
-    }
-
-
-
-
-
-
-
-
-
     /**
  * Updates the icon for a rare finding for the specified player.
  * 
@@ -990,7 +1013,7 @@ public void showFindingDialog(Finding finding, String title) {
             JLabel rareFindingLabel = rareFindingLabels.get(palaceIndex + playerIndex * 4); 
             RareFinding rareFinding = new RareFinding(rareFindingDescription); 
             String imagePath = rareFinding.getImagePath(); 
-            rareFindingLabel.setIcon(new ImageIcon(new ImageIcon(imagePath).getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH))); 
+            rareFindingLabel.setIcon(ImageCache.getIcon(imagePath, ICON_SIZE, ICON_SIZE));
             rareFindingLabel.revalidate();
             rareFindingLabel.repaint();
         }
@@ -1118,62 +1141,14 @@ public void showFindingDialog(Finding finding, String title) {
  * @param pathIndex the index of the path where the pawn will be placed
  * @param playerIndex the index of the player (0 for Player 1, 1 for Player 2)
  * @pre pawn is not null, pathIndex and playerIndex are valid
- * @post the pawn is added to the board at the specified path and position
+ * @post the pawn is drawn on the board at the specified path and position
  */
     public void addPawnToBoard(Pawn pawn, int pathIndex, int playerIndex) {
-        Path path = board.getPaths()[pathIndex];
-        int position = pawn.getPosition();
         ImageIcon pawnIcon = pawn.isHidden() ? pawn.getHiddenImageIcon() : pawn.getImageIcon();
-        JLabel pawnLabel = new JLabel(pawnIcon);
+        boardComponent.placePawn(pawn, pathIndex, pawn.getPosition(), playerIndex, pawnIcon.getImage());
 
         pawn.setHidden(true);
-    
-      //  System.out.println("Adding pawn to board: " + pawn.getType());
-    
-        int stepWidth = 100; 
-        int stepHeight = 110; 
-        int palaceWidth = 220;
-    
-        int x = 250 + position * stepWidth;
-      //  System.out.println("Initial x calculation: 250 + " + position + " * " + stepWidth + " = " + x);
-        if (position == 8) {
-            x = 250 + 7 * stepWidth + palaceWidth - stepWidth;
-           // System.out.println("Adjusted x for position 8: 250 + 7 * " + stepWidth + " + " + palaceWidth + " - " + stepWidth + " = " + x);
-        }
-    
-        int y = 50 + pathIndex * stepHeight;
-     //   System.out.println("Initial y calculation: 50 + " + pathIndex + " * " + stepHeight + " = " + y);
-    
-        if (pathIndex > 0) {
-            y += 40; 
-          //  System.out.println("Adjusted y for pathIndex > 0: " + y);
-        }
-    
-        if (playerIndex == 1) {
-            y += 30; 
-         //   System.out.println("Adjusted y for Player 2: " + y);
-        }
-    
-        pawnLabel.setBounds(x, y, 30, 30); 
-    
-     //   System.out.println("Pawn coordinates: x = " + x + ", y = " + y);
-    
-        if (playerIndex == 0) {
-            pawnLabel.setBorder(new LineBorder(Color.GREEN, 2));
-        } else {
-            pawnLabel.setBorder(new LineBorder(Color.PINK, 2));
-        }
-    if (pawn.isImmobilized()) {
-        pawnLabel.setBorder(BorderFactory.createLineBorder(Color.BLUE, 2));
-    }
-    
-        int pawnIndex = pawns.indexOf(pawn);
-        pawnLabel.setName("pawn-" + pawnIndex + "-" + pathIndex + "-" + position);
-    
-        boardPanel.add(pawnLabel, JLayeredPane.MODAL_LAYER);
-        boardPanel.revalidate();
-        boardPanel.repaint();
-    
+
         updateRemainingPawns(controller.getPlayers().get(playerIndex));
     }
     
@@ -1191,70 +1166,11 @@ public void showFindingDialog(Finding finding, String title) {
  * @param pathIndex the index of the path where the pawn will be placed
  * @param playerIndex the index of the player (0 for Player 1, 1 for Player 2)
  * @pre pawn is not null, pathIndex and playerIndex are valid
- * @post the pawn is moved on the board to the specified path and position
+ * @post the pawn is drawn at its new position only, and only the cells it left and entered are repainted
  */
     public void movePawnOnBoard(Pawn pawn, int pathIndex, int playerIndex) {
-        Path path = board.getPaths()[pathIndex];
-        int position = pawn.getPosition();
         ImageIcon pawnIcon = pawn.isHidden() ? pawn.getHiddenImageIcon() : pawn.getImageIcon();
-        JLabel pawnLabel = new JLabel(pawnIcon);
-    
-      //  System.out.println("Moving pawn on board: " + pawn.getType());
-    
-        int stepWidth = 100;
-        int stepHeight = 110;
-        int palaceWidth = 220;
-    
-        int x = 250 + position * stepWidth;
-      //  System.out.println("Initial x calculation: 250 + " + position + " * " + stepWidth + " = " + x);
-        if (position == 8) {
-            x = 250 + 7 * stepWidth + palaceWidth - stepWidth;
-          //  System.out.println("Adjusted x for position 8: 250 + 7 * " + stepWidth + " + " + palaceWidth + " - " + stepWidth + " = " + x);
-        }
-    
-        int y = 50 + pathIndex * stepHeight;
-      //  System.out.println("Initial y calculation: 50 + " + pathIndex + " * " + stepHeight + " = " + y);
-    
-        if (pathIndex > 0) {
-            y += 40;
-          //  System.out.println("Adjusted y for pathIndex > 0: " + y);
-        }
-    
-        if (playerIndex == 1) {
-            y += 30;
-          //  System.out.println("Adjusted y for Player 2: " + y);
-        }
-    
-        pawnLabel.setBounds(x, y, 30, 30);
-       // System.out.println("Pawn coordinates: x = " + x + ", y = " + y);
-    
-        if (playerIndex == 0) {
-            pawnLabel.setBorder(new LineBorder(Color.GREEN, 2));
-        } else {
-            pawnLabel.setBorder(new LineBorder(Color.PINK, 2));
-        }
-        
-    if (pawn.isImmobilized()) {
-        pawnLabel.setBorder(BorderFactory.createLineBorder(Color.BLUE, 2));
-    }
-        int pawnIndex = pawns.indexOf(pawn);
-        pawnLabel.setName("pawn-" + pawnIndex + "-" + pathIndex + "-" + position);
-    
-        for (Component component : boardPanel.getComponents()) {
-            if (component instanceof JLabel) {
-                JLabel label = (JLabel) component;
-                if (label.getName() != null && label.getName().startsWith("pawn-" + pawnIndex + "-" + pathIndex + "-")) {
-                    boardPanel.remove(label);
-                  //  System.out.println("Removed previous pawn label: " + label.getName());
-                }
-            }
-        }
-    
-        boardPanel.add(pawnLabel, JLayeredPane.MODAL_LAYER);
-        boardPanel.revalidate();
-        boardPanel.repaint();
-    
-//        System.out.println("Pawn index in the list: " + pawnIndex);
+        boardComponent.placePawn(pawn, pathIndex, pawn.getPosition(), playerIndex, pawnIcon.getImage());
     }
 
 
@@ -1276,24 +1192,7 @@ public void showFindingDialog(Finding finding, String title) {
  * @post the appearance of the pawn is updated on the board
  */
     public void updatePawnAppearance(Pawn pawn, int pathIndex, int playerIndex) {
-        for (Component component : boardPanel.getComponents()) {
-            if (component instanceof JLabel) {
-                JLabel label = (JLabel) component;
-                if (label.getIcon() == pawn.getImageIcon()) {
-                    if (pawn.isImmobilized()) {
-                        label.setBorder(BorderFactory.createLineBorder(Color.BLUE, 2));
-                    } else {
-                        if (playerIndex == 0) {
-                            label.setBorder(new LineBorder(Color.GREEN, 2));
-                        } else {
-                            label.setBorder(new LineBorder(Color.PINK, 2));
-                        }
-                    }
-                    repaint();
-                    break;
-                }
-            }
-        }
+        boardComponent.updatePawn(pawn);
     }
    
     
@@ -1468,6 +1367,22 @@ private void handlePlayOrDiscardCard(Player player, Card card) {
 
 
 
+/**
+ * Shows the move a computer player is considering while it thinks.
+ * 
+ * @param player the computer player
+ * @param move the best move found so far
+ * @param work the playouts or nodes searched so far
+ * @pre player is not null
+ * @post the label displaying the current player shows the move being considered
+ */
+    public void displayComputerThinking(Player player, String move, long work) {
+        currentPlayerInfoLabel.setText("Playing: " + player.getName() + " (thinking: " + move + ", " + work + " searched)");
+    }
+
+
+
+
 
 
 /**
@@ -0,0 +1,66 @@
+package view;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JWindow;
+import javax.swing.SwingConstants;
+import java.awt.BorderLayout;
+import java.awt.Font;
+
+
+
+/**
+ * The SplashScreen class is the small window shown while the assets of the game are loaded.
+ * It only holds a title and a progress bar, so it appears at once.
+ */
+public class SplashScreen extends JWindow {
+    private static final long serialVersionUID = 1L;
+    private final JProgressBar progressBar;
+
+
+
+
+
+    /**
+     * Constructs a SplashScreen, centered on the screen.
+     *
+     * @param total the number of assets to load
+     * @pre total &gt;= 0, called on the event dispatch thread
+     * @post a SplashScreen is created, not yet visible
+     */
+    public SplashScreen(int total) {
+        JLabel title = new JLabel("Lost Cities Game", SwingConstants.CENTER);
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 24f));
+
+        progressBar = new JProgressBar(0, total);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Loading...");
+
+        JPanel panel = new JPanel(new BorderLayout(0, 20));
+        panel.setBorder(BorderFactory.createEmptyBorder(30, 40, 30, 40));
+        panel.add(title, BorderLayout.CENTER);
+        panel.add(progressBar, BorderLayout.SOUTH);
+        setContentPane(panel);
+        setSize(360, 160);
+        setLocationRelativeTo(null);
+    }
+
+
+
+
+    /**
+     * Shows the number of assets loaded so far.
+     *
+     * @param loaded the number of assets loaded
+     * @pre called on the event dispatch thread
+     * @post the progress bar shows the number
+     */
+    public void setProgress(int loaded) {
+        if (loaded > progressBar.getValue()) {
+            progressBar.setValue(loaded);
+            progressBar.setString("Loading " + loaded + " / " + progressBar.getMaximum());
+        }
+    }
+}